@@ -0,0 +1,172 @@
+package ru.rest.benchmark;
+
+import ru.rest.serverHandler.CustomHttpServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Нагрузочный тест допуска запросов: сервер с базой H2 перегружается, и сравниваются задержки с выключенным
+ * и включенным {@code server.admission.*}.
+ * <p>
+ * Пока нагрузку создают {@code load.hammers} клиентов без пауз ({@code GET /orders?limit=1000}), один
+ * клиент с постоянной частотой {@code load.probeRate} запросов в секунду читает страницы {@code GET /orders}.
+ * Задержка пробного клиента отсчитывается от запланированного момента отправки, поэтому ожидание в очереди
+ * сервера не скрывается. Сценарий {@code one-client} - все нагружающие потоки с одним {@code X-API-Key}
+ * (ограничение частоты), {@code many-clients} - у каждого свой ключ (адаптивный лимит одновременных запросов).
+ * Все клиенты подключаются с одного адреса, поэтому ключи прописываются в {@code server.admission.apiKeys}.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark -DskipTests compile exec:java -Dexec.mainClass=ru.rest.benchmark.AdmissionLoadTest}
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class AdmissionLoadTest {
+
+    private static final int PORT = Integer.getInteger("load.port", 18080);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int HAMMERS = Integer.getInteger("load.hammers", 200);
+    private static final int PROBE_RATE = Integer.getInteger("load.probeRate", 20);
+    private static final int USERS = 1000;
+    private static final int ORDERS_PER_USER = 10;
+
+    private AdmissionLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (BenchmarkDatabase database = BenchmarkDatabase.start("admission", USERS, ORDERS_PER_USER)) {
+            System.setProperty("db.url", database.url());
+            System.setProperty("db.username", "sa");
+            System.setProperty("db.password", "");
+            System.setProperty("db.driverClassName", "org.h2.Driver");
+            // H2 иначе возвращает сохраненный результат повторного запроса, и база не была бы узким местом
+            try (Connection connection = database.openConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SET OPTIMIZE_REUSE_RESULTS FALSE");
+            }
+            System.out.printf("%-13s %-9s %8s %8s %8s %8s %8s   %s%n",
+                    "scenario", "admission", "p50 ms", "p99 ms", "p999 ms", "max ms", "probe ok", "hammer statuses");
+            int port = PORT;
+            for (boolean manyClients : new boolean[]{false, true}) {
+                for (boolean admission : new boolean[]{false, true}) {
+                    run(port++, manyClients, admission);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(int port, boolean manyClients, boolean admission) throws IOException, InterruptedException {
+        System.setProperty("server.admission.enabled", Boolean.toString(admission));
+        List<String> apiKeys = new ArrayList<>(List.of("warmup", "probe", "hammer"));
+        for (int i = 0; manyClients && i < HAMMERS; i++) {
+            apiKeys.add("hammer-" + i);
+        }
+        System.setProperty("server.admission.apiKeys", String.join(",", apiKeys));
+        CustomHttpServer server = new CustomHttpServer(port);
+        server.start();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://127.0.0.1:" + port;
+        try {
+            // Прогрев: JIT и пул подключений
+            for (int i = 0; i < 200; i++) {
+                send(client, base + "/orders?limit=1000", "warmup");
+            }
+            Map<Integer, LongAdder> hammerStatuses = new ConcurrentHashMap<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < HAMMERS; i++) {
+                String key = manyClients ? "hammer-" + i : "hammer";
+                threads.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        int status = send(client, base + "/orders?limit=1000", key);
+                        hammerStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                });
+            }
+            List<Long> latencies = new ArrayList<>();
+            ReentrantLock latenciesLock = new ReentrantLock();
+            LongAdder probeOk = new LongAdder();
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / PROBE_RATE;
+            long scheduled = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            while (scheduled < deadline) {
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                long start = scheduled;
+                threads.execute(() -> {
+                    int after = ThreadLocalRandom.current().nextInt(USERS * ORDERS_PER_USER);
+                    int status = send(client, base + "/orders?after=" + after + "&limit=10", "probe");
+                    long latency = System.nanoTime() - start;
+                    if (status == 200) {
+                        probeOk.increment();
+                    }
+                    latenciesLock.lock();
+                    try {
+                        latencies.add(latency);
+                    } finally {
+                        latenciesLock.unlock();
+                    }
+                });
+                scheduled += intervalNanos;
+            }
+            threads.shutdown();
+            threads.awaitTermination(1, TimeUnit.MINUTES);
+            latencies.sort(null);
+            Map<Integer, Long> statuses = new TreeMap<>();
+            hammerStatuses.forEach((status, count) -> statuses.put(status, count.sum()));
+            System.out.printf("%-13s %-9s %8.1f %8.1f %8.1f %8.1f %4d/%-3d   %s%n",
+                    manyClients ? "many-clients" : "one-client", admission ? "on" : "off",
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                    percentile(latencies, 1.0), probeOk.sum(), latencies.size(), statuses);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Отправляет запрос и возвращает код ответа; {@code -1} означает ошибку соединения или таймаут.
+     */
+    private static int send(HttpClient client, String uri, String apiKey) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header("X-API-Key", apiKey)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.rest.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import ru.rest.dataBase.MigrationRunner;
+import ru.rest.dataBase.SeedGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Класс {@code BenchmarkDatabase} поднимает встроенную базу H2 в режиме совместимости с MySQL,
+ * заменяющую MySQL в бенчмарках.
+ * <p>
+ * База доступна по TCP, чтобы открытие подключения через {@link DriverManager} включало сетевое
+ * рукопожатие, как при работе с настоящим сервером.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private final Server server;
+    private final String url;
+
+    private BenchmarkDatabase(Server server, String name) {
+        this.server = server;
+        this.url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Запускает сервер H2, применяет миграции схемы приложения и заполняет таблицы.
+     *
+     * @param name имя базы данных в памяти
+     * @param users число пользователей
+     * @param ordersPerUser число заказов у каждого пользователя
+     * @return запущенная база данных
+     * @throws SQLException если не удалось запустить сервер или заполнить базу
+     */
+    public static BenchmarkDatabase start(String name, int users, int ordersPerUser) throws SQLException {
+        Server server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        BenchmarkDatabase database = new BenchmarkDatabase(server, name);
+        database.createSchema(users, ordersPerUser);
+        return database;
+    }
+
+    /**
+     * Возвращает URL подключения к базе.
+     *
+     * @return URL JDBC
+     */
+    public String url() {
+        return url;
+    }
+
+    /**
+     * Открывает новое подключение без пула.
+     *
+     * @return подключение к базе
+     * @throws SQLException если не удалось подключиться
+     */
+    public Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(url, USER, PASSWORD);
+    }
+
+    /**
+     * Создает пул подключений HikariCP к базе.
+     *
+     * @param maximumPoolSize размер пула
+     * @return пул подключений
+     */
+    public HikariDataSource createPool(int maximumPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(USER);
+        config.setPassword(PASSWORD);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(maximumPoolSize);
+        return new HikariDataSource(config);
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    private void createSchema(int users, int ordersPerUser) throws SQLException {
+        try (HikariDataSource dataSource = createPool(1)) {
+            new MigrationRunner(dataSource).migrate();
+            new SeedGenerator(dataSource).seed(users, ordersPerUser);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.rest.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rest.entity.Order;
+import ru.rest.repository.JdbcOrderRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает поиск заказа по идентификатору с новым подключением через {@code DriverManager}
+ * на каждый вызов (прежняя реализация контроллеров) и с подключением из пула HikariCP.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int ORDERS_PER_USER = 10;
+
+    private BenchmarkDatabase database;
+    private HikariDataSource pool;
+    private JdbcOrderRepository pooledRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.start("pool", USERS, ORDERS_PER_USER);
+        pool = database.createPool(10);
+        pooledRepository = new JdbcOrderRepository(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+        database.close();
+    }
+
+    @Benchmark
+    public Order driverManagerPerCall() throws SQLException {
+        try (Connection connection = database.openConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, product, user_id FROM orders WHERE id = ?")) {
+            statement.setInt(1, randomOrderId());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                        ? new Order(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3))
+                        : null;
+            }
+        }
+    }
+
+    @Benchmark
+    public Order pooled() throws SQLException {
+        return pooledRepository.findById(randomOrderId());
+    }
+
+    private static int randomOrderId() {
+        return ThreadLocalRandom.current().nextInt(1, USERS * ORDERS_PER_USER + 1);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.rest.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.rest.entity.Order;
+import ru.rest.entity.User;
+import ru.rest.repository.JdbcOrderRepository;
+import ru.rest.repository.JdbcUserRepository;
+import ru.rest.repository.OrderRepository;
+import ru.rest.repository.UserRepository;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет методы доступа к данным репозиториев поверх пула подключений к встроенной базе H2.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataAccessBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int ORDERS_PER_USER = 10;
+
+    private BenchmarkDatabase database;
+    private HikariDataSource pool;
+    private UserRepository userRepository;
+    private OrderRepository orderRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchmarkDatabase.start("dataAccess", USERS, ORDERS_PER_USER);
+        pool = database.createPool(10);
+        userRepository = new JdbcUserRepository(pool);
+        orderRepository = new JdbcOrderRepository(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+        database.close();
+    }
+
+    @Benchmark
+    public User userById() throws SQLException {
+        return userRepository.findById(ThreadLocalRandom.current().nextInt(1, USERS + 1));
+    }
+
+    @Benchmark
+    public Order orderById() throws SQLException {
+        return orderRepository.findById(ThreadLocalRandom.current().nextInt(1, USERS * ORDERS_PER_USER + 1));
+    }
+
+    @Benchmark
+    public List<Order> ordersByUserId() throws SQLException {
+        return orderRepository.findByUserId(ThreadLocalRandom.current().nextInt(1, USERS + 1));
+    }
+
+    @Benchmark
+    public List<Order> ordersPage() throws SQLException {
+        return orderRepository.findPage(ThreadLocalRandom.current().nextInt(0, USERS * ORDERS_PER_USER - 100), 100);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Order> allOrdersMaterialized() throws SQLException {
+        return orderRepository.findAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void allOrdersStreamed(Blackhole blackhole) throws SQLException, IOException {
+        orderRepository.forEach(0, blackhole::consume);
+    }
+}
@@ -0,0 +1,219 @@
+package ru.rest.benchmark;
+
+import ru.rest.serverHandler.CustomHttpServer;
+import ru.rest.serverHandler.ExecutorStrategy;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Нагрузочный тест стратегий выполнения обработчиков: {@link ExecutorStrategy#VIRTUAL}, {@link ExecutorStrategy#FIXED}
+ * и {@link ExecutorStrategy#WORK_STEALING}, каждая с ограничителем обращений к базе данных
+ * ({@code db.pool.concurrencyLimit}, равный размеру пула) и без него.
+ * <p>
+ * {@code load.clients} клиентов без пауз читают страницы {@code GET /orders?after=...&limit=10} из базы H2
+ * в течение {@code load.seconds} секунд. Пул подключений и ограничитель создаются один раз на процесс
+ * ({@link ru.rest.dataBase.ConnectionPool}), поэтому каждая конфигурация запускается в отдельной JVM с общей базой.
+ * Для {@code FIXED} и {@code WORK_STEALING} число потоков задается {@code load.threads}.
+ * Без ограничителя потоки ждут подключение в самом пуле HikariCP.
+ * <p>
+ * Запуск: {@code mvn -Pbenchmark -DskipTests compile exec:java -Dexec.mainClass=ru.rest.benchmark.ExecutorLoadTest}
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class ExecutorLoadTest {
+
+    private static final int PORT = Integer.getInteger("load.port", 18180);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int POOL_SIZE = Integer.getInteger("load.poolSize", 10);
+    private static final int THREADS = Integer.getInteger("load.threads", 2 * POOL_SIZE);
+    private static final int USERS = 1000;
+    private static final int ORDERS_PER_USER = 10;
+    private static final String RUN = "run";
+
+    private ExecutorLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && RUN.equals(args[0])) {
+            run();
+            System.exit(0);
+        }
+        try (BenchmarkDatabase database = BenchmarkDatabase.start("executors", USERS, ORDERS_PER_USER)) {
+            // H2 иначе возвращает сохраненный результат повторного запроса, и база не была бы узким местом
+            try (Connection connection = database.openConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SET OPTIMIZE_REUSE_RESULTS FALSE");
+            }
+            System.out.printf("clients=%d, pool=%d, threads=%d, %d s per run%n", CLIENTS, POOL_SIZE, THREADS, SECONDS);
+            System.out.printf("%-13s %-7s %9s %8s %8s %8s   %s%n",
+                    "executor", "limiter", "ok req/s", "p50 ms", "p99 ms", "max ms", "statuses");
+            int port = PORT;
+            for (ExecutorStrategy strategy : ExecutorStrategy.values()) {
+                for (boolean limiter : new boolean[]{false, true}) {
+                    fork(database, strategy, limiter, port++);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Запускает одну конфигурацию в отдельной JVM и ждет ее завершения; строка результата выводится дочерним процессом.
+     */
+    private static void fork(BenchmarkDatabase database, ExecutorStrategy strategy, boolean limiter, int port)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classPath(),
+                "-Dload.port=" + port,
+                "-Dload.seconds=" + SECONDS,
+                "-Dload.clients=" + CLIENTS,
+                "-Dload.limiter=" + limiter,
+                "-Ddb.url=" + database.url(),
+                "-Ddb.username=sa",
+                "-Ddb.password=",
+                "-Ddb.driverClassName=org.h2.Driver",
+                "-Ddb.pool.maximumPoolSize=" + POOL_SIZE,
+                "-Ddb.pool.minimumIdle=" + POOL_SIZE,
+                // Без ограничителя семафор пропускает всех, и запросы ждут подключение в HikariCP
+                "-Ddb.pool.concurrencyLimit=" + (limiter ? POOL_SIZE : Integer.MAX_VALUE),
+                "-Dserver.executor=" + strategy.name(),
+                "-Dserver.threads=" + THREADS,
+                "-Dserver.admission.enabled=false",
+                ExecutorLoadTest.class.getName(), RUN));
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (!process.waitFor(SECONDS + 120L, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            System.out.printf("%-13s %-7s did not finish%n", strategy, limiter ? "on" : "off");
+        }
+    }
+
+    /**
+     * Выполняет одну конфигурацию в текущей JVM: настройки приходят системными свойствами от {@link #fork}.
+     */
+    private static void run() throws IOException, InterruptedException {
+        String strategy = ExecutorStrategy.fromSystemProperties().name();
+        String limiter = Boolean.getBoolean("load.limiter") ? "on" : "off";
+        CustomHttpServer server = new CustomHttpServer(PORT);
+        server.start();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://127.0.0.1:" + PORT;
+        try {
+            // Прогрев: JIT и пул подключений
+            for (int i = 0; i < 500; i++) {
+                send(client, page(base));
+            }
+            Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+            List<Long> latencies = new ArrayList<>();
+            ReentrantLock latenciesLock = new ReentrantLock();
+            long started = System.nanoTime();
+            long deadline = started + TimeUnit.SECONDS.toNanos(SECONDS);
+            ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+            for (int i = 0; i < CLIENTS; i++) {
+                threads.execute(() -> {
+                    List<Long> own = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status = send(client, page(base));
+                        own.add(System.nanoTime() - start);
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                    latenciesLock.lock();
+                    try {
+                        latencies.addAll(own);
+                    } finally {
+                        latenciesLock.unlock();
+                    }
+                });
+            }
+            threads.shutdown();
+            threads.awaitTermination(SECONDS + 60L, TimeUnit.SECONDS);
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            latencies.sort(null);
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            System.out.printf("%-13s %-7s %9.0f %8.1f %8.1f %8.1f   %s%n",
+                    strategy, limiter, counts.getOrDefault(200, 0L) / elapsed,
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 1.0), counts);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String page(String base) {
+        return base + "/orders?after=" + ThreadLocalRandom.current().nextInt(USERS * ORDERS_PER_USER) + "&limit=10";
+    }
+
+    /**
+     * Отправляет запрос и возвращает код ответа; {@code -1} означает ошибку соединения или таймаут.
+     */
+    private static int send(HttpClient client, String uri) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    /**
+     * Возвращает путь классов для дочерней JVM: {@code exec:java} загружает проект отдельным загрузчиком,
+     * и {@code java.class.path} его не содержит.
+     */
+    private static String classPath() {
+        if (ExecutorLoadTest.class.getClassLoader() instanceof URLClassLoader loader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : loader.getURLs()) {
+                try {
+                    entries.add(Path.of(url.toURI()).toString());
+                } catch (URISyntaxException e) {
+                    entries.add(url.getPath());
+                }
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+}
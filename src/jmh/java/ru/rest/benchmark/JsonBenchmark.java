@@ -0,0 +1,142 @@
+package ru.rest.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rest.entity.Order;
+import ru.rest.entity.User;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измеряет сериализацию списков {@link User} и {@link Order} разного размера и чтение заказа
+ * из тела запроса: исходный вариант ({@code writeValueAsBytes(Object)} у собственного {@link ObjectMapper}),
+ * писатель, созданный для типа списка, тот же писатель с модулем Blackbird и путь {@link JsonCodec},
+ * которым пользуются контроллеры (писатель типа, Blackbird и буфер из пула, передаваемый в поток ответа).
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<User> users;
+    private List<Order> orders;
+    private byte[] orderRequestBody;
+
+    private ObjectWriter typedOrdersWriter;
+    private ObjectWriter blackbirdOrdersWriter;
+    private ObjectReader typedOrderReader;
+    private final OutputStream responseBody = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(size);
+        orders = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(new User(i, "User " + i, "user" + i + "@example.com"));
+            orders.add(new Order(i, "Product " + i, i % 1000 + 1));
+        }
+        orderRequestBody = "{\"product\":\"Product A\",\"userId\":1}".getBytes(StandardCharsets.UTF_8);
+        TypeReference<List<Order>> ordersType = new TypeReference<>() {
+        };
+        typedOrdersWriter = JsonCodec.createMapper(false).writerFor(ordersType);
+        blackbirdOrdersWriter = JsonCodec.createMapper(true).writerFor(ordersType);
+        typedOrderReader = JsonCodec.createMapper(false).readerFor(Order.class);
+    }
+
+    @Benchmark
+    public byte[] serializeUsers() throws IOException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws IOException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeOrdersTypedWriter() throws IOException {
+        return typedOrdersWriter.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeOrdersBlackbird() throws IOException {
+        return blackbirdOrdersWriter.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public int serializeOrdersCodec() throws IOException {
+        return writeWithCodec(JsonCodec.ORDERS.compact(), orders);
+    }
+
+    @Benchmark
+    public int serializeUsersCodec() throws IOException {
+        return writeWithCodec(JsonCodec.USERS.compact(), users);
+    }
+
+    @Benchmark
+    public Order readOrderFromRequest() throws IOException {
+        try (InputStream is = new ByteArrayInputStream(orderRequestBody)) {
+            return objectMapper.readValue(is, Order.class);
+        }
+    }
+
+    @Benchmark
+    public Order readOrderTypedReader() throws IOException {
+        try (InputStream is = new ByteArrayInputStream(orderRequestBody)) {
+            return typedOrderReader.readValue(is);
+        }
+    }
+
+    @Benchmark
+    public Order readOrderCodec() throws IOException {
+        try (InputStream is = new ByteArrayInputStream(orderRequestBody)) {
+            return JsonCodec.ORDER.read(is);
+        }
+    }
+
+    /**
+     * Сериализует значение так же, как {@code JsonResponses.send}: в буфер из пула и затем в поток ответа.
+     */
+    private int writeWithCodec(ObjectWriter writer, Object value) throws IOException {
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        try {
+            JsonCodec.write(buffer, writer, value);
+            buffer.writeTo(responseBody);
+            return buffer.size();
+        } finally {
+            JsonCodec.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ru.rest.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.rest.entity.Order;
+import ru.rest.entity.OrderCountBucket;
+import ru.rest.entity.ProductOrderCount;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.repository.JdbcOrderRepository;
+import ru.rest.repository.JdbcOrderStatsRepository;
+import ru.rest.repository.OrderRepository;
+import ru.rest.repository.OrderStatsRepository;
+import ru.rest.snapshot.OrderSnapshot;
+import ru.rest.snapshot.SnapshotOrderStats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает способы получения агрегатов по заказам: запросы {@code GROUP BY} к базе данных,
+ * параллельную редукцию fork-join по снимку заказов с разным числом потоков и подход клиентов отчетов,
+ * которые выгружают весь список заказов в JSON и считают сами.
+ * <p>
+ * Ускорение редукции с ростом {@code parallelism} ограничено числом доступных ядер.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class OrderStatsBenchmark {
+
+    private static final int ORDERS_PER_USER = 10;
+
+    @Param({"100000"})
+    public int users;
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private BenchmarkDatabase database;
+    private HikariDataSource pool;
+    private OrderRepository orderRepository;
+    private OrderStatsRepository sqlStats;
+    private OrderSnapshot snapshot;
+    private ForkJoinPool forkJoinPool;
+    private OrderStatsRepository snapshotStats;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        database = BenchmarkDatabase.start("orderStats", users, ORDERS_PER_USER);
+        pool = database.createPool(4);
+        // H2 иначе возвращает сохраненный результат повторного запроса без изменений таблицы
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET OPTIMIZE_REUSE_RESULTS FALSE");
+        }
+        orderRepository = new JdbcOrderRepository(pool);
+        sqlStats = new JdbcOrderStatsRepository(pool);
+        snapshot = new OrderSnapshot(new OrderSnapshot.Settings(
+                true, OrderSnapshot.Storage.HEAP, Path.of(System.getProperty("java.io.tmpdir")), Integer.MAX_VALUE));
+        orderRepository.forEach(0, order -> snapshot.put(order.getId(), order.getProduct(), order.getUserId()));
+        snapshot.markValid();
+        forkJoinPool = new ForkJoinPool(parallelism);
+        snapshotStats = new SnapshotOrderStats(snapshot, sqlStats, forkJoinPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+        snapshot.close();
+        pool.close();
+        database.close();
+    }
+
+    @Benchmark
+    public void sqlUserCounts(Blackhole blackhole) throws SQLException, IOException {
+        sqlStats.forEachUserOrderCount(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<ProductOrderCount> sqlTopProducts() throws SQLException {
+        return sqlStats.findTopProducts(10);
+    }
+
+    @Benchmark
+    public List<OrderCountBucket> sqlHistogram() throws SQLException {
+        return sqlStats.findUserHistogram(1);
+    }
+
+    @Benchmark
+    public void snapshotUserCounts(Blackhole blackhole) throws SQLException, IOException {
+        snapshotStats.forEachUserOrderCount(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<ProductOrderCount> snapshotTopProducts() throws SQLException {
+        return snapshotStats.findTopProducts(10);
+    }
+
+    @Benchmark
+    public List<OrderCountBucket> snapshotHistogram() throws SQLException {
+        return snapshotStats.findUserHistogram(1);
+    }
+
+    /**
+     * Подход клиента отчета: сервер читает и сериализует все заказы, клиент разбирает JSON
+     * и считает заказы по товарам. Передача по сети не учитывается.
+     */
+    @Benchmark
+    public Map<String, Integer> clientDownloadTopProducts() throws SQLException, IOException {
+        List<Order> orders = orderRepository.findAll();
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            JsonCodec.write(buffer, JsonCodec.ORDERS.compact(), orders);
+            buffer.writeTo(body);
+        } finally {
+            JsonCodec.release(buffer);
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (Order order : JsonCodec.ORDERS.read(new ByteArrayInputStream(body.toByteArray()))) {
+            counts.merge(order.getProduct(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
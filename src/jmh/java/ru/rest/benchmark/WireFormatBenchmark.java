@@ -0,0 +1,91 @@
+package ru.rest.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rest.entity.Order;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.WireFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает форматы {@link WireFormat} на списке заказов: время сериализации тем же путем, что и
+ * {@code JsonResponses.send}, время разбора на стороне клиента и размер тела ответа. Размер тела
+ * в байтах для каждого формата выводится в журнал при подготовке состояния.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final String[] PRODUCTS = {"Red Lamp", "Blue Chair", "Green Table", "Quiet Fan", "Small Desk"};
+
+    @Param({"JSON", "SMILE", "CBOR", "MESSAGE_PACK"})
+    public WireFormat format;
+
+    @Param({"1000"})
+    public int size;
+
+    private List<Order> orders;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        orders = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            orders.add(new Order(i, PRODUCTS[random.nextInt(PRODUCTS.length)], random.nextInt(1, 10_000)));
+        }
+        writer = JsonCodec.ORDERS.compact(format);
+        reader = JsonCodec.ORDERS.reader(format);
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        JsonCodec.write(buffer, writer, orders);
+        encoded = buffer.toByteArray();
+        JsonCodec.release(buffer);
+        System.out.printf("%n%s: %d orders encoded in %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        try {
+            JsonCodec.write(buffer, writer, orders);
+            return buffer.size();
+        } finally {
+            JsonCodec.release(buffer);
+        }
+    }
+
+    @Benchmark
+    public List<Order> deserialize() throws IOException {
+        try (InputStream is = new ByteArrayInputStream(encoded)) {
+            return reader.readValue(is);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.rest.serverHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает сопоставление маршрутов {@link Router} с прежней диспетчеризацией
+ * {@code CustomHttpServer} через {@code String.matches} и повторный разбор идентификатора.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final String[] PATHS = {
+            "/users", "/users/42", "/orders", "/orders/1234", "/orders/7/users", "/orders/abc"
+    };
+
+    private Router router;
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        RouteHandler handler = (exchange, parameters) -> {
+        };
+        router = new Router()
+                .get("/users", handler)
+                .get("/users/{id}", handler)
+                .get("/orders", handler)
+                .get("/orders/{id}", handler)
+                .get("/orders/{id}/users", handler);
+        values = new int[1];
+    }
+
+    @Benchmark
+    public void router(Blackhole blackhole) {
+        for (String path : PATHS) {
+            blackhole.consume(router.match(path, values));
+            blackhole.consume(values[0]);
+        }
+    }
+
+    @Benchmark
+    public void legacyRegexDispatch(Blackhole blackhole) {
+        for (String path : PATHS) {
+            blackhole.consume(legacyDispatch(path));
+        }
+    }
+
+    /**
+     * Повторяет прежнюю логику {@code handleUserRequests}/{@code handleOrderRequests} для GET-запросов:
+     * проверку пути регулярным выражением, разбор идентификатора в диспетчере и повторный разбор
+     * в контроллере через {@code split("/")}.
+     */
+    private static int legacyDispatch(String path) {
+        if (path.equals("/users") || path.equals("/orders")) {
+            return 0;
+        } else if (path.matches("/users/\\d+")) {
+            int userId = Integer.parseInt(path.substring("/users/".length()));
+            return userId + Integer.parseInt(path.split("/")[2]);
+        } else if (path.matches("/orders/\\d+")) {
+            int orderId = Integer.parseInt(path.substring("/orders/".length()));
+            return orderId + Integer.parseInt(path.split("/")[2]);
+        } else if (path.matches("/orders/\\d+/users")) {
+            int userId = Integer.parseInt(path.substring("/orders/".length(), path.lastIndexOf("/")));
+            return userId + Integer.parseInt(path.split("/")[2]);
+        }
+        return -1;
+    }
+}
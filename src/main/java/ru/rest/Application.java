@@ -1,10 +1,23 @@
 package ru.rest;
 
+import ru.rest.config.AppConfig;
+import ru.rest.controller.OrderController;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.dataBase.MigrationRunner;
 import ru.rest.serverHandler.CustomHttpServer;
+import ru.rest.startup.Readiness;
+import ru.rest.startup.Warmup;
+
+import java.lang.management.ManagementFactory;
 
 /**
  * Класс {@code Application} является основной точкой входа в RESTful API приложение.
- * Он отвечает за создание и запуск экземпляра {@link CustomHttpServer}.
+ * Он отвечает за загрузку настроек ({@link AppConfig}), обновление схемы базы данных, создание и запуск
+ * экземпляра {@link CustomHttpServer} и его прогрев ({@link Warmup}) перед переходом в состояние готовности.
+ * <p>
+ * Для запуска из архива классов AppCDS экземпляр сначала запускается с {@code -XX:ArchiveClassesAtExit}
+ * и {@code -Dserver.warmup.exitAfter=true} (см. профиль {@code appcds} в {@code pom.xml}): процесс
+ * завершается после прогрева, и в архив попадают все загруженные при прогреве классы.
  *
  * @author [Ваше Имя]
  * @version 1.0
@@ -18,12 +31,51 @@ public class Application {
      */
     public static void main(String[] args) {
         try {
-            // Создаем новый экземпляр CustomHttpServer на порту 8080
-            CustomHttpServer httpServer = new CustomHttpServer(8080);
+            // Настройки из файлов и переменных окружения должны стать системными свойствами
+            // до первого обращения к классам, читающим их в статических полях
+            AppConfig.load();
+            int port = AppConfig.getInt("server.port", 8080);
+            Warmup.Settings warmup = Warmup.Settings.fromSystemProperties();
+
+            // Приводим схему базы данных к последней версии до приема запросов
+            if (AppConfig.getBoolean("db.migrate.onStartup", true)) {
+                new MigrationRunner(ConnectionPool.getPool()).migrate();
+            }
+
+            // Поисковый индекс и снимок заказов строятся до приема запросов, чтобы не пропустить параллельные записи
+            long indexStarted = System.nanoTime();
+            int indexed = OrderController.rebuildIndexes();
+            if (indexed >= 0) {
+                System.out.println("Индексы заказов: " + indexed + " заказов за "
+                        + (System.nanoTime() - indexStarted) / 1_000_000 + " мс.");
+            }
+
+            CustomHttpServer httpServer = new CustomHttpServer(port);
+
+            // При остановке приложения снимаем готовность, завершаем потоки событий, дописываем принятые заказы
+            // и закрываем пул подключений
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                Readiness.set(Readiness.State.STOPPING);
+                OrderController.closeEventStream();
+                OrderController.flushWrites();
+                OrderController.closeSnapshot();
+                ConnectionPool.close();
+            }));
 
-            // Запускаем HTTP-сервер
+            // Запускаем HTTP-сервер; до окончания прогрева /health/ready отвечает 503
             httpServer.start();
-            System.out.println("Сервер запущен. Слушает порт 8080.");
+            System.out.println("Сервер запущен. Слушает порт " + port + ".");
+            if (warmup.enabled()) {
+                Readiness.set(Readiness.State.WARMING_UP);
+                Warmup.run(port, warmup);
+            }
+            Readiness.set(Readiness.State.READY);
+            System.out.println("Сервер готов через " + ManagementFactory.getRuntimeMXBean().getUptime()
+                    + " мс после запуска JVM.");
+            if (warmup.exitAfter()) {
+                httpServer.stop(0);
+                System.exit(0);
+            }
         } catch (Exception e) {
             // Обрабатываем любые исключения, которые могут возникнуть во время запуска сервера
             e.printStackTrace();
@@ -0,0 +1,26 @@
+package ru.rest.cache;
+
+/**
+ * Снимок счетчиков {@link LruCache}.
+ *
+ * @param hits число попаданий
+ * @param misses число промахов
+ * @param evictions число записей, вытесненных из-за превышения размера
+ * @param expirations число записей, удаленных по истечении времени жизни
+ * @param size текущее число записей
+ * @param maxSize максимальное число записей
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public record CacheStats(long hits, long misses, long evictions, long expirations, int size, int maxSize) {
+
+    /**
+     * Возвращает долю попаданий среди всех обращений.
+     *
+     * @return доля попаданий от 0 до 1
+     */
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
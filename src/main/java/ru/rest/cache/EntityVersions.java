@@ -0,0 +1,83 @@
+package ru.rest.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Класс {@code EntityVersions} хранит счетчики версий сущностей для построения ETag без чтения
+ * данных и без хеширования ответа.
+ * <p>
+ * Идентификаторы распределяются по фиксированному числу полос ({@link AtomicLongArray}), поэтому
+ * память не зависит от числа сущностей. Запись присваивает полосе очередное значение общей
+ * последовательности. Изменение одной сущности меняет ETag и у других сущностей ее полосы - такие
+ * клиенты лишний раз получают полный ответ, но устаревший ответ никогда не подтверждается кодом 304.
+ * {@link #bumpAll()} меняет версии всех сущностей сразу, когда затронутые идентификаторы неизвестны.
+ * <p>
+ * Версии живут только в памяти процесса, поэтому в ETag входит случайная эпоха процесса: после
+ * перезапуска или на другом экземпляре старые ETag не совпадут. Изменения в базе данных в обход
+ * приложения версии не отслеживают; чтобы такие изменения все же становились видны, ETag меняется
+ * не реже одного раза за {@code maxAgeMillis}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class EntityVersions {
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final long maxAgeMillis;
+
+    /**
+     * Создает хранилище версий.
+     *
+     * @param stripes число полос; округляется вверх до степени двойки
+     * @param maxAgeMillis период, по истечении которого ETag меняется без записи; {@code 0} - не меняется
+     */
+    public EntityVersions(int stripes, long maxAgeMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Отмечает изменение сущности. Вызывается после того, как изменение записано в базу данных и кэш.
+     *
+     * @param id идентификатор сущности
+     */
+    public void bump(int id) {
+        stripes.set(index(id), sequence.incrementAndGet());
+    }
+
+    /**
+     * Отмечает изменение всех сущностей.
+     */
+    public void bumpAll() {
+        generation.set(sequence.incrementAndGet());
+    }
+
+    /**
+     * Возвращает слабый ETag текущей версии сущности. Читать его нужно до загрузки данных:
+     * тогда ответ никогда не получит версию новее своих данных.
+     *
+     * @param id идентификатор сущности
+     * @return ETag вида {@code W/"..."}
+     */
+    public String etag(int id) {
+        StringBuilder tag = new StringBuilder(40).append("W/\"").append(epoch)
+                .append('-').append(Long.toString(generation.get(), 36))
+                .append('-').append(Long.toString(stripes.get(index(id)), 36));
+        if (maxAgeMillis > 0) {
+            tag.append('-').append(Long.toString(System.currentTimeMillis() / maxAgeMillis, 36));
+        }
+        return tag.append('"').toString();
+    }
+
+    private int index(int id) {
+        return (id * 0x9E3779B9 >>> 16 ^ id) & mask;
+    }
+}
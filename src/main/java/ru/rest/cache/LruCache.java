@@ -0,0 +1,232 @@
+package ru.rest.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code LruCache} реализует ограниченный по размеру кэш с вытеснением давно не использованных
+ * записей (LRU) и временем жизни записи (TTL).
+ * <p>
+ * Порядок доступа поддерживает {@link LinkedHashMap}, защищенная {@link ReentrantLock}: в отличие от
+ * {@code synchronized} блокировка не закрепляет виртуальный поток за потоком-носителем.
+ * Счетчики попаданий, промахов и вытеснений построены на {@link LongAdder} и не требуют блокировки.
+ * <p>
+ * Для заполнения кэша после чтения из базы данных служат {@link #stamp(Object)} и
+ * {@link #putIfUnchanged(Object, Object, long)}: каждая запись и удаление ключа увеличивают счетчик его полосы,
+ * и значение, прочитанное до параллельного изменения, не попадает в кэш поверх более новых данных.
+ * Ключи делят {@value #STRIPES} полос, поэтому совпадение полосы лишь изредка отменяет безопасное заполнение.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class LruCache<K, V> {
+
+    private static final long NEVER = Long.MIN_VALUE;
+    private static final int STRIPES = 64;
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Создает кэш.
+     *
+     * @param maxSize максимальное число записей
+     * @param ttlMillis время жизни записи в миллисекундах; {@code 0} означает неограниченное время жизни
+     */
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key ключ
+     * @return значение или {@code null}, если записи нет или ее время жизни истекло
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.isExpired(System.nanoTime())) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Сохраняет значение в кэше, при необходимости вытесняя самую давнюю запись.
+     *
+     * @param key ключ
+     * @param value значение; {@code null} не кэшируется
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : NEVER;
+        lock.lock();
+        try {
+            stamps.incrementAndGet(stripe(key));
+            entries.put(key, new Entry<>(value, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает отметку изменений ключа для последующего {@link #putIfUnchanged(Object, Object, long)}.
+     * Отметку нужно взять до чтения значения из источника данных.
+     *
+     * @param key ключ
+     * @return отметка изменений
+     */
+    public long stamp(K key) {
+        return stamps.get(stripe(key));
+    }
+
+    /**
+     * Сохраняет значение, только если с момента получения отметки ключ не записывался и не удалялся.
+     *
+     * @param key ключ
+     * @param value значение; {@code null} не кэшируется
+     * @param stamp отметка, полученная {@link #stamp(Object)} до чтения значения
+     * @return {@code true}, если значение сохранено
+     */
+    public boolean putIfUnchanged(K key, V value, long stamp) {
+        if (value == null) {
+            return false;
+        }
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : NEVER;
+        lock.lock();
+        try {
+            if (stamps.get(stripe(key)) != stamp) {
+                return false;
+            }
+            entries.put(key, new Entry<>(value, expiresAt));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет запись из кэша.
+     *
+     * @param key ключ
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            stamps.incrementAndGet(stripe(key));
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все записи из кэша.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            for (int i = 0; i < STRIPES; i++) {
+                stamps.incrementAndGet(i);
+            }
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет записи с истекшим временем жизни.
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                    expirations.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает текущее число записей.
+     *
+     * @return число записей
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает снимок счетчиков кэша.
+     *
+     * @return статистика кэша
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size(), maxSize);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Запись кэша со временем истечения.
+     */
+    private record Entry<V>(V value, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt != NEVER && now - expiresAt >= 0;
+        }
+    }
+}
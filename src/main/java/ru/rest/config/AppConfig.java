@@ -0,0 +1,133 @@
+package ru.rest.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Класс {@code AppConfig} собирает настройки приложения из нескольких источников.
+ * <p>
+ * Приоритет источников, от высшего к низшему:
+ * <ol>
+ *     <li>системные свойства ({@code -Dserver.port=9090});</li>
+ *     <li>переменные окружения: имя ключа в верхнем регистре, точки и дефисы заменены на подчеркивания
+ *     ({@code SERVER_PORT}, {@code DB_POOL_MAXIMUMPOOLSIZE});</li>
+ *     <li>внешний файл из свойства {@code config.file} или переменной {@code APP_CONFIG_FILE};</li>
+ *     <li>{@code application.properties} и {@code database.properties} из classpath.</li>
+ * </ol>
+ * Переменные окружения учитываются для ключей, которые встречаются в файлах настроек.
+ * <p>
+ * {@link #load()} публикует итоговые значения как системные свойства, поэтому остальные классы
+ * по-прежнему читают настройки через {@link Integer#getInteger(String, int)} и
+ * {@link ru.rest.dataBase.ConnectionPool#getProperty(String, String)}. Метод нужно вызвать
+ * до первого обращения к классам, которые читают настройки в статических полях.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class AppConfig {
+
+    private static final String[] CLASSPATH_FILES = {"database.properties", "application.properties"};
+    private static final String CONFIG_FILE_PROPERTY = "config.file";
+    private static final String CONFIG_FILE_ENV = "APP_CONFIG_FILE";
+
+    private AppConfig() {
+    }
+
+    /**
+     * Загружает настройки из файлов и переменных окружения и публикует их как системные свойства.
+     * Уже заданные системные свойства не изменяются.
+     *
+     * @return итоговые настройки из файлов и окружения без учета прочих системных свойств
+     */
+    public static Properties load() {
+        return load(System.getenv());
+    }
+
+    /**
+     * Загружает настройки с указанными переменными окружения.
+     *
+     * @param environment переменные окружения
+     * @return итоговые настройки из файлов и окружения без учета прочих системных свойств
+     */
+    static Properties load(Map<String, String> environment) {
+        Properties properties = new Properties();
+        for (String name : CLASSPATH_FILES) {
+            try (InputStream is = AppConfig.class.getClassLoader().getResourceAsStream(name)) {
+                if (is != null) {
+                    properties.load(is);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        String externalFile = System.getProperty(CONFIG_FILE_PROPERTY, environment.get(CONFIG_FILE_ENV));
+        if (externalFile != null && !externalFile.isBlank()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(externalFile), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String value = environment.get(environmentName(key));
+            if (value != null) {
+                properties.setProperty(key, value);
+            }
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, properties.getProperty(key));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Возвращает имя переменной окружения для ключа настройки.
+     *
+     * @param key ключ, например {@code db.pool.maximumPoolSize}
+     * @return имя переменной, например {@code DB_POOL_MAXIMUMPOOLSIZE}
+     */
+    static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    /**
+     * Возвращает строковую настройку.
+     *
+     * @param key ключ настройки
+     * @param defaultValue значение, если настройка не задана
+     * @return значение настройки
+     */
+    public static String get(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Возвращает целочисленную настройку.
+     *
+     * @param key ключ настройки
+     * @param defaultValue значение, если настройка не задана
+     * @return значение настройки
+     */
+    public static int getInt(String key, int defaultValue) {
+        return Integer.getInteger(key, defaultValue);
+    }
+
+    /**
+     * Возвращает логическую настройку.
+     *
+     * @param key ключ настройки
+     * @param defaultValue значение, если настройка не задана
+     * @return значение настройки
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = System.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
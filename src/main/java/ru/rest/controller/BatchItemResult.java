@@ -0,0 +1,17 @@
+package ru.rest.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ *
+ * @param index порядковый номер элемента в теле запроса, начиная с 0
+ * @param id идентификатор сохраненной или измененной записи, если он известен
+ * @param status HTTP-код результата для элемента
+ * @param error описание ошибки, если элемент не обработан
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, Integer id, int status, String error) {
+}
@@ -0,0 +1,62 @@
+package ru.rest.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Вспомогательный класс {@code ConditionalRequests} обрабатывает условные GET-запросы
+ * с заголовком {@code If-None-Match}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Сравнивает ETag клиента с текущим. При совпадении отправляет ответ 304 без тела.
+     * Сравнение слабое (RFC 9110, раздел 13.1.2): префикс {@code W/} не учитывается.
+     * Значение {@code *} не считается совпадением, так как существование сущности без
+     * обращения к базе данных неизвестно.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param etag текущий ETag сущности
+     * @return {@code true}, если ответ 304 отправлен и обработку запроса нужно завершить
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        List<String> conditions = exchange.getRequestHeaders().get("If-None-Match");
+        if (conditions == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String condition : conditions) {
+            for (String candidate : condition.split(",")) {
+                if (opaque.equals(opaque(candidate.trim()))) {
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    exchange.sendResponseHeaders(304, -1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Добавляет ETag к ответу. Вызывается только перед успешным ответом.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param etag ETag отправляемой версии
+     */
+    static void setETag(HttpExchange exchange, String etag) {
+        exchange.getResponseHeaders().set("ETag", etag);
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.rest.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.json.JsonCodec;
+import ru.rest.startup.Readiness;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс {@code HealthController} отвечает на проверки состояния экземпляра от балансировщика
+ * и оркестратора.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class HealthController {
+
+    /**
+     * Обрабатывает проверку готовности. Отвечает 200, когда прогрев завершен и экземпляр
+     * принимает трафик, и 503 во время запуска, прогрева и остановки.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getReadiness(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", Readiness.get());
+        if (Readiness.isReady()) {
+            body.put("readySince", Readiness.getReadyAtMillis());
+        }
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        JsonResponses.send(exchange, Readiness.isReady() ? 200 : 503, JsonCodec.ANY, body);
+    }
+
+    /**
+     * Обрабатывает проверку жизнеспособности: процесс отвечает на запросы, независимо от стадии.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getLiveness(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        JsonResponses.send(exchange, 200, JsonCodec.ANY, Map.of("status", "UP"));
+    }
+}
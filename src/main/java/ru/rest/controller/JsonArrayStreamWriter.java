@@ -0,0 +1,152 @@
+package ru.rest.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.json.WireFormat;
+import ru.rest.metrics.Metrics;
+import ru.rest.serverHandler.ResponseAbortedException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Класс {@code JsonArrayStreamWriter} записывает JSON-массив (или массив в выбранном клиентом двоичном
+ * формате) в тело ответа по одному элементу с помощью {@link JsonGenerator}, используя chunked-кодирование передачи.
+ * <p>
+ * Заголовки ответа отправляются при записи первого элемента (или при закрытии пустого массива),
+ * поэтому ошибка базы данных до первой строки еще может быть передана клиенту кодом состояния.
+ * Ошибку после первой строки обработчик передает через {@link #abort(Exception)}: подключение разрывается,
+ * и клиент не принимает усеченный массив за полный ответ. Буфер генератора возвращается в пул
+ * методом {@link #release()}, который вызывается в {@code finally}.
+ * Объем памяти не зависит от числа элементов. Время записи элементов учитывается
+ * в {@link Metrics#SERIALIZATION_TIME} одним измерением на весь ответ. Элементы пишутся
+ * писателем их типа, а буферы генератора берутся из пула {@link JsonCodec}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class JsonArrayStreamWriter implements Closeable {
+
+    private static final SerializedString ORDER_ID = new SerializedString("id");
+    private static final SerializedString ORDER_PRODUCT = new SerializedString("product");
+    private static final SerializedString ORDER_USER_ID = new SerializedString("userId");
+
+    private final HttpExchange exchange;
+    private final JsonType<?> elementType;
+    private ObjectWriter elementWriter;
+    private JsonBuffer buffer;
+    private JsonGenerator generator;
+    private long serializationNanos;
+
+    /**
+     * Создает писатель для указанного HTTP-обмена.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param elementType писатели типа элементов
+     */
+    JsonArrayStreamWriter(HttpExchange exchange, JsonType<?> elementType) {
+        this.exchange = exchange;
+        this.elementType = elementType;
+    }
+
+    /**
+     * Записывает очередной элемент массива.
+     *
+     * @param value элемент
+     * @throws IOException если возникнут ошибки при записи ответа
+     */
+    void write(Object value) throws IOException {
+        start();
+        long started = System.nanoTime();
+        elementWriter.writeValue(generator, value);
+        serializationNanos += System.nanoTime() - started;
+    }
+
+    /**
+     * Записывает очередной заказ из примитивных полей в том же виде, что и {@code Order},
+     * не создавая объектов: имена полей и название товара уже закодированы.
+     *
+     * @param id идентификатор заказа
+     * @param product название товара
+     * @param userId идентификатор пользователя
+     * @throws IOException если возникнут ошибки при записи ответа
+     */
+    void writeOrder(int id, SerializableString product, int userId) throws IOException {
+        start();
+        long started = System.nanoTime();
+        generator.writeStartObject();
+        generator.writeFieldName(ORDER_ID);
+        generator.writeNumber(id);
+        generator.writeFieldName(ORDER_PRODUCT);
+        generator.writeString(product);
+        generator.writeFieldName(ORDER_USER_ID);
+        generator.writeNumber(userId);
+        generator.writeEndObject();
+        serializationNanos += System.nanoTime() - started;
+    }
+
+    /**
+     * Проверяет, были ли уже отправлены заголовки ответа.
+     *
+     * @return {@code true}, если ответ начат
+     */
+    boolean isStarted() {
+        return generator != null;
+    }
+
+    /**
+     * Завершает массив и тело ответа.
+     *
+     * @throws IOException если возникнут ошибки при записи ответа
+     */
+    @Override
+    public void close() throws IOException {
+        start();
+        generator.writeEndArray();
+        generator.close();
+        release();
+        Metrics.SERIALIZATION_TIME.record(serializationNanos);
+    }
+
+    /**
+     * Прерывает начатый ответ: завершающий блок не отправляется, и сервер разрывает подключение.
+     *
+     * @param cause причина прерывания
+     * @throws ResponseAbortedException всегда; исключение должно дойти до сервера
+     */
+    void abort(Exception cause) throws ResponseAbortedException {
+        release();
+        throw new ResponseAbortedException(cause);
+    }
+
+    /**
+     * Возвращает буфер генератора в пул, если он еще не возвращен. Генератор после этого не используется.
+     */
+    void release() {
+        if (buffer != null) {
+            JsonCodec.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void start() throws IOException {
+        if (generator == null) {
+            WireFormat format = JsonResponses.responseFormat(exchange);
+            exchange.sendResponseHeaders(200, 0);
+            buffer = JsonCodec.acquireBuffer();
+            generator = JsonCodec.createGenerator(exchange.getResponseBody(), buffer, format);
+            if (format == WireFormat.JSON && JsonResponses.isPretty(exchange)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            // Отступы задает генератор всего массива, поэтому элементы пишутся компактным писателем
+            elementWriter = elementType.compact(format);
+            generator.writeStartArray();
+        }
+    }
+}
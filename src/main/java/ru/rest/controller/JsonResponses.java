@@ -0,0 +1,87 @@
+package ru.rest.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.json.WireFormat;
+import ru.rest.metrics.Metrics;
+import ru.rest.serverHandler.QueryParams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Вспомогательный класс {@code JsonResponses} выбирает формат ответа для запроса и отправляет его.
+ * Формат ({@link WireFormat}) выбирается по заголовку {@code Accept}, по умолчанию это JSON.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class JsonResponses {
+
+    private JsonResponses() {
+    }
+
+    /**
+     * Проверяет, запросил ли клиент форматированный JSON параметром {@code ?pretty}.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @return {@code true}, если нужен вывод с отступами
+     */
+    static boolean isPretty(HttpExchange exchange) {
+        return QueryParams.of(exchange.getRequestURI()).getFlag("pretty");
+    }
+
+    /**
+     * Выбирает формат ответа по заголовку {@code Accept} и указывает его в заголовках ответа.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @return формат ответа
+     */
+    static WireFormat responseFormat(HttpExchange exchange) {
+        WireFormat format = WireFormat.fromAccept(exchange.getRequestHeaders().getFirst("Accept"));
+        exchange.getResponseHeaders().add("Content-Type", format.mediaType());
+        exchange.getResponseHeaders().add("Vary", "Accept");
+        return format;
+    }
+
+    /**
+     * Определяет формат тела запроса по заголовку {@code Content-Type}.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @return формат тела запроса
+     */
+    static WireFormat requestFormat(HttpExchange exchange) {
+        return WireFormat.fromContentType(exchange.getRequestHeaders().getFirst("Content-Type"));
+    }
+
+    /**
+     * Сериализует тело ответа в буфер из пула в формате, выбранном для запроса, и отправляет его
+     * с известной длиной прямо из буфера. Время сериализации учитывается в {@link Metrics#SERIALIZATION_TIME}.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param status HTTP-код ответа
+     * @param type писатели типа тела ответа
+     * @param object тело ответа
+     * @throws IOException если объект не удалось сериализовать или возникнут ошибки при отправке ответа
+     */
+    static void send(HttpExchange exchange, int status, JsonType<?> type, Object object) throws IOException {
+        WireFormat format = responseFormat(exchange);
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        try {
+            long started = System.nanoTime();
+            try {
+                JsonCodec.write(buffer, type.writer(format, isPretty(exchange)), object);
+            } finally {
+                Metrics.SERIALIZATION_TIME.record(System.nanoTime() - started);
+            }
+            exchange.sendResponseHeaders(status, buffer.size());
+            try (OutputStream os = exchange.getResponseBody()) {
+                buffer.writeTo(os);
+            }
+        } finally {
+            JsonCodec.release(buffer);
+        }
+    }
+}
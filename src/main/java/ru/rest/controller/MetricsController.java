@@ -0,0 +1,129 @@
+package ru.rest.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.cache.CacheStats;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.events.OrderEventBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.metrics.Metrics;
+import ru.rest.search.OrderSearchIndex;
+import ru.rest.snapshot.OrderSnapshot;
+import ru.rest.writer.OrderWriteBehind;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс {@code MetricsController} отвечает за выдачу служебных показателей работы приложения.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class MetricsController {
+
+    /**
+     * Обрабатывает запрос на получение показателей в текстовом формате Prometheus: число ответов
+     * и задержки по маршрутам, время работы с базой данных и сериализации, состояние исполнителя
+     * запросов, пула подключений, очереди отложенной записи и поискового индекса заказов.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getPrometheusMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder out = new StringBuilder(8192);
+        Metrics.writePrometheus(out);
+        Map<String, Object> pool = ConnectionPool.getStats();
+        Metrics.writeGauge(out, "db_pool_active_connections", "Connections in use.",
+                ((Number) pool.get("activeConnections")).longValue());
+        Metrics.writeGauge(out, "db_pool_idle_connections", "Idle connections.",
+                ((Number) pool.get("idleConnections")).longValue());
+        Metrics.writeGauge(out, "db_pool_threads_awaiting_permit", "Requests waiting for a database connection.",
+                ((Number) pool.get("threadsAwaitingPermit")).longValue());
+        OrderWriteBehind writeBehind = OrderController.getWriteBehind();
+        if (writeBehind != null) {
+            Metrics.writeGauge(out, "orders_write_behind_queue_size", "Orders waiting to be written.",
+                    writeBehind.getQueueSize());
+            Metrics.writeGauge(out, "orders_write_behind_queue_capacity", "Write-behind queue capacity.",
+                    writeBehind.getCapacity());
+            Metrics.writeCounter(out, "orders_write_behind_accepted_total", "Orders accepted into the queue.",
+                    writeBehind.getAccepted());
+            Metrics.writeCounter(out, "orders_write_behind_rejected_total", "Orders rejected with 429 on a full queue.",
+                    writeBehind.getRejected());
+            Metrics.writeCounter(out, "orders_write_behind_committed_total", "Accepted orders written to the database.",
+                    writeBehind.getCommitted());
+            Metrics.writeCounter(out, "orders_write_behind_failed_total", "Accepted orders that could not be written.",
+                    writeBehind.getFailed());
+            Metrics.writeCounter(out, "orders_write_behind_groups_total", "Group commits.",
+                    writeBehind.getGroups());
+        }
+        OrderSearchIndex searchIndex = OrderController.getSearchIndex();
+        if (searchIndex != null) {
+            Metrics.writeGauge(out, "orders_search_index_orders", "Orders in the search index.", searchIndex.size());
+            Metrics.writeGauge(out, "orders_search_index_tokens", "Distinct tokens in the search index.",
+                    searchIndex.tokenCount());
+        }
+        OrderEventBuffer events = OrderController.getEventBuffer();
+        if (events != null) {
+            Metrics.writeGauge(out, "orders_stream_subscribers", "Connected GET /orders/stream subscribers.",
+                    events.getSubscribers());
+            Metrics.writeCounter(out, "orders_stream_events_total", "Order change events published.",
+                    events.lastSequence());
+            Metrics.writeCounter(out, "orders_stream_resets_total", "Reset events sent to lagging or resuming subscribers.",
+                    events.getResets());
+        }
+        OrderSnapshot snapshot = OrderController.getSnapshot();
+        if (snapshot != null) {
+            Metrics.writeGauge(out, "orders_snapshot_valid", "1 if order lists are served from the snapshot.",
+                    snapshot.isValid() ? 1 : 0);
+            Metrics.writeGauge(out, "orders_snapshot_orders", "Orders in the snapshot.", snapshot.size());
+            Metrics.writeGauge(out, "orders_snapshot_products", "Distinct products in the snapshot dictionary.",
+                    snapshot.productCount());
+            Metrics.writeGauge(out, "orders_snapshot_column_bytes", "Bytes held by the snapshot columns.",
+                    snapshot.columnBytes());
+        }
+        byte[] responseBytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, responseBytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(responseBytes);
+        }
+    }
+
+    /**
+     * Обрабатывает запрос на получение состояния пула подключений к базе данных.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getPoolStats(HttpExchange exchange) throws IOException {
+        sendJsonResponse(exchange, ConnectionPool.getStats());
+    }
+
+    /**
+     * Обрабатывает запрос на получение статистики кэшей пользователей и заказов.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getCacheStats(HttpExchange exchange) throws IOException {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("users", UserController.getCacheStats());
+        stats.put("orders", OrderController.getCacheStats());
+        sendJsonResponse(exchange, stats);
+    }
+
+    /**
+     * Отправляет JSON-ответ клиенту. По умолчанию JSON передается без отступов,
+     * форматированный вывод включается параметром {@code ?pretty}.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param object объект, который необходимо сериализовать и отправить как ответ
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void sendJsonResponse(HttpExchange exchange, Object object) throws IOException {
+        JsonResponses.send(exchange, 200, JsonCodec.ANY, object);
+    }
+}
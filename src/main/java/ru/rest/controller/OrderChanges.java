@@ -0,0 +1,190 @@
+package ru.rest.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import ru.rest.entity.Order;
+import ru.rest.events.OrderEventBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.search.OrderSearchIndex;
+import ru.rest.snapshot.OrderSnapshot;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code OrderChanges} переносит изменения заказов в представления в памяти (поисковый индекс и снимок
+ * заказов) и в поток событий {@link OrderEventBuffer} в том же порядке, в котором они зафиксированы в базе данных.
+ * <p>
+ * Запись в базу данных, ее применение к представлениям и публикация события выполняются под одной блокировкой
+ * из набора {@link ReentrantLock}, выбранной по идентификатору заказа. Без нее обновление, зафиксированное раньше
+ * удаления того же заказа, могло бы примениться после него: вернуть удаленный заказ в снимок до перезапуска
+ * и отправить подписчикам {@code updated} после {@code deleted}.
+ * Пакетные изменения берут блокировки всех своих заказов в порядке возрастания номера, поэтому пакеты
+ * с пересекающимися заказами не взаимоблокируются.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class OrderChanges {
+
+    /**
+     * Изменение заказа: запись в базу данных и ее применение к представлениям.
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    interface Change<T> {
+        T run() throws SQLException;
+    }
+
+    private final OrderSearchIndex searchIndex;
+    private final OrderSnapshot snapshot;
+    private final OrderEventBuffer eventBuffer;
+    private final ReentrantLock[] locks;
+
+    /**
+     * Создает упорядочиватель изменений.
+     *
+     * @param searchIndex поисковый индекс или {@code null}
+     * @param snapshot снимок заказов или {@code null}
+     * @param eventBuffer буфер событий изменения заказов или {@code null}
+     * @param stripes число блокировок; округляется вверх до степени двойки
+     */
+    OrderChanges(OrderSearchIndex searchIndex, OrderSnapshot snapshot, OrderEventBuffer eventBuffer, int stripes) {
+        this.searchIndex = searchIndex;
+        this.snapshot = snapshot;
+        this.eventBuffer = eventBuffer;
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Выполняет изменение одного заказа под его блокировкой.
+     *
+     * @param orderId идентификатор заказа
+     * @param change запись и ее применение
+     * @param <T> тип результата
+     * @return результат изменения
+     * @throws SQLException если запись не удалась
+     */
+    <T> T apply(int orderId, Change<T> change) throws SQLException {
+        ReentrantLock lock = locks[stripe(orderId)];
+        lock.lock();
+        try {
+            return change.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Применяет к представлениям уже зафиксированное изменение заказа под его блокировкой: например, создание
+     * заказа, идентификатор которого до фиксации неизвестен.
+     *
+     * @param orderId идентификатор заказа
+     * @param change применение изменения
+     */
+    void applyCommitted(int orderId, Runnable change) {
+        ReentrantLock lock = locks[stripe(orderId)];
+        lock.lock();
+        try {
+            change.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Выполняет изменение нескольких заказов под блокировками всех этих заказов.
+     *
+     * @param orderIds идентификаторы заказов
+     * @param change запись и ее применение
+     * @param <T> тип результата
+     * @return результат изменения
+     * @throws SQLException если запись не удалась
+     */
+    <T> T applyAll(int[] orderIds, Change<T> change) throws SQLException {
+        int[] stripes = new int[orderIds.length];
+        for (int i = 0; i < orderIds.length; i++) {
+            stripes[i] = stripe(orderIds[i]);
+        }
+        Arrays.sort(stripes);
+        int count = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (count == 0 || stripes[count - 1] != stripes[i]) {
+                stripes[count++] = stripes[i];
+            }
+        }
+        int locked = 0;
+        try {
+            while (locked < count) {
+                locks[stripes[locked]].lock();
+                locked++;
+            }
+            return change.run();
+        } finally {
+            while (locked > 0) {
+                locks[stripes[--locked]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Применяет сохраненный заказ к представлениям и публикует событие изменения.
+     * Вызывается внутри {@link #apply}, {@link #applyCommitted} или {@link #applyAll}.
+     *
+     * @param order сохраненный заказ с идентификатором
+     * @param type тип изменения
+     */
+    void saved(Order order, OrderEventBuffer.Type type) {
+        index(order);
+        if (eventBuffer != null) {
+            try {
+                eventBuffer.publish(type, JsonCodec.ORDER.compact().writeValueAsString(order));
+            } catch (JsonProcessingException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Добавляет заказ в поисковый индекс и снимок заказов или обновляет его там без публикации события.
+     * Используется при перестроении до приема запросов.
+     *
+     * @param order заказ
+     */
+    void index(Order order) {
+        if (searchIndex != null) {
+            searchIndex.put(order.getId(), order.getProduct(), order.getUserId());
+        }
+        if (snapshot != null) {
+            snapshot.put(order.getId(), order.getProduct(), order.getUserId());
+        }
+    }
+
+    /**
+     * Удаляет заказ из поискового индекса и снимка заказов и публикует событие удаления.
+     * Вызывается внутри {@link #apply} или {@link #applyAll}.
+     *
+     * @param orderId идентификатор удаленного заказа
+     */
+    void deleted(int orderId) {
+        if (searchIndex != null) {
+            searchIndex.remove(orderId);
+        }
+        if (snapshot != null) {
+            snapshot.remove(orderId);
+        }
+        if (eventBuffer != null) {
+            eventBuffer.publish(OrderEventBuffer.Type.DELETED, "{\"id\":" + orderId + "}");
+        }
+    }
+
+    private int stripe(int orderId) {
+        int h = orderId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (locks.length - 1);
+    }
+}
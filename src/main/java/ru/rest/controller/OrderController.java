@@ -1,21 +1,44 @@
 package ru.rest.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.sun.net.httpserver.HttpExchange;
+import ru.rest.cache.CacheStats;
+import ru.rest.cache.EntityVersions;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.dataBase.ReadRouting;
 import ru.rest.entity.Order;
+import ru.rest.events.OrderEventBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.repository.CachingOrderRepository;
+import ru.rest.repository.IdBlockAllocator;
+import ru.rest.repository.JdbcOrderRepository;
+import ru.rest.repository.OrderRepository;
+import ru.rest.search.OrderSearchIndex;
+import ru.rest.serverHandler.QueryParams;
+import ru.rest.snapshot.OrderSnapshot;
+import ru.rest.writer.OrderWriteBehind;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Класс {@code OrderController} отвечает за обработку запросов, связанных с заказами.
@@ -24,35 +47,324 @@ import java.util.List;
  * @version 1.0
  */
 public class OrderController {
-    public static final ObjectMapper objectMapper = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT);
+    /**
+     * Максимальный размер страницы при keyset-пагинации.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Заголовок ответа с курсором следующей страницы.
+     */
+    private static final String NEXT_PAGE_HEADER = "X-Next-After";
+
+    /**
+     * Размер страницы поиска по умолчанию.
+     */
+    private static final int DEFAULT_SEARCH_LIMIT = 100;
+
+    /**
+     * Число строк, читаемых из снимка заказов за одно обращение при потоковой передаче.
+     */
+    private static final int SNAPSHOT_CHUNK = 256;
+
+    /**
+     * Максимальное число элементов в пакетном запросе.
+     */
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("orders.batch.maxSize", 1000);
+
+    /**
+     * Результаты пакетных операций.
+     */
+    private static final JsonType<List<BatchItemResult>> BATCH_RESULTS = JsonCodec.type(new TypeReference<>() {
+    });
+
+    /**
+     * Идентификатор заказа в теле пакетного удаления.
+     */
+    private static final JsonType<Integer> ORDER_ID = JsonCodec.type(Integer.class);
+
+    private static final LruCache<Integer, Order> orderCache = new LruCache<>(
+            Integer.getInteger("cache.orders.maxSize", 10_000),
+            Long.getLong("cache.orders.ttlMs", 60_000L));
+
+    /**
+     * Версии заказов для ETag ответов {@code GET /orders/{id}}.
+     */
+    private static final EntityVersions orderVersions = new EntityVersions(
+            Integer.getInteger("etag.stripes", 1 << 14), Long.getLong("etag.maxAgeMs", 60_000L));
+
+    /**
+     * Версии списков заказов пользователей для ETag ответов {@code GET /orders/{id}/users}.
+     */
+    private static final EntityVersions userOrdersVersions = new EntityVersions(
+            Integer.getInteger("etag.stripes", 1 << 14), Long.getLong("etag.maxAgeMs", 60_000L));
+
+    private static final OrderRepository orderRepository = new CachingOrderRepository(
+            new JdbcOrderRepository(ConnectionPool.getDataSource(), ConnectionPool.getReadDataSource()), orderCache);
+
+    private static final OrderWriteBehind.Settings writeBehindSettings = OrderWriteBehind.Settings.fromSystemProperties();
+
+    /**
+     * Распределитель идентификаторов заказов; используется только в режиме отложенной записи,
+     * когда все новые заказы получают идентификаторы из зарезервированных блоков.
+     */
+    private static final IdBlockAllocator orderIds = writeBehindSettings.enabled()
+            ? new IdBlockAllocator(ConnectionPool.getDataSource(), "orders", writeBehindSettings.idBlockSize())
+            : null;
+
+    /**
+     * Очередь отложенной записи новых заказов или {@code null}, если режим выключен
+     * ({@code orders.writeBehind.enabled}).
+     */
+    private static final OrderWriteBehind writeBehind = writeBehindSettings.enabled()
+            ? new OrderWriteBehind(orderRepository, orderIds, writeBehindSettings, OrderController::orderCommitted)
+            : null;
+
+    /**
+     * Поисковый индекс заказов по товару или {@code null}, если поиск выключен свойством
+     * {@code orders.search.enabled=false}.
+     */
+    private static final OrderSearchIndex searchIndex =
+            Boolean.parseBoolean(System.getProperty("orders.search.enabled", "true")) ? new OrderSearchIndex() : null;
+
+    private static final OrderSnapshot.Settings snapshotSettings = OrderSnapshot.Settings.fromSystemProperties();
+
+    /**
+     * Столбцовый снимок таблицы заказов, из которого обслуживаются списки заказов, или {@code null},
+     * если снимок выключен ({@code orders.snapshot.enabled}).
+     */
+    private static final OrderSnapshot snapshot = snapshotSettings.enabled() ? new OrderSnapshot(snapshotSettings) : null;
+
+    private static final OrderEventBuffer.Settings eventSettings = OrderEventBuffer.Settings.fromSystemProperties();
+
+    /**
+     * Буфер событий изменения заказов для {@code GET /orders/stream} или {@code null}, если поток
+     * выключен ({@code orders.stream.enabled=false}).
+     */
+    private static final OrderEventBuffer eventBuffer = eventSettings.enabled() ? new OrderEventBuffer(eventSettings) : null;
+
+    /**
+     * Упорядочивает применение изменений заказов к поисковому индексу, снимку и потоку событий по порядку их фиксации.
+     */
+    private static final OrderChanges orderChanges = new OrderChanges(searchIndex, snapshot, eventBuffer,
+            Integer.getInteger("orders.lockStripes", 1024));
+
+    /**
+     * Возвращает статистику кэша заказов по идентификатору.
+     *
+     * @return статистика кэша
+     */
+    public static CacheStats getCacheStats() {
+        return orderCache.stats();
+    }
+
+    /**
+     * Возвращает очередь отложенной записи заказов.
+     *
+     * @return очередь или {@code null}, если отложенная запись выключена
+     */
+    public static OrderWriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Возвращает поисковый индекс заказов.
+     *
+     * @return индекс или {@code null}, если поиск выключен
+     */
+    public static OrderSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    /**
+     * Возвращает столбцовый снимок заказов.
+     *
+     * @return снимок или {@code null}, если он выключен
+     */
+    public static OrderSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Возвращает буфер событий изменения заказов.
+     *
+     * @return буфер или {@code null}, если поток событий выключен
+     */
+    public static OrderEventBuffer getEventBuffer() {
+        return eventBuffer;
+    }
+
+    /**
+     * Перестраивает поисковый индекс и снимок заказов одним потоковым чтением таблицы заказов из основной
+     * базы данных. Вызывается при запуске до приема запросов, чтобы записи не могли разойтись с чтением.
+     *
+     * @return число прочитанных заказов или {@code -1}, если индекс и снимок выключены или чтение не удалось
+     */
+    public static int rebuildIndexes() {
+        if (searchIndex == null && snapshot == null) {
+            return -1;
+        }
+        if (searchIndex != null) {
+            searchIndex.clear();
+        }
+        if (snapshot != null) {
+            snapshot.clear();
+        }
+        int[] count = new int[1];
+        ReadRouting.usePrimary();
+        try {
+            orderRepository.forEach(0, order -> {
+                orderChanges.index(order);
+                count[0]++;
+            });
+            if (snapshot != null) {
+                snapshot.markValid();
+            }
+            return count[0];
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            return -1;
+        } finally {
+            ReadRouting.clear();
+        }
+    }
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/Task2RestApi";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "root";
+    /**
+     * Освобождает столбцы снимка заказов. Вызывается при остановке приложения.
+     */
+    public static void closeSnapshot() {
+        if (snapshot != null) {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * Закрывает буфер событий, завершая потоки подписчиков. Вызывается при остановке приложения.
+     */
+    public static void closeEventStream() {
+        if (eventBuffer != null) {
+            eventBuffer.close();
+        }
+    }
+
+    /**
+     * Останавливает прием заказов в очередь отложенной записи и дожидается записи уже принятых.
+     * Вызывается при остановке приложения до закрытия пула подключений.
+     */
+    public static void flushWrites() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
 
     /**
      * Обрабатывает запрос на получение списка всех заказов.
+     * <p>
+     * С параметром {@code limit} возвращается страница не более чем из {@code limit} заказов с идентификатором
+     * больше {@code after}; если страница заполнена, идентификатор ее последней записи передается
+     * в заголовке {@value #NEXT_PAGE_HEADER} для запроса следующей страницы.
+     * Без {@code limit} заказы передаются потоком прямо из результата запроса.
+     * Если включен снимок заказов, ответ строится из него без обращения к базе данных.
      *
      * @param exchange объект, представляющий HTTP-обмен
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
     public static void getOrders(HttpExchange exchange) throws IOException {
-        List<Order> orders = getAllOrders();
-        sendJsonResponse(exchange, orders);
+        QueryParams params = QueryParams.of(exchange.getRequestURI());
+        int afterId;
+        int limit;
+        try {
+            afterId = params.getInt("after", 0);
+            limit = params.getInt("limit", 0);
+        } catch (NumberFormatException e) {
+            afterId = -1;
+            limit = -1;
+        }
+        if (afterId < 0 || limit < 0 || limit > MAX_PAGE_SIZE) {
+            exchange.sendResponseHeaders(400, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Invalid pagination parameters".getBytes());
+            }
+            return;
+        }
+        if (isSnapshotReady()) {
+            if (limit == 0) {
+                streamSnapshot(exchange, afterId, 0);
+            } else {
+                sendSnapshotPage(exchange, afterId, limit);
+            }
+            return;
+        }
+        if (limit == 0) {
+            streamOrders(exchange, afterId);
+            return;
+        }
+        List<Order> orders = getOrdersPage(afterId, limit);
+        if (orders != null && orders.size() == limit) {
+            exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, String.valueOf(orders.get(limit - 1).getId()));
+        }
+        sendJsonResponse(exchange, JsonCodec.ORDERS, orders);
+    }
+
+    /**
+     * Обрабатывает поиск заказов по товару ({@code ?q=red lamp&userId=7}). Каждое слово запроса
+     * ищется как начало слова в названии товара, заказ должен содержать все слова; {@code userId}
+     * оставляет заказы одного пользователя. Заказы возвращаются страницами по {@code limit}
+     * (по умолчанию {@value #DEFAULT_SEARCH_LIMIT}) в порядке возрастания идентификатора, курсор
+     * следующей страницы передается в заголовке {@value #NEXT_PAGE_HEADER}. Запрос обслуживается
+     * индексом в памяти без обращения к базе данных.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void searchOrders(HttpExchange exchange) throws IOException {
+        if (searchIndex == null) {
+            sendTextResponse(exchange, 404, "Search is disabled");
+            return;
+        }
+        QueryParams params = QueryParams.of(exchange.getRequestURI());
+        String query = params.get("q");
+        int userId;
+        int afterId;
+        int limit;
+        try {
+            userId = params.getInt("userId", 0);
+            afterId = params.getInt("after", 0);
+            limit = params.getInt("limit", DEFAULT_SEARCH_LIMIT);
+        } catch (NumberFormatException e) {
+            userId = -1;
+            afterId = -1;
+            limit = -1;
+        }
+        if (query == null || query.isBlank() || userId < 0 || afterId < 0 || limit <= 0 || limit > MAX_PAGE_SIZE) {
+            sendTextResponse(exchange, 400, "Invalid search parameters");
+            return;
+        }
+        List<Order> orders = searchIndex.search(query, userId, afterId, limit);
+        if (orders.size() == limit) {
+            exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, String.valueOf(orders.get(limit - 1).getId()));
+        }
+        sendJsonResponse(exchange, JsonCodec.ORDERS, orders);
     }
 
     /**
-     * Обрабатывает запрос на получение заказа по его идентификатору.
+     * Обрабатывает запрос на получение заказа по его идентификатору. Если ETag из
+     * {@code If-None-Match} совпадает с текущей версией заказа, отправляется 304
+     * без обращения к базе данных.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param orderId идентификатор заказа
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void getOrderById(HttpExchange exchange) throws IOException {
-        int orderId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
+    public static void getOrderById(HttpExchange exchange, int orderId) throws IOException {
+        String etag = orderVersions.etag(orderId);
+        if (ConditionalRequests.notModified(exchange, etag)) {
+            return;
+        }
         Order order = getOrderById(orderId);
         if (order != null) {
-            sendJsonResponse(exchange, order);
+            ConditionalRequests.setETag(exchange, etag);
+            sendJsonResponse(exchange, JsonCodec.ORDER, order);
         } else {
             exchange.sendResponseHeaders(404, 0);
             try (OutputStream os = exchange.getResponseBody()) {
@@ -63,16 +375,24 @@ public class OrderController {
 
     /**
      * Обрабатывает запрос на создание нового заказа.
+     * <p>
+     * В режиме отложенной записи заказ ставится в очередь и ответ 202 с присвоенным идентификатором
+     * отправляется сразу; в режиме {@code orders.writeBehind.durable} ответ отправляется после фиксации
+     * группы, в которую попал заказ. Если очередь заполнена, отправляется 429.
      *
      * @param exchange объект, представляющий HTTP-обмен
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
     public static void createOrder(HttpExchange exchange) throws IOException {
         Order newOrder = readOrderFromRequest(exchange);
+        if (writeBehind != null) {
+            enqueueOrder(exchange, newOrder);
+            return;
+        }
         if (newOrder != null) {
             int orderId = insertOrderIntoDatabase(newOrder);
             newOrder.setId(orderId);
-            sendJsonResponse(exchange, newOrder);
+            sendJsonResponse(exchange, JsonCodec.ORDER, newOrder);
         } else {
             exchange.sendResponseHeaders(400, 0);
             try (OutputStream os = exchange.getResponseBody()) {
@@ -81,19 +401,103 @@ public class OrderController {
         }
     }
 
+    /**
+     * Ставит новый заказ в очередь отложенной записи и отправляет ответ.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param order заказ из тела запроса
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void enqueueOrder(HttpExchange exchange, Order order) throws IOException {
+        // Ошибки записи после ответа клиенту уже не сообщить, поэтому заказ проверяется заранее
+        if (order == null || order.getProduct() == null || order.getProduct().isBlank() || order.getUserId() <= 0) {
+            sendTextResponse(exchange, 400, "Invalid order data");
+            return;
+        }
+        CompletableFuture<Order> result;
+        try {
+            result = writeBehind.submit(order);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            sendTextResponse(exchange, 500, "Database error");
+            return;
+        }
+        if (result == null) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            sendTextResponse(exchange, 429, "Order queue is full");
+            return;
+        }
+        exchange.getResponseHeaders().add("Location", "/orders/" + order.getId());
+        if (!writeBehindSettings.durable()) {
+            sendJsonResponse(exchange, 202, JsonCodec.ORDER, order);
+            return;
+        }
+        try {
+            sendJsonResponse(exchange, JsonCodec.ORDER, result.get(writeBehindSettings.durableTimeoutMs(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (isConstraintViolation(e.getCause())) {
+                sendTextResponse(exchange, 409, "User not found");
+            } else {
+                sendTextResponse(exchange, 500, "Database error");
+            }
+        } catch (TimeoutException e) {
+            sendTextResponse(exchange, 504, "Order commit timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendTextResponse(exchange, 500, "Interrupted");
+        }
+    }
+
+    /**
+     * Проверяет, вызвана ли ошибка записи нарушением ограничения целостности (например, внешнего ключа).
+     * Ошибка пакета может содержать исходную ошибку в причине или в цепочке следующих исключений.
+     *
+     * @param error ошибка записи
+     * @return true, если нарушено ограничение целостности
+     */
+    private static boolean isConstraintViolation(Throwable error) {
+        while (error != null) {
+            if (error instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
+            if (error instanceof SQLException sqlError) {
+                if (sqlError.getSQLState() != null && sqlError.getSQLState().startsWith("23")) {
+                    return true;
+                }
+                if (sqlError.getNextException() != null) {
+                    error = sqlError.getNextException();
+                    continue;
+                }
+            }
+            error = error.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Меняет версии заказа и списка заказов его владельца после фиксации отложенной записи.
+     *
+     * @param order сохраненный заказ
+     */
+    private static void orderCommitted(Order order) {
+        orderVersions.bump(order.getId());
+        userOrdersVersions.bump(order.getUserId());
+        orderChanges.applyCommitted(order.getId(), () -> orderChanges.saved(order, OrderEventBuffer.Type.CREATED));
+    }
+
     /**
      * Обрабатывает запрос на обновление заказа.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param orderId идентификатор заказа
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void updateOrder(HttpExchange exchange) throws IOException {
-        int orderId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
+    public static void updateOrder(HttpExchange exchange, int orderId) throws IOException {
         Order updatedOrder = readOrderFromRequest(exchange);
         if (updatedOrder != null) {
             updatedOrder.setId(orderId);
             if (updateOrderInDatabase(updatedOrder)) {
-                sendJsonResponse(exchange, updatedOrder);
+                sendJsonResponse(exchange, JsonCodec.ORDER, updatedOrder);
             } else {
                 exchange.sendResponseHeaders(404, 0);
                 try (OutputStream os = exchange.getResponseBody()) {
@@ -112,12 +516,12 @@ public class OrderController {
      * Обрабатывает запрос на удаление заказа.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param orderId идентификатор заказа
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void deleteOrder(HttpExchange exchange) throws IOException {
-        int orderId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
+    public static void deleteOrder(HttpExchange exchange, int orderId) throws IOException {
         if (deleteOrderFromDatabase(orderId)) {
-            exchange.sendResponseHeaders(204, 0);
+            exchange.sendResponseHeaders(204, -1);
         } else {
             exchange.sendResponseHeaders(404, 0);
             try (OutputStream os = exchange.getResponseBody()) {
@@ -127,42 +531,313 @@ public class OrderController {
     }
 
     /**
-     * Обрабатывает запрос на получение списка заказов по идентификатору пользователя.
+     * Обрабатывает запрос на получение заказов нескольких пользователей ({@code ?ids=1,2,3}).
+     * Заказы всех пользователей читаются одним запросом и возвращаются JSON-объектом,
+     * ключами которого являются идентификаторы пользователей. Ошибка базы данных возвращается как 500.
      *
      * @param exchange объект, представляющий HTTP-обмен
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void getOrdersByUserId(HttpExchange exchange) throws IOException {
-        int userId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
-        List<Order> orders = getOrdersByUserId(userId);
-        sendJsonResponse(exchange, orders);
+    public static void getOrdersByUserIds(HttpExchange exchange) throws IOException {
+        int[] userIds = parseIds(QueryParams.of(exchange.getRequestURI()).get("ids"));
+        if (userIds == null) {
+            exchange.sendResponseHeaders(400, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Invalid user ids".getBytes());
+            }
+            return;
+        }
+        Map<Integer, List<Order>> ordersByUser;
+        try {
+            ordersByUser = orderRepository.findByUserIds(userIds);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            sendTextResponse(exchange, 500, "Database error");
+            return;
+        }
+        sendJsonResponse(exchange, JsonCodec.ORDERS_BY_USER, ordersByUser);
     }
 
     /**
-     * Получает все заказы из базы данных.
+     * Обрабатывает пакетный запрос на создание заказов. Тело запроса содержит JSON-массив заказов
+     * или заказы в формате NDJSON (по одному JSON-объекту на строку).
+     * <p>
+     * Корректные заказы сохраняются одним JDBC-пакетом в одной транзакции. Ответ содержит
+     * результат для каждого элемента: идентификатор созданного заказа или описание ошибки.
      *
-     * @return список всех заказов. Если произошла ошибка при доступе к базе данных, возвращается null.
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    private static List<Order> getAllOrders() {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT id, product, user_id FROM orders";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            ResultSet resultSet = statement.executeQuery();
-            List<Order> orders = new ArrayList<>();
-            while (resultSet.next()) {
-                orders.add(new Order(
-                        resultSet.getInt("id"),
-                        resultSet.getString("product"),
-                        resultSet.getInt("user_id")
-                ));
+    public static void createOrders(HttpExchange exchange) throws IOException {
+        List<Order> orders = readBatchFromRequest(exchange, JsonCodec.ORDER);
+        if (!validateBatch(exchange, orders)) {
+            return;
+        }
+        BatchItemResult[] results = new BatchItemResult[orders.size()];
+        List<Order> valid = new ArrayList<>(orders.size());
+        int[] indexes = new int[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order == null || order.getProduct() == null || order.getProduct().isBlank() || order.getUserId() <= 0) {
+                results[i] = new BatchItemResult(i, null, 400, "Invalid order data");
+            } else {
+                indexes[valid.size()] = i;
+                valid.add(order);
+            }
+        }
+        int status = 200;
+        if (!valid.isEmpty()) {
+            try {
+                int[] orderIds = insertOrders(valid);
+                for (int j = 0; j < orderIds.length; j++) {
+                    results[indexes[j]] = new BatchItemResult(indexes[j], orderIds[j], 201, null);
+                    orderVersions.bump(orderIds[j]);
+                    userOrdersVersions.bump(valid.get(j).getUserId());
+                    Order order = valid.get(j);
+                    order.setId(orderIds[j]);
+                    orderChanges.applyCommitted(order.getId(), () -> orderChanges.saved(order, OrderEventBuffer.Type.CREATED));
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                status = 409;
+                rejectBatch(results, indexes, valid.size(), e);
             }
-            return orders;
+        }
+        sendJsonResponse(exchange, status, BATCH_RESULTS, Arrays.asList(results));
+    }
+
+    /**
+     * Обрабатывает пакетный запрос на обновление заказов. Каждый заказ в теле запроса (JSON-массив
+     * или NDJSON) должен содержать идентификатор. Все обновления выполняются в одной транзакции.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void updateOrders(HttpExchange exchange) throws IOException {
+        List<Order> orders = readBatchFromRequest(exchange, JsonCodec.ORDER);
+        if (!validateBatch(exchange, orders)) {
+            return;
+        }
+        BatchItemResult[] results = new BatchItemResult[orders.size()];
+        List<Order> valid = new ArrayList<>(orders.size());
+        int[] indexes = new int[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order == null || order.getId() <= 0 || order.getProduct() == null || order.getProduct().isBlank()
+                    || order.getUserId() <= 0) {
+                results[i] = new BatchItemResult(i, order == null ? null : order.getId(), 400, "Invalid order data");
+            } else {
+                indexes[valid.size()] = i;
+                valid.add(order);
+            }
+        }
+        int status = 200;
+        if (!valid.isEmpty()) {
+            try {
+                int[] validIds = valid.stream().mapToInt(Order::getId).toArray();
+                orderChanges.applyAll(validIds, () -> {
+                    int[] counts = orderRepository.updateAll(valid);
+                    for (int j = 0; j < counts.length; j++) {
+                        results[indexes[j]] = countResult(indexes[j], valid.get(j).getId(), counts[j]);
+                        orderVersions.bump(valid.get(j).getId());
+                        if (results[indexes[j]].status() == 200) {
+                            orderChanges.saved(valid.get(j), OrderEventBuffer.Type.UPDATED);
+                        }
+                    }
+                    return counts;
+                });
+                // Прежние владельцы заказов неизвестны, поэтому меняются версии всех списков
+                userOrdersVersions.bumpAll();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                status = 409;
+                rejectBatch(results, indexes, valid.size(), e);
+            }
+        }
+        sendJsonResponse(exchange, status, BATCH_RESULTS, Arrays.asList(results));
+    }
+
+    /**
+     * Обрабатывает пакетный запрос на удаление заказов. Тело запроса содержит JSON-массив
+     * идентификаторов или идентификаторы в формате NDJSON. Все удаления выполняются в одной транзакции.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void deleteOrders(HttpExchange exchange) throws IOException {
+        List<Integer> orderIds = readBatchFromRequest(exchange, ORDER_ID);
+        if (!validateBatch(exchange, orderIds)) {
+            return;
+        }
+        BatchItemResult[] results = new BatchItemResult[orderIds.size()];
+        int[] valid = new int[orderIds.size()];
+        int[] indexes = new int[orderIds.size()];
+        int validCount = 0;
+        for (int i = 0; i < orderIds.size(); i++) {
+            Integer orderId = orderIds.get(i);
+            if (orderId == null || orderId <= 0) {
+                results[i] = new BatchItemResult(i, orderId, 400, "Invalid order id");
+            } else {
+                indexes[validCount] = i;
+                valid[validCount++] = orderId;
+            }
+        }
+        int status = 200;
+        if (validCount > 0) {
+            try {
+                int[] validIds = Arrays.copyOf(valid, validCount);
+                orderChanges.applyAll(validIds, () -> {
+                    int[] counts = orderRepository.deleteAll(validIds);
+                    for (int j = 0; j < counts.length; j++) {
+                        results[indexes[j]] = countResult(indexes[j], validIds[j], counts[j]);
+                        orderVersions.bump(validIds[j]);
+                        if (results[indexes[j]].status() == 200) {
+                            orderChanges.deleted(validIds[j]);
+                        }
+                    }
+                    return counts;
+                });
+                userOrdersVersions.bumpAll();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                status = 409;
+                rejectBatch(results, indexes, validCount, e);
+            }
+        }
+        sendJsonResponse(exchange, status, BATCH_RESULTS, Arrays.asList(results));
+    }
+
+    /**
+     * Обрабатывает запрос на получение списка заказов по идентификатору пользователя. Если ETag из
+     * {@code If-None-Match} совпадает с текущей версией списка, отправляется 304 без обращения к базе данных.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param userId идентификатор пользователя
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getOrdersByUserId(HttpExchange exchange, int userId) throws IOException {
+        String etag = userOrdersVersions.etag(userId);
+        if (ConditionalRequests.notModified(exchange, etag)) {
+            return;
+        }
+        if (isSnapshotReady()) {
+            ConditionalRequests.setETag(exchange, etag);
+            streamSnapshot(exchange, 0, userId);
+            return;
+        }
+        List<Order> orders = getOrdersByUserId(userId);
+        if (orders != null) {
+            ConditionalRequests.setETag(exchange, etag);
+        }
+        sendJsonResponse(exchange, JsonCodec.ORDERS, orders);
+    }
+
+    /**
+     * Получает страницу заказов из базы данных.
+     *
+     * @param afterId идентификатор, после которого начинается страница
+     * @param limit максимальное число записей
+     * @return страница заказов или {@code null}, если произошла ошибка при доступе к базе данных
+     */
+    private static List<Order> getOrdersPage(int afterId, int limit) {
+        try {
+            return orderRepository.findPage(afterId, limit);
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * Передает заказы клиенту потоком, строка за строкой из результата запроса.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param afterId идентификатор, после которого начинается выборка
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void streamOrders(HttpExchange exchange, int afterId) throws IOException {
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, JsonCodec.ORDER);
+        try {
+            orderRepository.forEach(afterId, writer::write);
+            writer.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (writer.isStarted()) {
+                writer.abort(e);
+            }
+            exchange.sendResponseHeaders(500, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Database error".getBytes());
+            }
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Проверяет, можно ли обслуживать списки заказов из снимка.
+     *
+     * @return {@code true}, если снимок включен и построен
+     */
+    private static boolean isSnapshotReady() {
+        return snapshot != null && snapshot.isValid();
+    }
+
+    /**
+     * Передает заказы из снимка потоком порциями по {@value #SNAPSHOT_CHUNK} строк. Строки пишутся
+     * из столбцов снимка без создания объектов на строку.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param afterId идентификатор, после которого начинается выборка
+     * @param userId идентификатор пользователя или {@code 0} для заказов всех пользователей
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void streamSnapshot(HttpExchange exchange, int afterId, int userId) throws IOException {
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, JsonCodec.ORDER);
+        OrderSnapshot.Rows rows = new OrderSnapshot.Rows(SNAPSHOT_CHUNK);
+        int after = afterId;
+        try {
+            while (snapshot.read(after, userId, rows) > 0) {
+                writeRows(writer, rows);
+                if (rows.size() < SNAPSHOT_CHUNK) {
+                    break;
+                }
+                after = rows.lastId();
+            }
+            writer.close();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Отправляет страницу заказов из снимка, прочитанную за одно обращение к нему.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param afterId идентификатор, после которого начинается страница
+     * @param limit максимальное число записей
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void sendSnapshotPage(HttpExchange exchange, int afterId, int limit) throws IOException {
+        OrderSnapshot.Rows rows = new OrderSnapshot.Rows(limit);
+        if (snapshot.read(afterId, 0, rows) == limit) {
+            exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, String.valueOf(rows.lastId()));
+        }
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, JsonCodec.ORDER);
+        try {
+            writeRows(writer, rows);
+            writer.close();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static void writeRows(JsonArrayStreamWriter writer, OrderSnapshot.Rows rows) throws IOException {
+        for (int i = 0; i < rows.size(); i++) {
+            writer.writeOrder(rows.id(i), rows.product(i), rows.userId(i));
+        }
+    }
+
     /**
      * Получает заказ по его идентификатору.
      *
@@ -170,22 +845,151 @@ public class OrderController {
      * @return объект заказа с указанным идентификатором или null, если заказ не найден или произошла ошибка.
      */
     private static Order getOrderById(int orderId) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT id, product, user_id FROM orders WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setInt(1, orderId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return new Order(
-                        resultSet.getInt("id"),
-                        resultSet.getString("product"),
-                        resultSet.getInt("user_id")
-                );
-            }
+        try {
+            return orderRepository.findById(orderId);
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Разбирает список идентификаторов через запятую, убирая повторы.
+     *
+     * @param value значение параметра
+     * @return идентификаторы или null, если список пуст, содержит некорректные значения
+     * или длиннее {@code MAX_BATCH_SIZE}
+     */
+    private static int[] parseIds(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String part : value.split(",")) {
+            try {
+                int id = Integer.parseInt(part.trim());
+                if (id <= 0) {
+                    return null;
+                }
+                ids.add(id);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return null;
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Читает элементы пакетного запроса: JSON-массив или последовательность JSON-значений (NDJSON);
+     * тело в двоичном формате ({@code Content-Type}) читается так же - массивом или последовательностью значений.
+     * Читается не более {@code MAX_BATCH_SIZE + 1} элементов, чтобы слишком большой пакет
+     * можно было отклонить, не разбирая его целиком.
+     *
+     * @param exchange объект HttpExchange, содержащий данные запроса.
+     * @param type читатель типа элемента
+     * @param <T> тип элемента
+     * @return список элементов или null, если тело запроса не является корректным JSON.
+     * @throws IOException если произошла ошибка при чтении данных из запроса.
+     */
+    private static <T> List<T> readBatchFromRequest(HttpExchange exchange, JsonType<T> type) throws IOException {
+        try (InputStream is = exchange.getRequestBody();
+             MappingIterator<T> iterator = type.reader(JsonResponses.requestFormat(exchange)).readValues(is)) {
+            List<T> items = new ArrayList<>();
+            while (items.size() <= MAX_BATCH_SIZE && iterator.hasNextValue()) {
+                items.add(iterator.nextValue());
+            }
+            return items;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Проверяет, что пакет прочитан и его размер допустим, иначе отправляет ответ с ошибкой.
+     *
+     * @param exchange объект HttpExchange, представляющий HTTP-запрос и ответ.
+     * @param items элементы пакета или null, если тело запроса некорректно
+     * @return true, если пакет можно обрабатывать
+     * @throws IOException если произошла ошибка при записи ответа.
+     */
+    private static boolean validateBatch(HttpExchange exchange, List<?> items) throws IOException {
+        String error = null;
+        int status = 400;
+        if (items == null || items.isEmpty()) {
+            error = "Invalid order data";
+        } else if (items.size() > MAX_BATCH_SIZE) {
+            status = 413;
+            error = "Batch size exceeds " + MAX_BATCH_SIZE;
+        }
+        if (error == null) {
+            return true;
+        }
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(error.getBytes());
+        }
+        return false;
+    }
+
+    /**
+     * Сохраняет пакет новых заказов. В режиме отложенной записи идентификаторы берутся из того же
+     * распределителя, что и у очереди, иначе автоинкремент мог бы занять идентификаторы ее блока.
+     *
+     * @param orders новые заказы
+     * @return идентификаторы сохраненных заказов
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    private static int[] insertOrders(List<Order> orders) throws SQLException {
+        if (orderIds == null) {
+            return orderRepository.insertAll(orders);
+        }
+        int[] ids = new int[orders.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = orderIds.nextId();
+            orders.get(i).setId(ids[i]);
+        }
+        orderRepository.insertWithIds(orders);
+        return ids;
+    }
+
+    /**
+     * Формирует результат элемента пакетного обновления или удаления по числу затронутых строк.
+     */
+    private static BatchItemResult countResult(int index, int orderId, int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO
+                ? new BatchItemResult(index, orderId, 200, null)
+                : new BatchItemResult(index, orderId, 404, "Order not found");
+    }
+
+    /**
+     * Отмечает все корректные элементы пакета как не выполненные после отката транзакции.
+     * Если драйвер сообщил, на каком элементе произошла ошибка, этот элемент получает код 409 с постоянным
+     * текстом: сообщение драйвера содержит текст запроса и имена ограничений и записывается только в журнал.
+     *
+     * @param results результаты элементов
+     * @param indexes номера корректных элементов в теле запроса
+     * @param count число корректных элементов
+     * @param e ошибка выполнения пакета
+     */
+    private static void rejectBatch(BatchItemResult[] results, int[] indexes, int count, SQLException e) {
+        String error = isConstraintViolation(e) ? "User not found" : "Database error";
+        int[] counts = e instanceof BatchUpdateException batchError ? batchError.getUpdateCounts() : null;
+        for (int j = 0; j < count; j++) {
+            boolean failed;
+            if (counts == null) {
+                failed = true;
+            } else if (counts.length == count) {
+                failed = counts[j] == Statement.EXECUTE_FAILED;
+            } else {
+                failed = j == counts.length;
+            }
+            results[indexes[j]] = failed
+                    ? new BatchItemResult(indexes[j], null, 409, error)
+                    : new BatchItemResult(indexes[j], null, 424, "Batch rolled back");
         }
-        return null;
     }
 
     /**
@@ -197,7 +1001,7 @@ public class OrderController {
      */
     private static Order readOrderFromRequest(HttpExchange exchange) throws IOException {
         try (InputStream is = exchange.getRequestBody()) {
-            return objectMapper.readValue(is, Order.class);
+            return JsonCodec.ORDER.read(is, JsonResponses.requestFormat(exchange));
         }
     }
 
@@ -208,19 +1012,13 @@ public class OrderController {
      * @return идентификатор вставленного заказа или -1 в случае ошибки.
      */
     private static int insertOrderIntoDatabase(Order order) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "INSERT INTO orders (product, user_id) VALUES (?, ?)";
-            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            statement.setString(1, order.getProduct());
-            statement.setInt(2, order.getUserId());
-            statement.executeUpdate();
-            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
-                } else {
-                    throw new SQLException("Creating order failed, no ID obtained.");
-                }
-            }
+        try {
+            int orderId = orderRepository.insert(order);
+            orderVersions.bump(orderId);
+            userOrdersVersions.bump(order.getUserId());
+            Order saved = new Order(orderId, order.getProduct(), order.getUserId());
+            orderChanges.applyCommitted(orderId, () -> orderChanges.saved(saved, OrderEventBuffer.Type.CREATED));
+            return orderId;
         } catch (SQLException e) {
             e.printStackTrace();
             return -1;
@@ -228,20 +1026,28 @@ public class OrderController {
     }
 
     /**
-     * Обновляет существующий заказ в базе данных.
+     * Обновляет существующий заказ в базе данных. Прежний владелец заказа берется из кэша
+     * (или базы данных), чтобы сменилась версия и его списка заказов. Запись и ее применение к представлениям
+     * в памяти выполняются под блокировкой заказа ({@link OrderChanges}).
      *
      * @param order объект заказа с обновленными данными.
      * @return true, если заказ был успешно обновлен; иначе false.
      */
     private static boolean updateOrderInDatabase(Order order) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "UPDATE orders SET product = ?, user_id = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setString(1, order.getProduct());
-            statement.setInt(2, order.getUserId());
-            statement.setInt(3, order.getId());
-            int rowsUpdated = statement.executeUpdate();
-            return rowsUpdated > 0;
+        try {
+            return orderChanges.apply(order.getId(), () -> {
+                Order previous = orderRepository.findById(order.getId());
+                boolean result = orderRepository.update(order);
+                orderVersions.bump(order.getId());
+                userOrdersVersions.bump(order.getUserId());
+                if (previous != null) {
+                    userOrdersVersions.bump(previous.getUserId());
+                }
+                if (result) {
+                    orderChanges.saved(order, OrderEventBuffer.Type.UPDATED);
+                }
+                return result;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -249,18 +1055,25 @@ public class OrderController {
     }
 
     /**
-     * Удаляет заказ из базы данных.
+     * Удаляет заказ из базы данных под блокировкой заказа ({@link OrderChanges}).
      *
      * @param orderId идентификатор заказа, который нужно удалить.
      * @return true, если заказ был успешно удален; иначе false.
      */
     private static boolean deleteOrderFromDatabase(int orderId) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "DELETE FROM orders WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setInt(1, orderId);
-            int rowsDeleted = statement.executeUpdate();
-            return rowsDeleted > 0;
+        try {
+            return orderChanges.apply(orderId, () -> {
+                Order previous = orderRepository.findById(orderId);
+                boolean result = orderRepository.delete(orderId);
+                orderVersions.bump(orderId);
+                if (previous != null) {
+                    userOrdersVersions.bump(previous.getUserId());
+                }
+                if (result) {
+                    orderChanges.deleted(orderId);
+                }
+                return result;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -274,21 +1087,8 @@ public class OrderController {
      * @return список заказов для указанного пользователя. Если произошла ошибка при доступе к базе данных, возвращается null.
      */
     private static List<Order> getOrdersByUserId(int userId) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT id, product, user_id FROM orders WHERE user_id = ?";
-
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setInt(1, userId);
-            ResultSet resultSet = statement.executeQuery();
-            List<Order> orders = new ArrayList<>();
-            while (resultSet.next()) {
-                orders.add(new Order(
-                        resultSet.getInt("id"),
-                        resultSet.getString("product"),
-                        resultSet.getInt("user_id")
-                ));
-            }
-            return orders;
+        try {
+            return orderRepository.findByUserId(userId);
         } catch (SQLException e) {
             e.printStackTrace();
             return null;
@@ -296,18 +1096,43 @@ public class OrderController {
     }
 
     /**
-     * Отправляет JSON-ответ на HTTP-запрос.
+     * Отправляет текстовый ответ с указанным кодом состояния.
      *
      * @param exchange объект HttpExchange, представляющий HTTP-запрос и ответ.
-     * @param object объект, который необходимо сериализовать в JSON и отправить в ответ.
+     * @param status HTTP-код ответа.
+     * @param message текст ответа.
      * @throws IOException если произошла ошибка при записи ответа.
      */
-    private static void sendJsonResponse(HttpExchange exchange, Object object) throws IOException {
-        exchange.getResponseHeaders().add("Content-Type", "application/json");
-        byte[] responseBytes = objectMapper.writeValueAsBytes(object);
-        exchange.sendResponseHeaders(200, responseBytes.length);
+    private static void sendTextResponse(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.sendResponseHeaders(status, 0);
         try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
+            os.write(message.getBytes());
         }
     }
+
+    /**
+     * Отправляет JSON-ответ на HTTP-запрос. По умолчанию JSON передается без отступов,
+     * форматированный вывод включается параметром {@code ?pretty}.
+     *
+     * @param exchange объект HttpExchange, представляющий HTTP-запрос и ответ.
+     * @param type писатели типа тела ответа
+     * @param object объект, который необходимо сериализовать в JSON и отправить в ответ.
+     * @throws IOException если произошла ошибка при записи ответа.
+     */
+    private static void sendJsonResponse(HttpExchange exchange, JsonType<?> type, Object object) throws IOException {
+        sendJsonResponse(exchange, 200, type, object);
+    }
+
+    /**
+     * Отправляет JSON-ответ с указанным кодом состояния.
+     *
+     * @param exchange объект HttpExchange, представляющий HTTP-запрос и ответ.
+     * @param status HTTP-код ответа.
+     * @param type писатели типа тела ответа
+     * @param object объект, который необходимо сериализовать в JSON и отправить в ответ.
+     * @throws IOException если произошла ошибка при записи ответа.
+     */
+    private static void sendJsonResponse(HttpExchange exchange, int status, JsonType<?> type, Object object) throws IOException {
+        JsonResponses.send(exchange, status, type, object);
+    }
 }
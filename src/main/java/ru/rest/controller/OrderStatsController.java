@@ -0,0 +1,198 @@
+package ru.rest.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.entity.OrderCountBucket;
+import ru.rest.entity.ProductOrderCount;
+import ru.rest.entity.UserOrderCount;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.repository.JdbcOrderStatsRepository;
+import ru.rest.repository.OrderStatsRepository;
+import ru.rest.serverHandler.QueryParams;
+import ru.rest.snapshot.OrderSnapshot;
+import ru.rest.snapshot.SnapshotOrderStats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Класс {@code OrderStatsController} отвечает за агрегаты по заказам, которые клиенты отчетов раньше
+ * вычисляли сами, выгружая весь {@code GET /orders}.
+ * <p>
+ * Способ вычисления задается свойством {@code orders.stats.engine}: {@code SQL} передает агрегацию
+ * базе данных ({@code GROUP BY}), {@code SNAPSHOT} выполняет параллельную редукцию fork-join по снимку
+ * заказов в памяти (требует {@code orders.snapshot.enabled=true}; пока снимок не построен,
+ * используется SQL). Число потоков редукции задает {@code orders.stats.parallelism}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderStatsController {
+
+    /**
+     * Способ вычисления агрегатов.
+     */
+    public enum Engine {
+        /**
+         * Запросы {@code GROUP BY} к базе данных.
+         */
+        SQL,
+        /**
+         * Параллельная редукция по снимку заказов в памяти.
+         */
+        SNAPSHOT;
+
+        /**
+         * Возвращает способ по имени без учета регистра.
+         *
+         * @param name имя способа
+         * @return способ; {@link #SQL}, если имя не задано
+         */
+        public static Engine fromName(String name) {
+            return name == null || name.isBlank() ? SQL : valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Число товаров в ответе {@code /orders/stats/products} по умолчанию.
+     */
+    private static final int DEFAULT_TOP_PRODUCTS = 10;
+
+    /**
+     * Максимальное число товаров в ответе {@code /orders/stats/products}.
+     */
+    private static final int MAX_TOP_PRODUCTS = 1000;
+
+    /**
+     * Максимальная ширина столбца гистограммы.
+     */
+    private static final int MAX_BUCKET_WIDTH = 1_000_000;
+
+    private static final JsonType<UserOrderCount> USER_ORDER_COUNT = JsonCodec.type(UserOrderCount.class);
+    private static final JsonType<List<ProductOrderCount>> PRODUCT_ORDER_COUNTS = JsonCodec.type(new TypeReference<>() {
+    });
+    private static final JsonType<List<OrderCountBucket>> ORDER_COUNT_BUCKETS = JsonCodec.type(new TypeReference<>() {
+    });
+
+    private static final Engine engine = Engine.fromName(System.getProperty("orders.stats.engine"));
+
+    private static final OrderStatsRepository statsRepository = createRepository();
+
+    /**
+     * Возвращает способ вычисления агрегатов.
+     *
+     * @return способ вычисления
+     */
+    public static Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Обрабатывает запрос числа заказов каждого пользователя. Строки передаются потоком
+     * в порядке возрастания идентификатора пользователя.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getUserOrderCounts(HttpExchange exchange) throws IOException {
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, USER_ORDER_COUNT);
+        try {
+            statsRepository.forEachUserOrderCount(writer::write);
+            writer.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (writer.isStarted()) {
+                writer.abort(e);
+            }
+            sendTextResponse(exchange, 500, "Database error");
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Обрабатывает запрос товаров с наибольшим числом заказов ({@code ?limit=10}).
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getTopProducts(HttpExchange exchange) throws IOException {
+        int limit = getIntParameter(exchange, "limit", DEFAULT_TOP_PRODUCTS);
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            sendTextResponse(exchange, 400, "Invalid limit");
+            return;
+        }
+        try {
+            JsonResponses.send(exchange, 200, PRODUCT_ORDER_COUNTS, statsRepository.findTopProducts(limit));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            sendTextResponse(exchange, 500, "Database error");
+        }
+    }
+
+    /**
+     * Обрабатывает запрос гистограммы пользователей по числу заказов ({@code ?width=5}: столбцы 1-5, 6-10, ...).
+     * Возвращаются только непустые столбцы.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public static void getUserHistogram(HttpExchange exchange) throws IOException {
+        int width = getIntParameter(exchange, "width", 1);
+        if (width < 1 || width > MAX_BUCKET_WIDTH) {
+            sendTextResponse(exchange, 400, "Invalid width");
+            return;
+        }
+        try {
+            JsonResponses.send(exchange, 200, ORDER_COUNT_BUCKETS, statsRepository.findUserHistogram(width));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            sendTextResponse(exchange, 500, "Database error");
+        }
+    }
+
+    /**
+     * Создает репозиторий агрегатов для способа из {@code orders.stats.engine}.
+     *
+     * @return репозиторий агрегатов
+     */
+    private static OrderStatsRepository createRepository() {
+        OrderStatsRepository sql = new JdbcOrderStatsRepository(ConnectionPool.getReadDataSource());
+        if (engine == Engine.SQL) {
+            return sql;
+        }
+        OrderSnapshot snapshot = OrderController.getSnapshot();
+        if (snapshot == null) {
+            System.err.println("orders.stats.engine=SNAPSHOT requires orders.snapshot.enabled=true, using SQL");
+            return sql;
+        }
+        int parallelism = Integer.getInteger("orders.stats.parallelism", Runtime.getRuntime().availableProcessors());
+        return new SnapshotOrderStats(snapshot, sql, new ForkJoinPool(parallelism));
+    }
+
+    /**
+     * Возвращает целочисленный параметр запроса.
+     *
+     * @return значение, {@code defaultValue}, если параметра нет, или {@code -1}, если он некорректен
+     */
+    private static int getIntParameter(HttpExchange exchange, String name, int defaultValue) {
+        try {
+            return QueryParams.of(exchange.getRequestURI()).getInt(name, defaultValue);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void sendTextResponse(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(message.getBytes());
+        }
+    }
+}
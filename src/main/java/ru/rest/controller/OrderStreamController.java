@@ -0,0 +1,140 @@
+package ru.rest.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.events.OrderEventBuffer;
+import ru.rest.serverHandler.QueryParams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Класс {@code OrderStreamController} передает изменения заказов подписчикам в формате Server-Sent Events
+ * ({@code GET /orders/stream}), чтобы сервисам не нужно было периодически опрашивать {@code GET /orders}.
+ * <p>
+ * События {@code created}, {@code updated} и {@code deleted} берутся из общего {@link OrderEventBuffer}, который
+ * заполняют пути записи {@link OrderController}. Данные {@code created} и {@code updated} - заказ в том же JSON,
+ * что и в остальном API, {@code deleted} - {@code {"id":N}}. Клиент возобновляет поток после разрыва
+ * заголовком {@code Last-Event-ID} (или параметром {@code lastEventId}); если пропущенных событий уже нет
+ * в буфере, или подписчик отстал дальше допустимого, он получает событие {@code reset}: состояние нужно
+ * перечитать через {@code GET /orders}, а поток продолжается с текущего события.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderStreamController {
+
+    /**
+     * Интервал повторного подключения, который клиент {@code EventSource} использует после разрыва.
+     */
+    private static final byte[] RETRY = "retry: 3000\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Комментарий SSE, который держит подключение открытым через прокси при отсутствии событий.
+     */
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Обрабатывает подписку на изменения заказов. Обработчик занимает поток на все время подписки.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при отправке ответа до начала потока
+     */
+    public static void streamOrderEvents(HttpExchange exchange) throws IOException {
+        OrderEventBuffer events = OrderController.getEventBuffer();
+        if (events == null) {
+            sendTextResponse(exchange, 404, "Order stream is disabled");
+            return;
+        }
+        if (!events.subscribe()) {
+            exchange.getResponseHeaders().add("Retry-After", "5");
+            sendTextResponse(exchange, 503, "Too many subscribers");
+            return;
+        }
+        try {
+            String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            if (lastEventId == null) {
+                lastEventId = QueryParams.of(exchange.getRequestURI()).get("lastEventId");
+            }
+            long cursor = events.lastSequence();
+            boolean reset = false;
+            if (lastEventId != null) {
+                long resumeFrom = events.parseEventId(lastEventId);
+                if (events.canResume(resumeFrom)) {
+                    cursor = resumeFrom;
+                } else {
+                    reset = true;
+                }
+            }
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().add("Cache-Control", "no-store");
+            exchange.getResponseHeaders().add("X-Accel-Buffering", "no");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(RETRY);
+                if (reset) {
+                    writeReset(os, events, cursor);
+                }
+                os.flush();
+                stream(os, events, cursor);
+            }
+        } catch (IOException e) {
+            // Клиент закрыл подключение: для потока событий это обычное завершение подписки
+            exchange.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } finally {
+            events.unsubscribe();
+        }
+    }
+
+    /**
+     * Передает события, начиная со следующего за {@code cursor}, пока буфер не будет закрыт
+     * или клиент не отключится.
+     */
+    private static void stream(OutputStream os, OrderEventBuffer events, long cursor)
+            throws IOException, InterruptedException {
+        long heartbeatMs = events.getSettings().heartbeatMs();
+        while (!events.isClosed()) {
+            if (!events.canResume(cursor)) {
+                cursor = events.lastSequence();
+                writeReset(os, events, cursor);
+            }
+            long last = events.lastSequence();
+            while (cursor < last) {
+                OrderEventBuffer.Event event = events.get(cursor + 1);
+                if (event == null) {
+                    // Событие перезаписано, пока клиент читал предыдущие
+                    cursor = events.lastSequence();
+                    writeReset(os, events, cursor);
+                    break;
+                }
+                os.write(event.frame());
+                cursor++;
+            }
+            os.flush();
+            if (!events.await(cursor, heartbeatMs) && !events.isClosed()) {
+                os.write(HEARTBEAT);
+                os.flush();
+            }
+        }
+    }
+
+    /**
+     * Отправляет событие {@code reset} с идентификатором текущего события: клиент перечитывает состояние,
+     * а при разрыве возобновит поток уже с этого места.
+     */
+    private static void writeReset(OutputStream os, OrderEventBuffer events, long sequence) throws IOException {
+        events.recordReset();
+        String frame = "id: " + events.eventId(sequence) + "\nevent: reset\ndata: {}\n\n";
+        os.write(frame.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void sendTextResponse(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(message.getBytes());
+        }
+    }
+}
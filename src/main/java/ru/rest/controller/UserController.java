@@ -1,19 +1,28 @@
 package ru.rest.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.sun.net.httpserver.HttpExchange;
+import ru.rest.cache.CacheStats;
+import ru.rest.cache.EntityVersions;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.dataBase.ReadRouting;
 import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.repository.CachingUserRepository;
+import ru.rest.repository.JdbcUserRepository;
+import ru.rest.repository.UpdateResult;
+import ru.rest.repository.UserRepository;
+import ru.rest.serverHandler.QueryParams;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,35 +34,115 @@ import java.util.List;
  */
 public class UserController {
 
-    public static final ObjectMapper objectMapper = new ObjectMapper()
-            .enable(SerializationFeature.INDENT_OUTPUT);
+    /**
+     * Максимальный размер страницы при keyset-пагинации.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Заголовок ответа с курсором следующей страницы.
+     */
+    private static final String NEXT_PAGE_HEADER = "X-Next-After";
+
+    private static final LruCache<Integer, User> userCache = new LruCache<>(
+            Integer.getInteger("cache.users.maxSize", 10_000),
+            Long.getLong("cache.users.ttlMs", 60_000L));
+
+    /**
+     * Версии пользователей для ETag ответов {@code GET /users/{id}}.
+     */
+    private static final EntityVersions userVersions = new EntityVersions(
+            Integer.getInteger("etag.stripes", 1 << 14), Long.getLong("etag.maxAgeMs", 60_000L));
+
+    /**
+     * Репозиторий без кэша: текущая запись для ответа 409 читается из основной базы данных мимо кэша.
+     */
+    private static final UserRepository jdbcUserRepository =
+            new JdbcUserRepository(ConnectionPool.getDataSource(), ConnectionPool.getReadDataSource());
+
+    private static final UserRepository userRepository = new CachingUserRepository(jdbcUserRepository, userCache);
 
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/Task2RestApi";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "root";
+    /**
+     * Возвращает статистику кэша пользователей по идентификатору.
+     *
+     * @return статистика кэша
+     */
+    public static CacheStats getCacheStats() {
+        return userCache.stats();
+    }
 
     /**
      * Обрабатывает запрос на получение списка всех пользователей.
+     * <p>
+     * С параметром {@code limit} возвращается страница не более чем из {@code limit} пользователей с идентификатором
+     * больше {@code after}; если страница заполнена, идентификатор ее последней записи передается
+     * в заголовке {@value #NEXT_PAGE_HEADER} для запроса следующей страницы.
+     * Без {@code limit} пользователи передаются потоком прямо из результата запроса.
+     * С параметром {@code include=orders} каждый пользователь содержит список своих заказов;
+     * пользователи и заказы читаются одним запросом.
      *
      * @param exchange объект, представляющий HTTP-обмен
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
     public static void getUsers(HttpExchange exchange) throws IOException {
-        List<User> users = getUsersFromDatabase();
-        sendJsonResponse(exchange, users);
+        QueryParams params = QueryParams.of(exchange.getRequestURI());
+        int afterId;
+        int limit;
+        try {
+            afterId = params.getInt("after", 0);
+            limit = params.getInt("limit", 0);
+        } catch (NumberFormatException e) {
+            afterId = -1;
+            limit = -1;
+        }
+        if (afterId < 0 || limit < 0 || limit > MAX_PAGE_SIZE) {
+            exchange.sendResponseHeaders(400, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Invalid pagination parameters".getBytes());
+            }
+            return;
+        }
+        String include = params.get("include");
+        if (include != null && !"orders".equals(include)) {
+            exchange.sendResponseHeaders(400, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Unsupported include".getBytes());
+            }
+            return;
+        }
+        if (include != null) {
+            sendUsersWithOrders(exchange, afterId, limit);
+            return;
+        }
+        if (limit == 0) {
+            streamUsers(exchange, afterId);
+            return;
+        }
+        List<User> users = getUsersPage(afterId, limit);
+        if (users != null && users.size() == limit) {
+            exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, String.valueOf(users.get(limit - 1).getId()));
+        }
+        sendJsonResponse(exchange, JsonCodec.USERS, users);
     }
 
     /**
-     * Обрабатывает запрос на получение пользователя по его идентификатору.
+     * Обрабатывает запрос на получение пользователя по его идентификатору. Если ETag из
+     * {@code If-None-Match} совпадает с текущей версией пользователя, отправляется 304
+     * без обращения к базе данных.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param userId идентификатор пользователя
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void getUserById (HttpExchange exchange) throws IOException {
-        int userId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
+    public static void getUserById(HttpExchange exchange, int userId) throws IOException {
+        String etag = userVersions.etag(userId);
+        if (ConditionalRequests.notModified(exchange, etag)) {
+            return;
+        }
         User user = getUserById(userId);
         if (user != null) {
-            sendJsonResponse(exchange, user);
+            ConditionalRequests.setETag(exchange, etag);
+            sendJsonResponse(exchange, JsonCodec.USER, user);
         } else {
             exchange.sendResponseHeaders(404, 0);
             try (OutputStream os = exchange.getResponseBody()) {
@@ -63,7 +152,8 @@ public class UserController {
     }
 
     /**
-     * Обрабатывает запрос на создание нового пользователя.
+     * Обрабатывает запрос на создание нового пользователя. В ответе 201 возвращается сохраненная
+     * запись (с идентификатором и версией {@code 0}) без повторного чтения из базы данных.
      *
      * @param exchange объект, представляющий HTTP-обмен
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
@@ -72,8 +162,14 @@ public class UserController {
         User newUser = readUserFromRequest(exchange);
         if (newUser != null) {
             int userId = insertUserIntoDatabase(newUser);
+            if (userId < 0) {
+                sendTextResponse(exchange, 500, "Could not create user");
+                return;
+            }
             newUser.setId(userId);
-            sendJsonResponse(exchange, newUser);
+            newUser.setVersion(0);
+            exchange.getResponseHeaders().set("Location", "/users/" + userId);
+            sendJsonResponse(exchange, 201, JsonCodec.USER, newUser);
         } else {
             exchange.sendResponseHeaders(400, 0);
             try (OutputStream os = exchange.getResponseBody()) {
@@ -83,23 +179,42 @@ public class UserController {
     }
 
     /**
-     * Обрабатывает запрос на обновление пользователя.
+     * Обрабатывает запрос на обновление пользователя. Тело запроса должно содержать поле
+     * {@code version} - версию, на основе которой клиент изменил данные. Если запись с тех пор
+     * изменена, отправляется 409 с текущей записью, и клиент может повторить изменение на ее основе.
+     * Текущая запись читается из основной базы данных мимо кэша, чтобы клиент не получил в ответе 409
+     * ту же устаревшую версию, с которой его изменение уже отклонено.
+     * Запрос без {@code version} отклоняется с кодом 400, а не считается обновлением версии 0.
+     * При успехе возвращается сохраненная запись с новой версией без повторного чтения из базы данных.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param userId идентификатор пользователя
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void updateUser(HttpExchange exchange) throws IOException {
-        int userId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
+    public static void updateUser(HttpExchange exchange, int userId) throws IOException {
         User updatedUser = readUserFromRequest(exchange);
+        if (updatedUser != null && updatedUser.getVersion() == User.UNSPECIFIED_VERSION) {
+            sendTextResponse(exchange, 400, "Field version is required");
+            return;
+        }
         if (updatedUser != null) {
             updatedUser.setId(userId);
-            if (updateUserInDatabase(updatedUser)) {
-                sendJsonResponse(exchange, updatedUser);
-            } else {
-                exchange.sendResponseHeaders(404, 0);
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write("User not found".getBytes());
+            UpdateResult result = updateUserInDatabase(updatedUser);
+            if (result == null) {
+                sendTextResponse(exchange, 500, "Could not update user");
+                return;
+            }
+            switch (result) {
+                case UPDATED -> sendJsonResponse(exchange, 200, JsonCodec.USER, updatedUser);
+                case VERSION_CONFLICT -> {
+                    User current = getCommittedUser(userId);
+                    if (current != null) {
+                        sendJsonResponse(exchange, 409, JsonCodec.USER, current);
+                    } else {
+                        sendTextResponse(exchange, 409, "User was modified concurrently");
+                    }
                 }
+                case NOT_FOUND -> sendTextResponse(exchange, 404, "User not found");
             }
         } else {
             exchange.sendResponseHeaders(400, 0);
@@ -110,46 +225,111 @@ public class UserController {
     }
 
     /**
-     * Обрабатывает запрос на удаление пользователя.
+     * Обрабатывает запрос на удаление пользователя. Пользователя, у которого есть заказы,
+     * удалить нельзя: в этом случае отправляется 409.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param userId идентификатор пользователя
      * @throws IOException если возникнут ошибки при обработке HTTP-запроса
      */
-    public static void deleteUser(HttpExchange exchange) throws IOException {
-        int userId = Integer.parseInt(exchange.getRequestURI().getPath().split("/")[2]);
-        if (deleteUserFromDatabase(userId)) {
-            exchange.sendResponseHeaders(204, 0);
-        } else {
-            exchange.sendResponseHeaders(404, 0);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write("User not found".getBytes());
+    public static void deleteUser(HttpExchange exchange, int userId) throws IOException {
+        try {
+            if (userRepository.delete(userId)) {
+                userVersions.bump(userId);
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                sendTextResponse(exchange, 404, "User not found");
             }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            sendTextResponse(exchange, 409, "User has orders");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            sendTextResponse(exchange, 500, "Could not delete user");
         }
     }
 
     /**
-     * Получает список всех пользователей из базы данных.
+     * Получает страницу пользователей из базы данных.
      *
-     * @return список пользователей
+     * @param afterId идентификатор, после которого начинается страница
+     * @param limit максимальное число записей
+     * @return страница пользователей или {@code null}, если произошла ошибка при доступе к базе данных
      */
-    private static List<User> getUsersFromDatabase() {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT id, name, email FROM users";
+    private static List<User> getUsersPage(int afterId, int limit) {
+        try {
+            return userRepository.findPage(afterId, limit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-            PreparedStatement statement = connection.prepareStatement(sql);
-            ResultSet resultSet = statement.executeQuery();
-            List<User> users = new ArrayList<>();
-            while (resultSet.next()) {
-                users.add(new User(
-                        resultSet.getInt("id"),
-                        resultSet.getString("name"),
-                        resultSet.getString("email")
-                ));
+    /**
+     * Передает пользователей клиенту потоком, строка за строкой из результата запроса.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param afterId идентификатор, после которого начинается выборка
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void streamUsers(HttpExchange exchange, int afterId) throws IOException {
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, JsonCodec.USER);
+        try {
+            userRepository.forEach(afterId, writer::write);
+            writer.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (writer.isStarted()) {
+                writer.abort(e);
+            }
+            exchange.sendResponseHeaders(500, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Database error".getBytes());
+            }
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Передает клиенту пользователей вместе с их заказами. Страница с {@code limit} собирается в памяти,
+     * чтобы передать курсор следующей страницы в заголовке, без {@code limit} пользователи передаются потоком.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param afterId идентификатор, после которого начинается выборка
+     * @param limit размер страницы или {@code 0} для потоковой передачи всех пользователей
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void sendUsersWithOrders(HttpExchange exchange, int afterId, int limit) throws IOException {
+        if (limit > 0) {
+            List<UserWithOrders> page = new ArrayList<>(limit);
+            try {
+                userRepository.forEachWithOrders(afterId, limit, page::add);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                sendTextResponse(exchange, 500, "Database error");
+                return;
+            }
+            if (page.size() == limit) {
+                exchange.getResponseHeaders().add(NEXT_PAGE_HEADER, String.valueOf(page.get(limit - 1).getId()));
             }
-            return users;
+            sendJsonResponse(exchange, JsonCodec.USERS_WITH_ORDERS, page);
+            return;
+        }
+        JsonArrayStreamWriter writer = new JsonArrayStreamWriter(exchange, JsonCodec.USER_WITH_ORDERS);
+        try {
+            userRepository.forEachWithOrders(afterId, 0, writer::write);
+            writer.close();
         } catch (SQLException e) {
             e.printStackTrace();
-            return null;
+            if (writer.isStarted()) {
+                writer.abort(e);
+            }
+            exchange.sendResponseHeaders(500, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write("Database error".getBytes());
+            }
+        } finally {
+            writer.release();
         }
     }
 
@@ -160,22 +340,35 @@ public class UserController {
      * @return найденный пользователь или {@code null}, если пользователь не найден
      */
     private static User getUserById(int userId) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT id, name, email FROM users WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setInt(1, userId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return new User(
-                        resultSet.getInt("id"),
-                        resultSet.getString("name"),
-                        resultSet.getString("email")
-                );
-            }
+        try {
+            return userRepository.findById(userId);
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Читает зафиксированную запись пользователя из основной базы данных мимо кэша и реплик.
+     *
+     * @param userId идентификатор пользователя
+     * @return пользователь или {@code null}, если он не найден или чтение не удалось
+     */
+    private static User getCommittedUser(int userId) {
+        boolean primaryRequired = ReadRouting.isPrimaryRequired();
+        if (!primaryRequired) {
+            ReadRouting.usePrimary();
+        }
+        try {
+            return jdbcUserRepository.findById(userId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            if (!primaryRequired) {
+                ReadRouting.clear();
+            }
         }
-        return null;
     }
 
     /**
@@ -186,9 +379,17 @@ public class UserController {
      * @throws IOException если возникнут ошибки при чтении запроса
      */
     private static User readUserFromRequest(HttpExchange exchange) throws IOException {
+        User user;
         try (InputStream is = exchange.getRequestBody()) {
-            return objectMapper.readValue(is, User.class);
+            user = JsonCodec.USER.read(is, JsonResponses.requestFormat(exchange));
+        } catch (JsonProcessingException e) {
+            return null;
         }
+        if (user == null || user.getName() == null || user.getName().isBlank()
+                || user.getEmail() == null || user.getEmail().isBlank()) {
+            return null;
+        }
+        return user;
     }
 
     /**
@@ -198,19 +399,10 @@ public class UserController {
      * @return идентификатор вставленного пользователя, или -1 в случае ошибки
      */
     private static int insertUserIntoDatabase(User user) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "INSERT INTO users (name, email) VALUES (?, ?)";
-            PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            statement.setString(1, user.getName());
-            statement.setString(2, user.getEmail());
-            statement.executeUpdate();
-            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
-                } else {
-                    throw new SQLException("Creating user failed, no ID obtained.");
-                }
-            }
+        try {
+            int userId = userRepository.insert(user);
+            userVersions.bump(userId);
+            return userId;
         } catch (SQLException e) {
             e.printStackTrace();
             return -1;
@@ -220,54 +412,59 @@ public class UserController {
     /**
      * Обновляет данные пользователя в базе данных.
      *
-     * @param user пользователь с обновленными данными
-     * @return {@code true}, если обновление прошло успешно, {@code false} в противном случае
+     * @param user пользователь с обновленными данными и исходной версией
+     * @return исход обновления или {@code null}, если произошла ошибка при доступе к базе данных
      */
-    private static boolean updateUserInDatabase(User user) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "UPDATE users SET name = ?, email = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setString(1, user.getName());
-            statement.setString(2, user.getEmail());
-            statement.setInt(3, user.getId());
-            int rowsUpdated = statement.executeUpdate();
-            return rowsUpdated > 0;
+    private static UpdateResult updateUserInDatabase(User user) {
+        try {
+            UpdateResult result = userRepository.update(user);
+            if (result == UpdateResult.UPDATED) {
+                userVersions.bump(user.getId());
+            }
+            return result;
         } catch (SQLException e) {
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
     /**
-     * Удаляет пользователя из базы данных.
+     * Отправляет JSON-ответ клиенту. По умолчанию JSON передается без отступов,
+     * форматированный вывод включается параметром {@code ?pretty}.
      *
-     * @param userId идентификатор пользователя для удаления
-     * @return {@code true}, если удаление прошло успешно, {@code false} в противном случае
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param type писатели типа тела ответа
+     * @param object объект, который необходимо сериализовать и отправить как ответ
+     * @throws IOException если возникнут ошибки при отправке ответа
      */
-    private static boolean deleteUserFromDatabase(int userId) {
-        try (Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "DELETE FROM users WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setInt(1, userId);
-            int rowsDeleted = statement.executeUpdate();
-            return rowsDeleted > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
-        }
+    private static void sendJsonResponse(HttpExchange exchange, JsonType<?> type, Object object) throws IOException {
+        sendJsonResponse(exchange, 200, type, object);
     }
 
     /**
-     * Отправляет JSON-ответ клиенту.
+     * Отправляет JSON-ответ клиенту с указанным кодом состояния.
      *
      * @param exchange объект, представляющий HTTP-обмен
+     * @param status код состояния ответа
+     * @param type писатели типа тела ответа
      * @param object объект, который необходимо сериализовать и отправить как ответ
      * @throws IOException если возникнут ошибки при отправке ответа
      */
-    private static void sendJsonResponse(HttpExchange exchange, Object object) throws IOException {
-        exchange.getResponseHeaders().add("Content-Type", "application/json");
-        byte[] responseBytes = objectMapper.writeValueAsBytes(object);
-        exchange.sendResponseHeaders(200, responseBytes.length);
+    private static void sendJsonResponse(HttpExchange exchange, int status, JsonType<?> type, Object object) throws IOException {
+        JsonResponses.send(exchange, status, type, object);
+    }
+
+    /**
+     * Отправляет текстовый ответ с сообщением.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param status код состояния ответа
+     * @param message текст сообщения
+     * @throws IOException если возникнут ошибки при отправке ответа
+     */
+    private static void sendTextResponse(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] responseBytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, responseBytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(responseBytes);
         }
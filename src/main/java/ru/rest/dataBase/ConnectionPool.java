@@ -0,0 +1,311 @@
+package ru.rest.dataBase;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Класс {@code ConnectionPool} предоставляет общий пул JDBC-подключений к базе данных на основе HikariCP.
+ * Настройки читаются из файла {@code database.properties} и могут быть переопределены
+ * системными свойствами с теми же ключами (например, {@code -Ddb.pool.maximumPoolSize=20}).
+ * Свойства с префиксом {@code db.dataSource.} передаются драйверу JDBC без префикса.
+ * <p>
+ * Если задано свойство {@code db.replica.urls} (адреса через запятую), для каждой реплики создается
+ * собственный пул с настройками основного пула, которые переопределяются свойствами
+ * {@code db.replica.pool.*}, {@code db.replica.username} и {@code db.replica.password}.
+ * Чтения через {@link #getReadDataSource()} распределяются между репликами способом
+ * {@code db.replica.balancing} ({@code ROUND_ROBIN} или {@code LEAST_LOADED}).
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class ConnectionPool {
+
+    private static final String PROPERTIES_FILE = "database.properties";
+    private static final String DATA_SOURCE_PREFIX = "db.dataSource.";
+    private static final String POOL_PREFIX = "db.pool.";
+    private static final String REPLICA_POOL_PREFIX = "db.replica.pool.";
+
+    private ConnectionPool() {
+    }
+
+    /**
+     * Ленивый держатель пула: пул создается при первом обращении к базе данных.
+     */
+    private static final class Holder {
+        private static final Properties PROPERTIES = loadProperties();
+        private static final HikariDataSource POOL = new HikariDataSource(createConfig(PROPERTIES));
+        private static final LimitedDataSource DATA_SOURCE = new LimitedDataSource(POOL,
+                intProperty(PROPERTIES, "db.pool.concurrencyLimit", POOL.getMaximumPoolSize()),
+                longProperty(PROPERTIES, "db.pool.acquireTimeoutMs", POOL.getConnectionTimeout()));
+        private static final List<LimitedDataSource> REPLICAS = createReplicas(PROPERTIES);
+        private static final ReplicaRoutingDataSource READ_DATA_SOURCE = new ReplicaRoutingDataSource(DATA_SOURCE,
+                REPLICAS, ReplicaRoutingDataSource.Balancing.fromName(
+                        PROPERTIES.getProperty("db.replica.balancing", "ROUND_ROBIN")));
+    }
+
+    /**
+     * Возвращает общий источник данных. Число одновременно выданных подключений ограничено
+     * свойством {@code db.pool.concurrencyLimit} (по умолчанию равно размеру пула).
+     *
+     * @return источник данных с пулом подключений
+     */
+    public static DataSource getDataSource() {
+        return Holder.DATA_SOURCE;
+    }
+
+    /**
+     * Возвращает источник данных для чтений. Если реплики не настроены, это источник {@link #getDataSource()}.
+     *
+     * @return источник данных, распределяющий чтения между репликами
+     */
+    public static DataSource getReadDataSource() {
+        return Holder.REPLICAS.isEmpty() ? Holder.DATA_SOURCE : Holder.READ_DATA_SOURCE;
+    }
+
+    /**
+     * Проверяет, настроены ли реплики для чтения.
+     *
+     * @return {@code true}, если задано хотя бы одно значение {@code db.replica.urls}
+     */
+    public static boolean hasReplicas() {
+        return !Holder.REPLICAS.isEmpty();
+    }
+
+    /**
+     * Возвращает пул HikariCP без ограничителя конкурентности.
+     *
+     * @return пул подключений
+     */
+    public static HikariDataSource getPool() {
+        return Holder.POOL;
+    }
+
+    /**
+     * Берет подключение из пула. Подключение необходимо закрыть, чтобы вернуть его в пул.
+     *
+     * @return подключение к базе данных
+     * @throws SQLException если не удалось получить подключение за {@code db.pool.connectionTimeoutMs}
+     */
+    public static Connection getConnection() throws SQLException {
+        return getDataSource().getConnection();
+    }
+
+    /**
+     * Возвращает значение настройки из {@code database.properties} с учетом системных свойств.
+     *
+     * @param key ключ настройки
+     * @param defaultValue значение, если настройка не задана
+     * @return значение настройки
+     */
+    public static String getProperty(String key, String defaultValue) {
+        return Holder.PROPERTIES.getProperty(key, defaultValue);
+    }
+
+    /**
+     * Возвращает текущее состояние пула подключений.
+     *
+     * @return упорядоченный набор показателей пула
+     */
+    public static Map<String, Object> getStats() {
+        HikariDataSource dataSource = getPool();
+        LimitedDataSource limiter = Holder.DATA_SOURCE;
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolName", dataSource.getPoolName());
+        stats.put("activeConnections", pool.getActiveConnections());
+        stats.put("idleConnections", pool.getIdleConnections());
+        stats.put("totalConnections", pool.getTotalConnections());
+        stats.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+        stats.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        stats.put("minimumIdle", dataSource.getMinimumIdle());
+        stats.put("connectionTimeoutMs", dataSource.getConnectionTimeout());
+        stats.put("leakDetectionThresholdMs", dataSource.getLeakDetectionThreshold());
+        stats.put("concurrencyLimit", limiter.getLimit());
+        stats.put("availablePermits", limiter.getAvailablePermits());
+        stats.put("threadsAwaitingPermit", limiter.getQueueLength());
+        if (hasReplicas()) {
+            ReplicaRoutingDataSource router = Holder.READ_DATA_SOURCE;
+            stats.put("replicaBalancing", router.getBalancing());
+            stats.put("replicaReads", router.getReplicaReads());
+            stats.put("primaryReads", router.getPrimaryReads());
+            stats.put("replicaFailovers", router.getFailovers());
+            List<Map<String, Object>> replicas = new ArrayList<>();
+            for (LimitedDataSource replica : router.getReplicas()) {
+                HikariDataSource replicaPool = (HikariDataSource) replica.getDelegate();
+                HikariPoolMXBean replicaStats = replicaPool.getHikariPoolMXBean();
+                Map<String, Object> replicaInfo = new LinkedHashMap<>();
+                replicaInfo.put("poolName", replicaPool.getPoolName());
+                replicaInfo.put("activeConnections", replicaStats.getActiveConnections());
+                replicaInfo.put("idleConnections", replicaStats.getIdleConnections());
+                replicaInfo.put("totalConnections", replicaStats.getTotalConnections());
+                replicaInfo.put("availablePermits", replica.getAvailablePermits());
+                replicaInfo.put("threadsAwaitingPermit", replica.getQueueLength());
+                replicas.add(replicaInfo);
+            }
+            stats.put("replicas", replicas);
+        }
+        return stats;
+    }
+
+    /**
+     * Заранее открывает подключения основного пула и пулов реплик, чтобы первые запросы
+     * не ждали установки соединений с базой данных. В каждом пуле одновременно берется
+     * {@code minimumIdle} подключений (не меньше одного), которые затем возвращаются в пул.
+     *
+     * @return число открытых подключений
+     */
+    public static int prefill() {
+        int opened = prefill(getPool());
+        for (LimitedDataSource replica : Holder.REPLICAS) {
+            opened += prefill((HikariDataSource) replica.getDelegate());
+        }
+        return opened;
+    }
+
+    private static int prefill(HikariDataSource pool) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = Math.max(1, pool.getMinimumIdle()); i > 0; i--) {
+                connections.add(pool.getConnection());
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return connections.size();
+    }
+
+    /**
+     * Закрывает пул, пулы реплик и все их подключения.
+     */
+    public static void close() {
+        for (LimitedDataSource replica : Holder.REPLICAS) {
+            ((HikariDataSource) replica.getDelegate()).close();
+        }
+        getPool().close();
+    }
+
+    /**
+     * Создает конфигурацию HikariCP из свойств.
+     *
+     * @param properties свойства подключения и пула
+     * @return конфигурация пула
+     */
+    static HikariConfig createConfig(Properties properties) {
+        return createConfig(properties, "Task2RestApi-pool");
+    }
+
+    /**
+     * Создает конфигурацию HikariCP из свойств с заданным именем пула.
+     *
+     * @param properties свойства подключения и пула
+     * @param poolName имя пула в журналах и показателях
+     * @return конфигурация пула
+     */
+    static HikariConfig createConfig(Properties properties, String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(properties.getProperty("db.url"));
+        config.setUsername(properties.getProperty("db.username"));
+        config.setPassword(properties.getProperty("db.password"));
+        config.setDriverClassName(properties.getProperty("db.driverClassName"));
+        config.setMaximumPoolSize(intProperty(properties, "db.pool.maximumPoolSize", 10));
+        config.setMinimumIdle(intProperty(properties, "db.pool.minimumIdle", 10));
+        config.setConnectionTimeout(longProperty(properties, "db.pool.connectionTimeoutMs", 30_000));
+        config.setIdleTimeout(longProperty(properties, "db.pool.idleTimeoutMs", 600_000));
+        config.setMaxLifetime(longProperty(properties, "db.pool.maxLifetimeMs", 1_800_000));
+        config.setLeakDetectionThreshold(longProperty(properties, "db.pool.leakDetectionThresholdMs", 0));
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(DATA_SOURCE_PREFIX)) {
+                config.addDataSourceProperty(key.substring(DATA_SOURCE_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Создает пулы реплик из {@code db.replica.urls}. Каждый пул ограничен собственным семафором.
+     *
+     * @param properties свойства основного пула и реплик
+     * @return источники данных реплик или пустой список, если реплики не заданы
+     */
+    static List<LimitedDataSource> createReplicas(Properties properties) {
+        String urls = properties.getProperty("db.replica.urls", "").trim();
+        List<LimitedDataSource> replicas = new ArrayList<>();
+        if (urls.isEmpty()) {
+            return replicas;
+        }
+        for (String url : urls.split(",")) {
+            Properties replicaProperties = new Properties();
+            replicaProperties.putAll(properties);
+            for (String key : properties.stringPropertyNames()) {
+                if (key.startsWith(REPLICA_POOL_PREFIX)) {
+                    replicaProperties.setProperty(POOL_PREFIX + key.substring(REPLICA_POOL_PREFIX.length()),
+                            properties.getProperty(key));
+                }
+            }
+            replicaProperties.setProperty("db.url", url.trim());
+            replicaProperties.setProperty("db.username",
+                    properties.getProperty("db.replica.username", properties.getProperty("db.username", "")));
+            replicaProperties.setProperty("db.password",
+                    properties.getProperty("db.replica.password", properties.getProperty("db.password", "")));
+            HikariDataSource pool = new HikariDataSource(
+                    createConfig(replicaProperties, "Task2RestApi-replica-" + replicas.size()));
+            replicas.add(new LimitedDataSource(pool,
+                    intProperty(replicaProperties, "db.pool.concurrencyLimit", pool.getMaximumPoolSize()),
+                    longProperty(replicaProperties, "db.pool.acquireTimeoutMs", pool.getConnectionTimeout())));
+        }
+        return replicas;
+    }
+
+    /**
+     * Загружает {@code database.properties} из classpath и накладывает поверх системные свойства.
+     *
+     * @return итоговые свойства подключения
+     */
+    static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream is = ConnectionPool.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (is != null) {
+                properties.load(is);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
+        return properties;
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+}
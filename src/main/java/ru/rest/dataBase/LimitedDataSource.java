@@ -0,0 +1,194 @@
+package ru.rest.dataBase;
+
+import ru.rest.metrics.Metrics;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Класс {@code LimitedDataSource} ограничивает число одновременно выданных подключений с помощью семафора.
+ * <p>
+ * При обработке запросов в виртуальных потоках число ожидающих потоков не ограничено пулом исполнителя,
+ * поэтому ожидание подключения переносится с пула на справедливый семафор: лишние запросы
+ * стоят в очереди в порядке поступления и получают отказ по истечении {@code acquireTimeoutMs},
+ * а пул не тратит время на обслуживание тысяч ожидающих потоков.
+ * Разрешение возвращается при закрытии подключения.
+ * <p>
+ * Время ожидания разрешения и подключения и время удержания подключения до его закрытия
+ * записываются в {@link Metrics#DB_ACQUIRE_TIME} и {@link Metrics#DB_TIME}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class LimitedDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final Semaphore permits;
+    private final int limit;
+    private final long acquireTimeoutMs;
+
+    /**
+     * Создает ограниченный источник данных.
+     *
+     * @param delegate исходный источник данных
+     * @param limit максимальное число одновременно выданных подключений
+     * @param acquireTimeoutMs максимальное время ожидания разрешения в миллисекундах
+     */
+    public LimitedDataSource(DataSource delegate, int limit, long acquireTimeoutMs) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long started = System.nanoTime();
+        acquire();
+        try {
+            return limited(delegate.getConnection(), started);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long started = System.nanoTime();
+        acquire();
+        try {
+            return limited(delegate.getConnection(username, password), started);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает максимальное число одновременно выданных подключений.
+     *
+     * @return лимит подключений
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Возвращает число свободных разрешений.
+     *
+     * @return число подключений, которые можно выдать без ожидания
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Возвращает приблизительное число потоков, ожидающих подключения.
+     *
+     * @return длина очереди ожидания
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Возвращает исходный источник данных.
+     *
+     * @return исходный источник данных
+     */
+    public DataSource getDelegate() {
+        return delegate;
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Database concurrency limit of " + limit + " reached, waited " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /**
+     * Оборачивает подключение так, чтобы его закрытие однократно возвращало разрешение семафора.
+     *
+     * @param connection подключение из исходного источника данных
+     * @param requestedAt момент запроса подключения по {@link System#nanoTime()}
+     * @return подключение-обертка
+     */
+    private Connection limited(Connection connection, long requestedAt) {
+        long acquiredAt = System.nanoTime();
+        Metrics.DB_ACQUIRE_TIME.record(acquiredAt - requestedAt);
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                                Metrics.DB_TIME.record(System.nanoTime() - acquiredAt);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.rest.dataBase;
+
+import java.util.List;
+
+/**
+ * Версионированное изменение схемы базы данных.
+ *
+ * @param version номер версии; миграции применяются по возрастанию номера
+ * @param description краткое описание изменения
+ * @param statements SQL-операторы миграции в порядке выполнения
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public record Migration(int version, String description, List<String> statements) {
+
+    /**
+     * Создает миграцию.
+     *
+     * @param version номер версии
+     * @param description краткое описание изменения
+     * @param statements SQL-операторы миграции
+     * @return миграция
+     */
+    public static Migration of(int version, String description, String... statements) {
+        return new Migration(version, description, List.of(statements));
+    }
+}
@@ -0,0 +1,165 @@
+package ru.rest.dataBase;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Класс {@code MigrationRunner} приводит схему базы данных к последней версии.
+ * <p>
+ * Номера примененных миграций хранятся в таблице {@code schema_version}; при каждом запуске
+ * выполняются только миграции с большим номером, поэтому запуск безопасно повторять при каждом
+ * старте приложения. На MySQL несколько одновременно стартующих экземпляров упорядочиваются
+ * именованной блокировкой {@code GET_LOCK}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class MigrationRunner {
+
+    private static final String LOCK_NAME = "Task2RestApi.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version ("
+            + "version INT NOT NULL PRIMARY KEY,"
+            + "description VARCHAR(200) NOT NULL,"
+            + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+    private static final String SELECT_CURRENT_VERSION = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+    private static final String INSERT_VERSION = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+
+    private final DataSource dataSource;
+    private final List<Migration> migrations;
+
+    /**
+     * Создает исполнитель миграций схемы приложения.
+     *
+     * @param dataSource источник подключений к базе данных
+     */
+    public MigrationRunner(DataSource dataSource) {
+        this(dataSource, SchemaMigrations.ALL);
+    }
+
+    /**
+     * Создает исполнитель указанных миграций.
+     *
+     * @param dataSource источник подключений к базе данных
+     * @param migrations миграции в порядке возрастания версии
+     */
+    public MigrationRunner(DataSource dataSource, List<Migration> migrations) {
+        this.dataSource = dataSource;
+        this.migrations = migrations;
+    }
+
+    /**
+     * Точка входа для запуска миграций и заполнения базы тестовыми данными.
+     * <ul>
+     *     <li>без аргументов или {@code migrate} - применить миграции;</li>
+     *     <li>{@code seed <пользователей> <заказов на пользователя>} - применить миграции и заполнить базу.</li>
+     * </ul>
+     * Подключение настраивается так же, как у приложения ({@code database.properties} и {@code -Ddb.*}).
+     *
+     * @param args командные аргументы
+     */
+    public static void main(String[] args) {
+        try {
+            DataSource dataSource = ConnectionPool.getPool();
+            int version = new MigrationRunner(dataSource).migrate();
+            System.out.println("Схема базы данных обновлена до версии " + version + ".");
+            if (args.length > 0 && "seed".equals(args[0])) {
+                int users = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+                int ordersPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+                long started = System.nanoTime();
+                new SeedGenerator(dataSource).seed(users, ordersPerUser);
+                System.out.printf("Добавлено %d пользователей и %d заказов за %d мс.%n",
+                        users, (long) users * ordersPerUser, (System.nanoTime() - started) / 1_000_000);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            ConnectionPool.close();
+        }
+    }
+
+    /**
+     * Применяет миграции, которые еще не были применены.
+     *
+     * @return текущая версия схемы после применения миграций
+     * @throws SQLException если возникает ошибка при выполнении миграции
+     */
+    public int migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean locking = isMySql(connection);
+            if (locking) {
+                acquireLock(connection);
+            }
+            try {
+                return applyPending(connection);
+            } finally {
+                if (locking) {
+                    releaseLock(connection);
+                }
+            }
+        }
+    }
+
+    private int applyPending(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(CREATE_VERSION_TABLE);
+        }
+        int current = currentVersion(connection);
+        for (Migration migration : migrations) {
+            if (migration.version() <= current) {
+                continue;
+            }
+            // DDL в MySQL фиксируется неявно, поэтому версия записывается сразу после операторов миграции
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : migration.statements()) {
+                    statement.executeUpdate(sql);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_VERSION)) {
+                statement.setInt(1, migration.version());
+                statement.setString(2, migration.description());
+                statement.executeUpdate();
+            }
+            current = migration.version();
+            System.out.println("Применена миграция " + migration.version() + ": " + migration.description());
+        }
+        return current;
+    }
+
+    private static int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SELECT_CURRENT_VERSION)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Could not acquire schema migration lock in " + LOCK_TIMEOUT_SECONDS + " s");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
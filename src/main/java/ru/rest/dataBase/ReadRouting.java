@@ -0,0 +1,65 @@
+package ru.rest.dataBase;
+
+/**
+ * Класс {@code ReadRouting} хранит для текущего потока признак того, что чтения должны идти
+ * в основную базу данных, а не в реплики.
+ * <p>
+ * Признак устанавливается на время обработки запроса, изменяющего данные, и запросов клиента,
+ * который недавно писал (окно чтения своих записей), и снимается по завершении запроса.
+ * {@link ReplicaRoutingDataSource} проверяет его при каждой выдаче подключения и отмечает выдачу подключения
+ * к реплике, чтобы вызывающий код мог не кэшировать прочитанное из отстающей реплики.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Направляет чтения текущего потока в основную базу данных до вызова {@link #clear()}.
+     */
+    public static void usePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    /**
+     * Снимает признак, установленный {@link #usePrimary()}.
+     */
+    public static void clear() {
+        PRIMARY.remove();
+    }
+
+    /**
+     * Проверяет, должны ли чтения текущего потока идти в основную базу данных.
+     *
+     * @return {@code true}, если реплики использовать нельзя
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Отмечает, что текущий поток получил подключение к реплике.
+     */
+    static void markReplicaRead() {
+        REPLICA_READ.set(Boolean.TRUE);
+    }
+
+    /**
+     * Проверяет, получал ли текущий поток подключение к реплике с прошлого вызова, и сбрасывает отметку.
+     *
+     * @return {@code true}, если с прошлого вызова выдавалось подключение к реплике
+     */
+    public static boolean takeReplicaRead() {
+        if (REPLICA_READ.get() == null) {
+            return false;
+        }
+        REPLICA_READ.remove();
+        return true;
+    }
+}
@@ -0,0 +1,199 @@
+package ru.rest.dataBase;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Класс {@code ReplicaRoutingDataSource} - источник данных для чтений, распределяющий подключения
+ * между пулами реплик.
+ * <p>
+ * Реплика выбирается по очереди ({@link Balancing#ROUND_ROBIN}) или по наибольшему числу свободных
+ * разрешений ее {@link LimitedDataSource} ({@link Balancing#LEAST_LOADED}). Если реплика не выдала
+ * подключение, пробуются остальные реплики, а затем основная база данных. Когда для текущего потока
+ * установлен {@link ReadRouting#usePrimary()}, подключение сразу берется из основной базы данных.
+ * Записи через этот источник не выполняются: репозитории пишут в основной источник данных.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class ReplicaRoutingDataSource implements DataSource {
+
+    /**
+     * Способ выбора реплики.
+     */
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_LOADED;
+
+        /**
+         * Определяет способ по имени без учета регистра.
+         *
+         * @param name имя способа, например {@code least_loaded}
+         * @return способ выбора реплики
+         * @throws IllegalArgumentException если имя неизвестно
+         */
+        public static Balancing fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final DataSource primary;
+    private final LimitedDataSource[] replicas;
+    private final Balancing balancing;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    /**
+     * Создает маршрутизирующий источник данных.
+     *
+     * @param primary основной источник данных
+     * @param replicas источники данных реплик
+     * @param balancing способ выбора реплики
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<LimitedDataSource> replicas, Balancing balancing) {
+        this.primary = primary;
+        this.replicas = replicas.toArray(new LimitedDataSource[0]);
+        this.balancing = balancing;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicas.length == 0 || ReadRouting.isPrimaryRequired()) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        int first = select();
+        for (int i = 0; i < replicas.length; i++) {
+            try {
+                Connection connection = replicas[(first + i) % replicas.length].getConnection();
+                replicaReads.increment();
+                ReadRouting.markReplicaRead();
+                return connection;
+            } catch (SQLException e) {
+                failovers.increment();
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Возвращает индекс реплики, с которой начинается попытка получить подключение.
+     *
+     * @return индекс реплики
+     */
+    private int select() {
+        int start = (next.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+        if (balancing == Balancing.ROUND_ROBIN) {
+            return start;
+        }
+        // При равной загрузке выигрывает реплика, идущая первой по кругу, чтобы нагрузка не копилась на первой
+        int best = start;
+        int bestPermits = replicas[start].getAvailablePermits();
+        for (int i = 1; i < replicas.length; i++) {
+            int index = (start + i) % replicas.length;
+            int permits = replicas[index].getAvailablePermits();
+            if (permits > bestPermits) {
+                best = index;
+                bestPermits = permits;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Возвращает источники данных реплик.
+     *
+     * @return реплики в порядке настройки
+     */
+    public List<LimitedDataSource> getReplicas() {
+        return List.of(replicas);
+    }
+
+    /**
+     * Возвращает способ выбора реплики.
+     *
+     * @return способ выбора реплики
+     */
+    public Balancing getBalancing() {
+        return balancing;
+    }
+
+    /**
+     * Возвращает число подключений для чтения, выданных репликами.
+     *
+     * @return число чтений с реплик
+     */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * Возвращает число подключений для чтения, выданных основной базой данных.
+     *
+     * @return число чтений с основной базы данных
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * Возвращает число неудачных попыток получить подключение у реплики.
+     *
+     * @return число переходов к следующему источнику
+     */
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
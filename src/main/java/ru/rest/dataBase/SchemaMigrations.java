@@ -0,0 +1,48 @@
+package ru.rest.dataBase;
+
+import java.util.List;
+
+/**
+ * Класс {@code SchemaMigrations} содержит все миграции схемы приложения.
+ * Новые изменения схемы добавляются в конец списка с очередным номером версии;
+ * уже примененные миграции не изменяются.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class SchemaMigrations {
+
+    /**
+     * Миграции в порядке применения.
+     */
+    public static final List<Migration> ALL = List.of(
+            Migration.of(1, "create users table",
+                    "CREATE TABLE IF NOT EXISTS users ("
+                            + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                            + "name VARCHAR(50) NOT NULL,"
+                            + "email VARCHAR(50) NOT NULL)"),
+            Migration.of(2, "create orders table",
+                    "CREATE TABLE IF NOT EXISTS orders ("
+                            + "id INT AUTO_INCREMENT PRIMARY KEY,"
+                            + "product VARCHAR(50) NOT NULL,"
+                            + "user_id INT NOT NULL,"
+                            + "FOREIGN KEY (user_id) REFERENCES users(id))"),
+            // Покрывающий индекс для выборок заказов по пользователю (WHERE user_id = ? / IN (...) ORDER BY user_id, id):
+            // запрос читает только индекс, не обращаясь к кластерному. Индекс, который MySQL неявно создал
+            // для внешнего ключа, после этого удаляется автоматически.
+            Migration.of(3, "covering index on orders(user_id, id)",
+                    "CREATE INDEX idx_orders_user_id_id ON orders (user_id, id, product)"),
+            // Версия записи для оптимистической блокировки: UPDATE ... WHERE id = ? AND version = ?
+            Migration.of(4, "users.version for optimistic concurrency",
+                    "ALTER TABLE users ADD COLUMN version INT NOT NULL DEFAULT 0"),
+            // Блоки идентификаторов, которые экземпляры приложения резервируют для отложенной записи заказов
+            Migration.of(5, "id_blocks for pre-allocated identifiers",
+                    "CREATE TABLE IF NOT EXISTS id_blocks ("
+                            + "name VARCHAR(64) PRIMARY KEY,"
+                            + "next_id BIGINT NOT NULL)",
+                    "INSERT INTO id_blocks (name, next_id) SELECT 'orders', COALESCE(MAX(id), 0) + 1 FROM orders")
+    );
+
+    private SchemaMigrations() {
+    }
+}
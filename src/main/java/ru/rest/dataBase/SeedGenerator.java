@@ -0,0 +1,130 @@
+package ru.rest.dataBase;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.SplittableRandom;
+
+/**
+ * Класс {@code SeedGenerator} заполняет базу данных синтетическими пользователями и заказами
+ * для нагрузочного тестирования.
+ * <p>
+ * Строки вставляются многострочными {@code INSERT ... VALUES (...), (...)} порциями по
+ * {@value #CHUNK_SIZE} строк, каждая порция фиксируется отдельной транзакцией. Идентификаторы
+ * пользователей берутся из сгенерированных ключей, поэтому генератор можно запускать поверх уже
+ * заполненной базы. Наименования продуктов составляются из небольшого словаря детерминированно.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class SeedGenerator {
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private static final String[] ADJECTIVES = {
+            "Red", "Blue", "Green", "Black", "White", "Wooden", "Steel", "Glass", "Leather", "Cotton",
+            "Compact", "Large", "Small", "Smart", "Classic", "Modern", "Portable", "Wireless", "Vintage", "Premium"
+    };
+    private static final String[] NOUNS = {
+            "Chair", "Table", "Lamp", "Phone", "Laptop", "Keyboard", "Mouse", "Monitor", "Headphones", "Speaker",
+            "Camera", "Watch", "Backpack", "Bottle", "Mug", "Notebook", "Pen", "Jacket", "Shoes", "Bicycle"
+    };
+
+    private final DataSource dataSource;
+
+    /**
+     * Создает генератор данных.
+     *
+     * @param dataSource источник подключений к базе данных
+     */
+    public SeedGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Добавляет пользователей и заказы.
+     *
+     * @param users число пользователей
+     * @param ordersPerUser число заказов у каждого пользователя
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    public void seed(int users, int ordersPerUser) throws SQLException {
+        SplittableRandom random = new SplittableRandom(users * 31L + ordersPerUser);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (int first = 0; first < users; first += CHUNK_SIZE) {
+                    int[] userIds = insertUsers(connection, first, Math.min(CHUNK_SIZE, users - first));
+                    insertOrders(connection, userIds, ordersPerUser, random);
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int[] insertUsers(Connection connection, int first, int count) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                multiRowInsert("INSERT INTO users (name, email) VALUES ", count), Statement.RETURN_GENERATED_KEYS)) {
+            int parameter = 1;
+            for (int i = first; i < first + count; i++) {
+                statement.setString(parameter++, "User " + (i + 1));
+                statement.setString(parameter++, "user" + (i + 1) + "@example.com");
+            }
+            statement.executeUpdate();
+            int[] userIds = new int[count];
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                for (int i = 0; i < count; i++) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Seeding users failed, " + i + " of " + count + " IDs obtained.");
+                    }
+                    userIds[i] = generatedKeys.getInt(1);
+                }
+            }
+            return userIds;
+        }
+    }
+
+    private static void insertOrders(Connection connection, int[] userIds, int ordersPerUser, SplittableRandom random)
+            throws SQLException {
+        String[] products = new String[CHUNK_SIZE];
+        int[] owners = new int[CHUNK_SIZE];
+        int rows = 0;
+        for (int userId : userIds) {
+            for (int j = 0; j < ordersPerUser; j++) {
+                products[rows] = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+                owners[rows] = userId;
+                if (++rows == CHUNK_SIZE) {
+                    flushOrders(connection, products, owners, rows);
+                    rows = 0;
+                }
+            }
+        }
+        if (rows > 0) {
+            flushOrders(connection, products, owners, rows);
+        }
+    }
+
+    private static void flushOrders(Connection connection, String[] products, int[] owners, int rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                multiRowInsert("INSERT INTO orders (product, user_id) VALUES ", rows))) {
+            for (int i = 0; i < rows; i++) {
+                statement.setString(i * 2 + 1, products[i]);
+                statement.setInt(i * 2 + 2, owners[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    private static String multiRowInsert(String prefix, int rows) {
+        return prefix + String.join(", ", Collections.nCopies(rows, "(?, ?)"));
+    }
+}
@@ -11,6 +11,12 @@ public class Order {
     private String product;
     private int userId; // Внешний ключ
 
+    /**
+     * Создает пустой экземпляр {@code Order}. Используется при чтении JSON из тела запроса.
+     */
+    public Order() {
+    }
+
     /**
      * Создает новый экземпляр {@code Order} с указанными идентификатором, наименованием продукта и идентификатором пользователя.
      *
@@ -0,0 +1,14 @@
+package ru.rest.entity;
+
+/**
+ * Столбец гистограммы пользователей по числу заказов: сколько пользователей сделали
+ * от {@code from} до {@code to} заказов включительно.
+ *
+ * @param from нижняя граница числа заказов
+ * @param to верхняя граница числа заказов
+ * @param users число пользователей в столбце
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public record OrderCountBucket(int from, int to, int users) {
+}
@@ -0,0 +1,12 @@
+package ru.rest.entity;
+
+/**
+ * Число заказов товара.
+ *
+ * @param product название товара
+ * @param orders число заказов с этим товаром
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public record ProductOrderCount(String product, int orders) {
+}
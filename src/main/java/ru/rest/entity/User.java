@@ -7,9 +7,24 @@ package ru.rest.entity;
  * @version 1.0
  */
 public class User {
+
+    /**
+     * Версия пользователя, прочитанного из тела запроса без поля {@code version}.
+     */
+    public static final int UNSPECIFIED_VERSION = -1;
+
     private int id;
     private String name;
     private String email;
+    private int version;
+
+    /**
+     * Создает пустой экземпляр {@code User}. Используется при чтении JSON из тела запроса; если поле
+     * {@code version} в запросе отсутствует, версия остается равной {@link #UNSPECIFIED_VERSION}.
+     */
+    public User() {
+        this.version = UNSPECIFIED_VERSION;
+    }
 
     /**
      * Создает новый экземпляр {@code User} с указанными идентификатором, именем и электронной почтой.
@@ -24,6 +39,19 @@ public class User {
         this.email = email;
     }
 
+    /**
+     * Создает новый экземпляр {@code User} с указанными идентификатором, именем, электронной почтой и версией.
+     *
+     * @param id      идентификатор пользователя
+     * @param name    имя пользователя
+     * @param email   электронная почта пользователя
+     * @param version версия записи пользователя
+     */
+    public User(int id, String name, String email, int version) {
+        this(id, name, email);
+        this.version = version;
+    }
+
     /**
      * Возвращает идентификатор пользователя.
      *
@@ -77,4 +105,23 @@ public class User {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    /**
+     * Возвращает версию записи пользователя. Версия увеличивается при каждом обновлении;
+     * обновление принимается, только если клиент прислал текущую версию.
+     *
+     * @return версия записи пользователя
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Устанавливает версию записи пользователя.
+     *
+     * @param version версия записи пользователя
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,12 @@
+package ru.rest.entity;
+
+/**
+ * Число заказов пользователя.
+ *
+ * @param userId идентификатор пользователя
+ * @param orders число заказов пользователя
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public record UserOrderCount(int userId, int orders) {
+}
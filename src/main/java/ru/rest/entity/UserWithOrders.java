@@ -0,0 +1,35 @@
+package ru.rest.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Класс {@code UserWithOrders} представляет пользователя вместе с его заказами.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class UserWithOrders extends User {
+    private final List<Order> orders = new ArrayList<>();
+
+    /**
+     * Создает новый экземпляр {@code UserWithOrders} без заказов.
+     *
+     * @param id    идентификатор пользователя
+     * @param name  имя пользователя
+     * @param email электронная почта пользователя
+     * @param version версия записи пользователя
+     */
+    public UserWithOrders(int id, String name, String email, int version) {
+        super(id, name, email, version);
+    }
+
+    /**
+     * Возвращает заказы пользователя.
+     *
+     * @return изменяемый список заказов пользователя
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+}
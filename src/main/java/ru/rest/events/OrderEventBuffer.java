@@ -0,0 +1,297 @@
+package ru.rest.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code OrderEventBuffer} - общий кольцевой буфер событий изменения заказов для потока
+ * Server-Sent Events {@code GET /orders/stream}.
+ * <p>
+ * Каждое событие получает возрастающий номер и сразу сериализуется в готовый кадр SSE, который все подписчики
+ * передают без копирования и повторной сериализации. Публикация выполняется под {@link ReentrantLock} и будит
+ * ожидающих подписчиков; чтение по номеру не требует блокировки. Подписчик хранит только свой курсор (номер
+ * последнего переданного события), поэтому медленный клиент задерживает лишь свой поток и не мешает публикации:
+ * буфер перезаписывает старые события, а отставший дальше {@link Settings#maxLag()} подписчик получает
+ * событие {@code reset} и продолжает с текущего события.
+ * <p>
+ * События одного заказа публикуются под той же блокировкой заказа, что и запись в базу данных, поэтому их
+ * порядок совпадает с порядком фиксации изменений.
+ * <p>
+ * Идентификатор события {@code <эпоха>-<номер>} включает время запуска процесса, поэтому
+ * {@code Last-Event-ID} от прежнего запуска распознается как неизвестный, а не как чужой номер.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderEventBuffer {
+
+    /**
+     * Тип изменения заказа; имя в нижнем регистре передается в поле {@code event} кадра SSE.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        private final String eventName = name().toLowerCase(Locale.ROOT);
+
+        /**
+         * Возвращает имя события SSE.
+         *
+         * @return имя события
+         */
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    /**
+     * Событие в буфере.
+     *
+     * @param sequence номер события
+     * @param frame готовый кадр SSE в UTF-8
+     */
+    public record Event(long sequence, byte[] frame) {
+    }
+
+    /**
+     * Настройки потока событий.
+     *
+     * @param enabled включен ли поток событий
+     * @param bufferSize емкость кольцевого буфера (округляется до степени двойки)
+     * @param maxLag наибольшее отставание подписчика в событиях, после которого он получает {@code reset}
+     * @param heartbeatMs интервал комментариев-пингов при отсутствии событий
+     * @param maxSubscribers наибольшее число одновременных подписчиков
+     */
+    public record Settings(boolean enabled, int bufferSize, int maxLag, long heartbeatMs, int maxSubscribers) {
+
+        /**
+         * Читает настройки из системных свойств {@code orders.stream.*}.
+         *
+         * @return настройки
+         */
+        public static Settings fromSystemProperties() {
+            int bufferSize = Integer.getInteger("orders.stream.bufferSize", 4096);
+            return new Settings(
+                    Boolean.parseBoolean(System.getProperty("orders.stream.enabled", "true")),
+                    bufferSize,
+                    Integer.getInteger("orders.stream.maxLag", bufferSize / 2),
+                    Long.getLong("orders.stream.heartbeatMs", 15_000L),
+                    Integer.getInteger("orders.stream.maxSubscribers", 10_000));
+        }
+    }
+
+    private final Settings settings;
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final int maxLag;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder resets = new LongAdder();
+    private volatile long lastSequence;
+    private volatile boolean closed;
+
+    /**
+     * Создает пустой буфер.
+     *
+     * @param settings настройки потока событий
+     */
+    public OrderEventBuffer(Settings settings) {
+        this.settings = settings;
+        int capacity = Integer.highestOneBit(Math.max(16, settings.bufferSize() * 2 - 1));
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.maxLag = Math.max(1, Math.min(settings.maxLag(), capacity - 1));
+    }
+
+    /**
+     * Публикует событие и будит ожидающих подписчиков.
+     *
+     * @param type тип изменения
+     * @param data JSON-представление данных события в одну строку
+     * @return номер события
+     */
+    public long publish(Type type, String data) {
+        lock.lock();
+        try {
+            long sequence = lastSequence + 1;
+            String frame = "id: " + eventId(sequence) + "\nevent: " + type.eventName() + "\ndata: " + data + "\n\n";
+            slots.set((int) sequence & mask, new Event(sequence, frame.getBytes(StandardCharsets.UTF_8)));
+            lastSequence = sequence;
+            published.signalAll();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает событие по номеру.
+     *
+     * @param sequence номер события
+     * @return событие или {@code null}, если оно еще не опубликовано или уже перезаписано
+     */
+    public Event get(long sequence) {
+        Event event = slots.get((int) sequence & mask);
+        return event != null && event.sequence() == sequence ? event : null;
+    }
+
+    /**
+     * Возвращает номер последнего опубликованного события.
+     *
+     * @return номер или {@code 0}, если событий еще не было
+     */
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Проверяет, можно ли продолжить поток с события, следующего за {@code sequence}: все последующие
+     * события еще в буфере, и подписчик отстает не больше {@link Settings#maxLag()}.
+     *
+     * @param sequence номер последнего полученного подписчиком события
+     * @return {@code true}, если продолжение без пропусков возможно
+     */
+    public boolean canResume(long sequence) {
+        long last = lastSequence;
+        return sequence >= 0 && sequence <= last && last - sequence <= maxLag;
+    }
+
+    /**
+     * Ждет публикации события с номером больше {@code sequence}.
+     *
+     * @param sequence номер последнего полученного события
+     * @param timeoutMs наибольшее время ожидания
+     * @return {@code true}, если появилось новое событие
+     * @throws InterruptedException если поток прерван
+     */
+    public boolean await(long sequence, long timeoutMs) throws InterruptedException {
+        if (lastSequence > sequence || closed) {
+            return lastSequence > sequence;
+        }
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (lastSequence <= sequence && !closed && nanos > 0) {
+                nanos = published.awaitNanos(nanos);
+            }
+            return lastSequence > sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификатор события для поля {@code id} кадра SSE.
+     *
+     * @param sequence номер события
+     * @return идентификатор
+     */
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Разбирает идентификатор из заголовка {@code Last-Event-ID}.
+     *
+     * @param eventId идентификатор события
+     * @return номер события или {@code -1}, если идентификатор выдан другим запуском или некорректен
+     */
+    public long parseEventId(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch) || eventId.length() < epoch.length() + 2
+                || eventId.charAt(epoch.length()) != '-') {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Занимает место подписчика.
+     *
+     * @return {@code true}, если число подписчиков не превысило {@link Settings#maxSubscribers()}
+     */
+    public boolean subscribe() {
+        while (true) {
+            int current = subscribers.get();
+            if (current >= settings.maxSubscribers()) {
+                return false;
+            }
+            if (subscribers.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место подписчика.
+     */
+    public void unsubscribe() {
+        subscribers.decrementAndGet();
+    }
+
+    /**
+     * Учитывает событие {@code reset}, отправленное подписчику.
+     */
+    public void recordReset() {
+        resets.increment();
+    }
+
+    /**
+     * Возвращает число подключенных подписчиков.
+     *
+     * @return число подписчиков
+     */
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * Возвращает число событий {@code reset}, отправленных отставшим или возобновляющим поток подписчикам.
+     *
+     * @return число событий {@code reset}
+     */
+    public long getResets() {
+        return resets.sum();
+    }
+
+    /**
+     * Возвращает настройки потока событий.
+     *
+     * @return настройки
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Проверяет, закрыт ли буфер.
+     *
+     * @return {@code true} после {@link #close()}
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Закрывает буфер: ожидающие подписчики просыпаются и завершают свои потоки.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.rest.json;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Класс {@code JsonBuffer} - растущий буфер сериализованного тела ответа вместе с буферами генератора JSON.
+ * <p>
+ * Буферы берутся из пула {@link JsonCodec#acquireBuffer()} и возвращаются в него после отправки ответа,
+ * поэтому сериализация не выделяет массивы заново. Содержимое передается в поток ответа прямо из буфера,
+ * без копирования в отдельный массив. Экземпляр не потокобезопасен.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class JsonBuffer extends OutputStream {
+
+    private final BufferRecycler recycler = new BufferRecycler();
+    private byte[] bytes;
+    private int size;
+
+    JsonBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    /**
+     * Возвращает число записанных байтов.
+     *
+     * @return размер содержимого
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Передает содержимое буфера в поток.
+     *
+     * @param out поток, например тело ответа
+     * @throws IOException если возникнут ошибки при записи
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, size);
+    }
+
+    /**
+     * Возвращает копию содержимого.
+     *
+     * @return записанные байты
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    BufferRecycler recycler() {
+        return recycler;
+    }
+
+    int capacity() {
+        return bytes.length;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package ru.rest.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import ru.rest.entity.Order;
+import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Класс {@code JsonCodec} - общий для всех контроллеров кодек JSON и двоичных форматов {@link WireFormat}.
+ * <p>
+ * Один {@link ObjectMapper} на формат и заранее созданные {@link JsonType} для сущностей и их списков.
+ * По умолчанию подключен модуль Blackbird, который заменяет рефлексивный вызов геттеров и сеттеров
+ * сгенерированными через {@link java.lang.invoke.LambdaMetafactory} методами доступа; отключается
+ * свойством {@code -Djson.blackbird=false}.
+ * <p>
+ * Тела ответов сериализуются в {@link JsonBuffer} из пула: пул хранит не более {@code json.buffer.maxPooled}
+ * буферов, а буферы, выросшие больше {@code json.buffer.maxRetainedBytes}, в пул не возвращаются.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class JsonCodec {
+
+    private static final RecyclingJsonFactory FACTORY = new RecyclingJsonFactory();
+
+    private static final boolean BLACKBIRD = Boolean.parseBoolean(System.getProperty("json.blackbird", "true"));
+
+    /**
+     * Общий сериализатор JSON приложения.
+     */
+    public static final ObjectMapper MAPPER = createMapper(FACTORY, BLACKBIRD);
+
+    private static final ObjectMapper[] MAPPERS = createMappers();
+
+    public static final JsonType<User> USER = type(User.class);
+    public static final JsonType<List<User>> USERS = type(new TypeReference<>() {
+    });
+    public static final JsonType<UserWithOrders> USER_WITH_ORDERS = type(UserWithOrders.class);
+    public static final JsonType<List<UserWithOrders>> USERS_WITH_ORDERS = type(new TypeReference<>() {
+    });
+    public static final JsonType<Order> ORDER = type(Order.class);
+    public static final JsonType<List<Order>> ORDERS = type(new TypeReference<>() {
+    });
+    public static final JsonType<Map<Integer, List<Order>>> ORDERS_BY_USER = type(new TypeReference<>() {
+    });
+
+    /**
+     * Значения, тип которых известен только во время выполнения (служебные ответы).
+     */
+    public static final JsonType<Object> ANY = type(Object.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+    private static final int MAX_POOLED = Integer.getInteger("json.buffer.maxPooled", 256);
+    private static final int MAX_RETAINED_BYTES = Integer.getInteger("json.buffer.maxRetainedBytes", 1 << 20);
+    private static final ConcurrentLinkedQueue<JsonBuffer> FREE = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Создает сериализатор с настройками приложения. Используется также в тестах производительности
+     * для сравнения вариантов с модулем Blackbird и без него.
+     *
+     * @param blackbird подключить ли модуль Blackbird
+     * @return новый сериализатор
+     */
+    public static ObjectMapper createMapper(boolean blackbird) {
+        return createMapper(WireFormat.JSON, blackbird);
+    }
+
+    /**
+     * Создает сериализатор формата с настройками приложения.
+     *
+     * @param format формат
+     * @param blackbird подключить ли модуль Blackbird
+     * @return новый сериализатор
+     */
+    public static ObjectMapper createMapper(WireFormat format, boolean blackbird) {
+        return createMapper(format.createFactory(), blackbird);
+    }
+
+    private static ObjectMapper[] createMappers() {
+        WireFormat[] formats = WireFormat.values();
+        ObjectMapper[] mappers = new ObjectMapper[formats.length];
+        for (WireFormat format : formats) {
+            mappers[format.ordinal()] = format == WireFormat.JSON ? MAPPER : createMapper(format, BLACKBIRD);
+        }
+        return mappers;
+    }
+
+    private static ObjectMapper createMapper(JsonFactory factory, boolean blackbird) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        // Элементы потоковых массивов пишутся в один генератор; сброс после каждого элемента дробил бы ответ
+        mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+        }
+        return mapper;
+    }
+
+    /**
+     * Создает писатели и читатель для класса.
+     *
+     * @param type класс значения
+     * @param <T> тип значения
+     * @return писатели и читатель типа
+     */
+    public static <T> JsonType<T> type(Class<T> type) {
+        return type(MAPPER.constructType(type));
+    }
+
+    /**
+     * Создает писатели и читатель для обобщенного типа, например {@code List<Order>}.
+     *
+     * @param type ссылка на тип значения
+     * @param <T> тип значения
+     * @return писатели и читатель типа
+     */
+    public static <T> JsonType<T> type(TypeReference<T> type) {
+        return type(MAPPER.constructType(type));
+    }
+
+    private static <T> JsonType<T> type(JavaType type) {
+        ObjectWriter[] writers = new ObjectWriter[MAPPERS.length];
+        ObjectReader[] readers = new ObjectReader[MAPPERS.length];
+        for (int i = 0; i < MAPPERS.length; i++) {
+            writers[i] = MAPPERS[i].writerFor(type);
+            readers[i] = MAPPERS[i].readerFor(type);
+        }
+        return new JsonType<>(writers, writers[WireFormat.JSON.ordinal()].withDefaultPrettyPrinter(), readers);
+    }
+
+    /**
+     * Возвращает пустой буфер из пула или новый буфер, если пул пуст.
+     * После использования буфер необходимо вернуть методом {@link #release(JsonBuffer)}.
+     *
+     * @return буфер
+     */
+    public static JsonBuffer acquireBuffer() {
+        JsonBuffer buffer = FREE.poll();
+        if (buffer == null) {
+            return new JsonBuffer(INITIAL_BUFFER_SIZE);
+        }
+        POOLED.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Возвращает буфер в пул.
+     *
+     * @param buffer буфер, который больше не используется
+     */
+    public static void release(JsonBuffer buffer) {
+        if (buffer.capacity() > MAX_RETAINED_BYTES) {
+            return;
+        }
+        buffer.reset();
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            FREE.offer(buffer);
+        } else {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    /**
+     * Сериализует значение в буфер. Генератор JSON использует буферы {@code buffer}, генераторы
+     * двоичных форматов - собственные буферы своих фабрик.
+     *
+     * @param buffer буфер из пула
+     * @param writer писатель типа значения
+     * @param value значение
+     * @throws IOException если значение не удалось сериализовать
+     */
+    public static void write(JsonBuffer buffer, ObjectWriter writer, Object value) throws IOException {
+        if (writer.getFactory() != FACTORY) {
+            writer.writeValue(buffer, value);
+            return;
+        }
+        try (JsonGenerator generator = FACTORY.createGenerator(buffer, buffer.recycler())) {
+            writer.writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Создает генератор, который пишет прямо в поток, например в тело ответа с chunked-кодированием,
+     * и берет буферы из {@code buffer}. Буфер нельзя возвращать в пул, пока генератор не закрыт.
+     *
+     * @param out поток
+     * @param buffer буфер из пула, чьи буферы генератора используются
+     * @return генератор JSON
+     * @throws IOException если генератор не удалось создать
+     */
+    public static JsonGenerator createGenerator(OutputStream out, JsonBuffer buffer) throws IOException {
+        return FACTORY.createGenerator(out, buffer.recycler());
+    }
+
+    /**
+     * Создает генератор указанного формата, который пишет прямо в поток.
+     *
+     * @param out поток
+     * @param buffer буфер из пула, чьи буферы использует генератор JSON
+     * @param format формат
+     * @return генератор
+     * @throws IOException если генератор не удалось создать
+     */
+    public static JsonGenerator createGenerator(OutputStream out, JsonBuffer buffer, WireFormat format) throws IOException {
+        return format == WireFormat.JSON
+                ? createGenerator(out, buffer)
+                : MAPPERS[format.ordinal()].getFactory().createGenerator(out);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.rest.json;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Предварительно настроенные писатели и читатели одного типа значения во всех форматах {@link WireFormat}.
+ * <p>
+ * {@link ObjectWriter}, созданный для конкретного типа, находит сериализатор один раз и хранит его,
+ * тогда как {@code writeValueAsBytes(Object)} у {@code ObjectMapper} ищет сериализатор по классу значения
+ * при каждом вызове. Для списков тип элемента известен заранее, и сериализатор элемента тоже не ищется.
+ *
+ * @param <T> тип значения
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class JsonType<T> {
+
+    private final ObjectWriter[] writers;
+    private final ObjectWriter prettyJson;
+    private final ObjectReader[] readers;
+
+    /**
+     * Создает набор писателей и читателей.
+     *
+     * @param writers писатели без отступов в порядке {@link WireFormat#ordinal()}
+     * @param prettyJson писатель JSON с отступами для {@code ?pretty}
+     * @param readers читатели в порядке {@link WireFormat#ordinal()}
+     */
+    JsonType(ObjectWriter[] writers, ObjectWriter prettyJson, ObjectReader[] readers) {
+        this.writers = writers;
+        this.prettyJson = prettyJson;
+        this.readers = readers;
+    }
+
+    /**
+     * Возвращает писатель JSON без отступов.
+     *
+     * @return писатель
+     */
+    public ObjectWriter compact() {
+        return writers[WireFormat.JSON.ordinal()];
+    }
+
+    /**
+     * Возвращает писатель формата без отступов.
+     *
+     * @param format формат
+     * @return писатель
+     */
+    public ObjectWriter compact(WireFormat format) {
+        return writers[format.ordinal()];
+    }
+
+    /**
+     * Возвращает писатель в выбранном формате. Отступы поддерживаются только для JSON.
+     *
+     * @param format формат
+     * @param indent нужен ли вывод с отступами
+     * @return писатель
+     */
+    public ObjectWriter writer(WireFormat format, boolean indent) {
+        return indent && format == WireFormat.JSON ? prettyJson : writers[format.ordinal()];
+    }
+
+    /**
+     * Возвращает читатель формата.
+     *
+     * @param format формат
+     * @return читатель
+     */
+    public ObjectReader reader(WireFormat format) {
+        return readers[format.ordinal()];
+    }
+
+    /**
+     * Читает значение в формате JSON из потока.
+     *
+     * @param in поток с JSON
+     * @return прочитанное значение
+     * @throws IOException если JSON некорректен или не может быть прочитан
+     */
+    public T read(InputStream in) throws IOException {
+        return read(in, WireFormat.JSON);
+    }
+
+    /**
+     * Читает значение в указанном формате из потока.
+     *
+     * @param in поток с телом запроса
+     * @param format формат тела
+     * @return прочитанное значение
+     * @throws IOException если данные некорректны или не могут быть прочитаны
+     */
+    public T read(InputStream in, WireFormat format) throws IOException {
+        return readers[format.ordinal()].readValue(in);
+    }
+}
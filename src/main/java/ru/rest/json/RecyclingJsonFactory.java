@@ -0,0 +1,50 @@
+package ru.rest.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Фабрика JSON, создающая генераторы с переданным {@link BufferRecycler}.
+ * <p>
+ * Стандартная фабрика берет буферы генератора из {@link ThreadLocal}. Запросы обрабатываются виртуальными
+ * потоками, которые живут один запрос, поэтому такой кэш буферов у них всегда пуст и каждый ответ выделяет
+ * буферы заново. Здесь буферы принадлежат {@link JsonBuffer} из пула и переиспользуются между запросами.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class RecyclingJsonFactory extends JsonFactory {
+
+    RecyclingJsonFactory() {
+    }
+
+    private RecyclingJsonFactory(RecyclingJsonFactory source, ObjectCodec codec) {
+        super(source, codec);
+    }
+
+    /**
+     * Создает генератор UTF-8, который берет свои буферы из указанного {@link BufferRecycler}.
+     *
+     * @param out поток, в который пишет генератор
+     * @param recycler буферы генератора; не должны одновременно использоваться другим генератором
+     * @return генератор JSON
+     * @throws IOException если генератор не удалось создать
+     */
+    JsonGenerator createGenerator(OutputStream out, BufferRecycler recycler) throws IOException {
+        IOContext context = new IOContext(recycler, _createContentReference(out), false);
+        context.setEncoding(JsonEncoding.UTF8);
+        return _createUTF8Generator(_decorate(out, context), context);
+    }
+
+    @Override
+    public JsonFactory copy() {
+        return new RecyclingJsonFactory(this, null);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.rest.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import java.util.Locale;
+
+/**
+ * Перечисление {@code WireFormat} описывает форматы тел запросов и ответов.
+ * <p>
+ * JSON используется по умолчанию. Двоичные форматы Smile, CBOR и MessagePack передают те же данные
+ * компактнее и быстрее разбираются; клиент запрашивает их заголовком {@code Accept} и отправляет тела
+ * запросов с соответствующим {@code Content-Type}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public enum WireFormat {
+
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile"),
+    CBOR("application/cbor"),
+    MESSAGE_PACK("application/x-msgpack", "application/msgpack", "application/vnd.msgpack");
+
+    private static final WireFormat[] VALUES = values();
+
+    private final String mediaType;
+    private final String[] aliases;
+
+    WireFormat(String mediaType, String... aliases) {
+        this.mediaType = mediaType;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Возвращает тип содержимого формата для заголовка {@code Content-Type}.
+     *
+     * @return MIME-тип
+     */
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Создает фабрику генераторов и парсеров формата. Для JSON используется фабрика {@link JsonCodec}.
+     *
+     * @return фабрика формата
+     */
+    JsonFactory createFactory() {
+        return switch (this) {
+            case JSON -> new RecyclingJsonFactory();
+            case SMILE -> new SmileFactory();
+            case CBOR -> new CBORFactory();
+            case MESSAGE_PACK -> new MessagePackFactory();
+        };
+    }
+
+    /**
+     * Выбирает формат ответа по заголовку {@code Accept} с учетом весов {@code q}. При равных весах
+     * выбирается диапазон, указанный раньше. Если заголовка нет или ни один поддерживаемый формат
+     * не указан, используется JSON.
+     *
+     * @param accept значение заголовка {@code Accept} или {@code null}
+     * @return формат ответа
+     */
+    public static WireFormat fromAccept(String accept) {
+        if (accept == null || accept.isEmpty() || "*/*".equals(accept) || JSON.mediaType.equals(accept)) {
+            return JSON;
+        }
+        WireFormat best = JSON;
+        double bestWeight = 0;
+        for (String range : accept.split(",")) {
+            int parametersStart = range.indexOf(';');
+            String mediaRange = (parametersStart < 0 ? range : range.substring(0, parametersStart)).trim();
+            double weight = parametersStart < 0 ? 1 : weight(range.substring(parametersStart + 1));
+            WireFormat format = "*/*".equals(mediaRange) || "application/*".equals(mediaRange)
+                    ? JSON : fromMediaType(mediaRange);
+            if (format != null && weight > bestWeight) {
+                best = format;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Определяет формат тела запроса по заголовку {@code Content-Type}. Неизвестные типы, в том числе
+     * {@code application/x-www-form-urlencoded}, который отправляют клиенты по умолчанию, читаются как JSON.
+     *
+     * @param contentType значение заголовка {@code Content-Type} или {@code null}
+     * @return формат тела запроса
+     */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        int parametersStart = contentType.indexOf(';');
+        WireFormat format = fromMediaType(
+                (parametersStart < 0 ? contentType : contentType.substring(0, parametersStart)).trim());
+        return format != null ? format : JSON;
+    }
+
+    private static WireFormat fromMediaType(String mediaType) {
+        for (WireFormat format : VALUES) {
+            if (format.mediaType.equalsIgnoreCase(mediaType)) {
+                return format;
+            }
+            for (String alias : format.aliases) {
+                if (alias.equalsIgnoreCase(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static double weight(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
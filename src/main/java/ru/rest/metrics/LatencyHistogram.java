@@ -0,0 +1,121 @@
+package ru.rest.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс {@code LatencyHistogram} накапливает распределение длительностей в наносекундах.
+ * <p>
+ * Шкала устроена как в HdrHistogram: значения до {@value #LINEAR_LIMIT} нс хранятся точно, каждый
+ * следующий интервал {@code [2^k, 2^(k+1))} делится на {@value #SUB_BUCKETS} равных корзин, поэтому
+ * относительная погрешность перцентилей не превышает 1/{@value #SUB_BUCKETS}. Значения больше
+ * {@code 2^}{@value #MAX_EXPONENT} нс (около 18 минут) попадают в последнюю корзину.
+ * Каждая корзина - отдельный {@link LongAdder}, поэтому запись не блокирует потоки и не
+ * создает конкуренции за одну ячейку памяти; чтение (перцентили, сумма) выполняется без
+ * остановки записи и дает приблизительный согласованный срез.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Создает пустую гистограмму.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Записывает одно измерение.
+     *
+     * @param nanos длительность в наносекундах; отрицательные значения считаются нулем
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets[indexOf(value)].increment();
+        count.increment();
+        sum.add(value);
+    }
+
+    /**
+     * Возвращает число измерений.
+     *
+     * @return число измерений
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Возвращает сумму измерений.
+     *
+     * @return сумма длительностей в наносекундах
+     */
+    public long sumNanos() {
+        return sum.sum();
+    }
+
+    /**
+     * Вычисляет перцентили по текущему состоянию гистограммы.
+     *
+     * @param quantiles доли в диапазоне {@code [0, 1]} в порядке возрастания
+     * @return верхние границы корзин, содержащих перцентили, в наносекундах (0, если измерений нет)
+     */
+    public long[] percentiles(double... quantiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets[i].sum();
+            total += snapshot[i];
+        }
+        long[] result = new long[quantiles.length];
+        if (total == 0) {
+            return result;
+        }
+        int bucket = 0;
+        long seen = snapshot[0];
+        for (int q = 0; q < quantiles.length; q++) {
+            long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+            while (seen < rank && bucket < BUCKET_COUNT - 1) {
+                seen += snapshot[++bucket];
+            }
+            result[q] = upperBound(bucket);
+        }
+        return result;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + (int) ((value >> shift) - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = FIRST_EXPONENT + (index - LINEAR_LIMIT) / SUB_BUCKETS;
+        int subBucket = SUB_BUCKETS + (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
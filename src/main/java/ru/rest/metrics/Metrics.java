@@ -0,0 +1,212 @@
+package ru.rest.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Класс {@code Metrics} - общий реестр показателей приложения и их вывод в текстовом формате Prometheus.
+ * <p>
+ * Запись выполняется без блокировок: счетчики и корзины гистограмм построены на {@link LongAdder},
+ * а показатели маршрута создаются один раз при первом запросе к нему.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class Metrics {
+
+    /**
+     * Время, в течение которого запрос удерживает подключение к базе данных.
+     */
+    public static final LatencyHistogram DB_TIME = new LatencyHistogram();
+
+    /**
+     * Время ожидания подключения к базе данных.
+     */
+    public static final LatencyHistogram DB_ACQUIRE_TIME = new LatencyHistogram();
+
+    /**
+     * Время сериализации тел ответов в JSON.
+     */
+    public static final LatencyHistogram SERIALIZATION_TIME = new LatencyHistogram();
+
+    /**
+     * Время групповой фиксации заказов, принятых в очередь отложенной записи.
+     */
+    public static final LatencyHistogram GROUP_COMMIT_TIME = new LatencyHistogram();
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.99", "0.999"};
+
+    private static final ConcurrentHashMap<String, RouteMetrics> ROUTES = new ConcurrentHashMap<>();
+    private static final LongAdder IN_FLIGHT = new LongAdder();
+    private static volatile ExecutorService executor;
+    private static final List<Consumer<StringBuilder>> WRITERS = new CopyOnWriteArrayList<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Возвращает показатели маршрута, создавая их при первом обращении.
+     *
+     * @param method HTTP-метод
+     * @param route шаблон пути
+     * @return показатели маршрута
+     */
+    public static RouteMetrics route(String method, String route) {
+        String key = method + ' ' + route;
+        RouteMetrics metrics = ROUTES.get(key);
+        return metrics != null ? metrics : ROUTES.computeIfAbsent(key, k -> new RouteMetrics(method, route));
+    }
+
+    /**
+     * Отмечает начало обработки запроса.
+     */
+    public static void requestStarted() {
+        IN_FLIGHT.increment();
+    }
+
+    /**
+     * Отмечает завершение обработки запроса.
+     */
+    public static void requestFinished() {
+        IN_FLIGHT.decrement();
+    }
+
+    /**
+     * Регистрирует исполнитель HTTP-запросов, чьи очередь и активные потоки выводятся в показателях.
+     *
+     * @param executorService исполнитель HTTP-сервера
+     */
+    public static void registerExecutor(ExecutorService executorService) {
+        executor = executorService;
+    }
+
+    /**
+     * Регистрирует компонент, который дописывает свои показатели в вывод {@link #writePrometheus(StringBuilder)}.
+     *
+     * @param writer функция записи показателей через {@link #writeGauge} и {@link #writeCounter}
+     */
+    public static void registerWriter(Consumer<StringBuilder> writer) {
+        WRITERS.add(writer);
+    }
+
+    /**
+     * Записывает все показатели в текстовом формате Prometheus.
+     *
+     * @param out буфер вывода
+     */
+    public static void writePrometheus(StringBuilder out) {
+        List<RouteMetrics> routes = new ArrayList<>(ROUTES.values());
+        routes.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getMethod));
+
+        out.append("# HELP http_requests_total Completed HTTP requests by route and status code.\n");
+        out.append("# TYPE http_requests_total counter\n");
+        for (RouteMetrics route : routes) {
+            for (Map.Entry<Integer, Long> entry : route.getStatusCounts().entrySet()) {
+                out.append("http_requests_total{");
+                routeLabels(out, route);
+                out.append(",status=\"").append(entry.getKey()).append("\"} ").append(entry.getValue()).append('\n');
+            }
+        }
+
+        out.append("# HELP http_request_duration_seconds HTTP request processing time by route.\n");
+        out.append("# TYPE http_request_duration_seconds summary\n");
+        for (RouteMetrics route : routes) {
+            StringBuilder labels = new StringBuilder();
+            routeLabels(labels, route);
+            writeSummary(out, "http_request_duration_seconds", labels.toString(), route.getLatency());
+        }
+
+        writeSummaryFamily(out, "db_connection_hold_seconds",
+                "Time a request holds a database connection.", DB_TIME);
+        writeSummaryFamily(out, "db_connection_acquire_seconds",
+                "Time spent waiting for a database connection.", DB_ACQUIRE_TIME);
+        writeSummaryFamily(out, "json_serialization_seconds",
+                "Time spent serializing response bodies to JSON.", SERIALIZATION_TIME);
+        if (GROUP_COMMIT_TIME.count() > 0) {
+            writeSummaryFamily(out, "orders_group_commit_seconds",
+                    "Time spent committing a group of write-behind orders.", GROUP_COMMIT_TIME);
+        }
+
+        writeGauge(out, "http_requests_in_flight", "HTTP requests currently being processed.", IN_FLIGHT.sum());
+        ExecutorService current = executor;
+        if (current instanceof ThreadPoolExecutor pool) {
+            writeGauge(out, "http_executor_queue_size", "Requests waiting for an executor thread.", pool.getQueue().size());
+            writeGauge(out, "http_executor_active_threads", "Executor threads running a request.", pool.getActiveCount());
+            writeGauge(out, "http_executor_pool_size", "Executor threads.", pool.getPoolSize());
+        } else if (current instanceof ForkJoinPool pool) {
+            writeGauge(out, "http_executor_queue_size", "Requests waiting for an executor thread.",
+                    pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+            writeGauge(out, "http_executor_active_threads", "Executor threads running a request.", pool.getActiveThreadCount());
+            writeGauge(out, "http_executor_pool_size", "Executor threads.", pool.getPoolSize());
+        }
+        for (Consumer<StringBuilder> writer : WRITERS) {
+            writer.accept(out);
+        }
+    }
+
+    /**
+     * Записывает показатель-значение.
+     *
+     * @param out буфер вывода
+     * @param name имя показателя
+     * @param help описание показателя
+     * @param value текущее значение
+     */
+    public static void writeGauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Записывает показатель-счетчик.
+     *
+     * @param out буфер вывода
+     * @param name имя показателя
+     * @param help описание показателя
+     * @param value текущее значение
+     */
+    public static void writeCounter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void writeSummaryFamily(StringBuilder out, String name, String help, LatencyHistogram histogram) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        writeSummary(out, name, "", histogram);
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long[] values = histogram.percentiles(QUANTILES);
+        String separator = labels.isEmpty() ? "" : ",";
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.append(name).append('{').append(labels).append(separator)
+                    .append("quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                    .append(seconds(values[i])).append('\n');
+        }
+        String suffixLabels = labels.isEmpty() ? "" : '{' + labels + '}';
+        out.append(name).append("_sum").append(suffixLabels).append(' ').append(seconds(histogram.sumNanos())).append('\n');
+        out.append(name).append("_count").append(suffixLabels).append(' ').append(histogram.count()).append('\n');
+    }
+
+    private static void routeLabels(StringBuilder out, RouteMetrics route) {
+        out.append("method=\"").append(route.getMethod()).append("\",route=\"").append(route.getRoute()).append('"');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
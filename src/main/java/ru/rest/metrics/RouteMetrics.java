@@ -0,0 +1,79 @@
+package ru.rest.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Класс {@code RouteMetrics} хранит показатели одного маршрута: число ответов по кодам состояния
+ * и распределение времени обработки запроса.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class RouteMetrics {
+
+    private final String method;
+    private final String route;
+    private final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    /**
+     * Записывает завершенный запрос.
+     *
+     * @param status код состояния ответа
+     * @param nanos время обработки в наносекундах
+     */
+    public void record(int status, long nanos) {
+        LongAdder counter = statuses.get(status);
+        if (counter == null) {
+            counter = statuses.computeIfAbsent(status, key -> new LongAdder());
+        }
+        counter.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Возвращает HTTP-метод маршрута.
+     *
+     * @return HTTP-метод
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Возвращает шаблон пути маршрута.
+     *
+     * @return шаблон пути, например {@code /orders/{id}}
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Возвращает число ответов по кодам состояния.
+     *
+     * @return упорядоченный по коду набор счетчиков
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, counter) -> counts.put(status, counter.sum()));
+        return counts;
+    }
+
+    /**
+     * Возвращает распределение времени обработки запросов.
+     *
+     * @return гистограмма длительностей
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,152 @@
+package ru.rest.repository;
+
+import ru.rest.cache.CacheStats;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.ReadRouting;
+import ru.rest.entity.Order;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Декоратор {@link OrderRepository}, обслуживающий поиск заказа по идентификатору из {@link LruCache}.
+ * <p>
+ * Промах кэша читает заказ из базы данных и сохраняет его в кэше, если за время чтения ключ не изменялся
+ * ({@link LruCache#putIfUnchanged(Object, Object, long)}): иначе чтение, начавшееся до обновления или
+ * удаления, вернуло бы в кэш прежний заказ до истечения времени жизни. Промах читается из реплики, если они
+ * настроены, но заказ, прочитанный из реплики ({@link ReadRouting#takeReplicaRead()}), в кэш не попадает:
+ * кэш общий для всех клиентов, а окно чтения своих записей защищает только писавшего клиента. Создание записывает заказ в кэш после
+ * успешной записи в базу. Обновление и удаление удаляют заказ из кэша после записи: запись обновленного
+ * заказа в кэш могла бы выполниться после удаления или более позднего обновления того же заказа,
+ * зафиксированного раньше нее, и вернуть в кэш удаленный или прежний заказ.
+ * Списочные запросы выполняются без кэша.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CachingOrderRepository implements OrderRepository {
+
+    private final OrderRepository delegate;
+    private final LruCache<Integer, Order> cache;
+
+    /**
+     * Создает кэширующий репозиторий.
+     *
+     * @param delegate репозиторий, к которому выполняются обращения при промахе
+     * @param cache кэш заказов по идентификатору
+     */
+    public CachingOrderRepository(OrderRepository delegate, LruCache<Integer, Order> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<Order> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Order> findPage(int afterId, int limit) throws SQLException {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(int afterId, RowCallback<Order> callback) throws SQLException, IOException {
+        delegate.forEach(afterId, callback);
+    }
+
+    @Override
+    public Order findById(int orderId) throws SQLException {
+        Order order = cache.get(orderId);
+        if (order == null) {
+            long stamp = cache.stamp(orderId);
+            // Отметка могла остаться от чтения вне кэша в этом же потоке
+            ReadRouting.takeReplicaRead();
+            order = delegate.findById(orderId);
+            // Прочитанное из реплики не кэшируется: отставшая реплика вернула бы всем клиентам
+            // удаленную или прежнюю запись до истечения времени жизни
+            if (!ReadRouting.takeReplicaRead()) {
+                cache.putIfUnchanged(orderId, order, stamp);
+            }
+        }
+        return order;
+    }
+
+    @Override
+    public List<Order> findByUserId(int userId) throws SQLException {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public Map<Integer, List<Order>> findByUserIds(int[] userIds) throws SQLException {
+        return delegate.findByUserIds(userIds);
+    }
+
+    @Override
+    public int insert(Order order) throws SQLException {
+        int orderId = delegate.insert(order);
+        cache.put(orderId, new Order(orderId, order.getProduct(), order.getUserId()));
+        return orderId;
+    }
+
+    @Override
+    public int[] insertAll(List<Order> orders) throws SQLException {
+        return delegate.insertAll(orders);
+    }
+
+    @Override
+    public void insertWithIds(List<Order> orders) throws SQLException {
+        delegate.insertWithIds(orders);
+    }
+
+    @Override
+    public boolean update(Order order) throws SQLException {
+        try {
+            return delegate.update(order);
+        } finally {
+            cache.invalidate(order.getId());
+        }
+    }
+
+    @Override
+    public int[] updateAll(List<Order> orders) throws SQLException {
+        try {
+            return delegate.updateAll(orders);
+        } finally {
+            for (Order order : orders) {
+                cache.invalidate(order.getId());
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(int orderId) throws SQLException {
+        try {
+            return delegate.delete(orderId);
+        } finally {
+            cache.invalidate(orderId);
+        }
+    }
+
+    @Override
+    public int[] deleteAll(int[] orderIds) throws SQLException {
+        try {
+            return delegate.deleteAll(orderIds);
+        } finally {
+            for (int orderId : orderIds) {
+                cache.invalidate(orderId);
+            }
+        }
+    }
+
+    /**
+     * Возвращает статистику кэша заказов.
+     *
+     * @return статистика кэша
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+}
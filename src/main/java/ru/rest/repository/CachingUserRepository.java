@@ -0,0 +1,107 @@
+package ru.rest.repository;
+
+import ru.rest.cache.CacheStats;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.ReadRouting;
+import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Декоратор {@link UserRepository}, обслуживающий поиск пользователя по идентификатору из {@link LruCache}.
+ * Кэш поддерживается так же, как в {@link CachingOrderRepository}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CachingUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private final LruCache<Integer, User> cache;
+
+    /**
+     * Создает кэширующий репозиторий.
+     *
+     * @param delegate репозиторий, к которому выполняются обращения при промахе
+     * @param cache кэш пользователей по идентификатору
+     */
+    public CachingUserRepository(UserRepository delegate, LruCache<Integer, User> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public List<User> findAll() throws SQLException {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) throws SQLException {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public void forEach(int afterId, RowCallback<User> callback) throws SQLException, IOException {
+        delegate.forEach(afterId, callback);
+    }
+
+    @Override
+    public void forEachWithOrders(int afterId, int limit, RowCallback<UserWithOrders> callback)
+            throws SQLException, IOException {
+        delegate.forEachWithOrders(afterId, limit, callback);
+    }
+
+    @Override
+    public User findById(int userId) throws SQLException {
+        User user = cache.get(userId);
+        if (user == null) {
+            long stamp = cache.stamp(userId);
+            // Отметка могла остаться от чтения вне кэша в этом же потоке
+            ReadRouting.takeReplicaRead();
+            user = delegate.findById(userId);
+            // Прочитанное из реплики не кэшируется: отставшая реплика вернула бы всем клиентам
+            // удаленную или прежнюю запись до истечения времени жизни
+            if (!ReadRouting.takeReplicaRead()) {
+                cache.putIfUnchanged(userId, user, stamp);
+            }
+        }
+        return user;
+    }
+
+    @Override
+    public int insert(User user) throws SQLException {
+        int userId = delegate.insert(user);
+        cache.put(userId, new User(userId, user.getName(), user.getEmail()));
+        return userId;
+    }
+
+    @Override
+    public UpdateResult update(User user) throws SQLException {
+        try {
+            return delegate.update(user);
+        } finally {
+            cache.invalidate(user.getId());
+        }
+    }
+
+    @Override
+    public boolean delete(int userId) throws SQLException {
+        try {
+            return delegate.delete(userId);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Возвращает статистику кэша пользователей.
+     *
+     * @return статистика кэша
+     */
+    public CacheStats cacheStats() {
+        return cache.stats();
+    }
+}
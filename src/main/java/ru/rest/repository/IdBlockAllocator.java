@@ -0,0 +1,138 @@
+package ru.rest.repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code IdBlockAllocator} выдает идентификаторы новых записей из заранее зарезервированных блоков.
+ * <p>
+ * Блок из {@code blockSize} идентификаторов резервируется одной короткой транзакцией над таблицей
+ * {@code id_blocks}, после чего идентификаторы выдаются из памяти без обращения к базе данных.
+ * Начало блока не меньше {@code MAX(id) + 1} таблицы, поэтому блок не пересекается со строками,
+ * вставленными ранее с автоинкрементом (например, генератором тестовых данных). Идентификаторы
+ * неиспользованного остатка блока после перезапуска теряются.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class IdBlockAllocator {
+
+    private static final String SELECT_NEXT = "SELECT next_id FROM id_blocks WHERE name = ? FOR UPDATE";
+    private static final String INSERT_NEXT = "INSERT INTO id_blocks (name, next_id) VALUES (?, ?)";
+    private static final String UPDATE_NEXT = "UPDATE id_blocks SET next_id = ? WHERE name = ?";
+    private static final String SELECT_MAX_ID = "SELECT COALESCE(MAX(id), 0) + 1 FROM %s";
+
+    private final DataSource dataSource;
+    private final String name;
+    private final String selectMaxId;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block current = new Block(0, 0);
+
+    /**
+     * Создает распределитель идентификаторов таблицы.
+     *
+     * @param dataSource источник подключений к базе данных
+     * @param table имя таблицы, для которой выдаются идентификаторы; используется и как имя блока
+     * @param blockSize число идентификаторов, резервируемых за одно обращение к базе данных
+     */
+    public IdBlockAllocator(DataSource dataSource, String table, int blockSize) {
+        this.dataSource = dataSource;
+        this.name = table;
+        this.selectMaxId = String.format(SELECT_MAX_ID, table);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Возвращает очередной идентификатор. Обращается к базе данных только когда текущий блок исчерпан.
+     *
+     * @return идентификатор, не выданный ранее ни одному экземпляру приложения
+     * @throws SQLException если не удалось зарезервировать новый блок
+     */
+    public int nextId() throws SQLException {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return (int) id;
+            }
+            refillLock.lock();
+            try {
+                if (current == block) {
+                    current = reserveBlock();
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Резервирует следующий блок идентификаторов в отдельной транзакции.
+     *
+     * @return новый блок
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    private Block reserveBlock() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long next = 0;
+                boolean exists;
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_NEXT)) {
+                    statement.setString(1, name);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        exists = resultSet.next();
+                        if (exists) {
+                            next = resultSet.getLong(1);
+                        }
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(selectMaxId);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    next = Math.max(next, resultSet.getLong(1));
+                }
+                long end = next + blockSize;
+                if (end > Integer.MAX_VALUE) {
+                    throw new SQLException("Identifier range of " + name + " is exhausted");
+                }
+                try (PreparedStatement statement = connection.prepareStatement(exists ? UPDATE_NEXT : INSERT_NEXT)) {
+                    if (exists) {
+                        statement.setLong(1, end);
+                        statement.setString(2, name);
+                    } else {
+                        statement.setString(1, name);
+                        statement.setLong(2, end);
+                    }
+                    statement.executeUpdate();
+                }
+                connection.commit();
+                return new Block(next, end);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Зарезервированный диапазон идентификаторов {@code [next, end)}.
+     */
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
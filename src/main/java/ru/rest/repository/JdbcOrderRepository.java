@@ -0,0 +1,325 @@
+package ru.rest.repository;
+
+import ru.rest.entity.Order;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реализация {@link OrderRepository} поверх JDBC.
+ * <p>
+ * Операторы закрываются сразу после использования и переиспользуются через кэш
+ * подготовленных операторов драйвера (см. {@link JdbcUserRepository}).
+ * Столбцы читаются по индексу в порядке {@code id, product, user_id}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class JdbcOrderRepository implements OrderRepository {
+
+    private static final String SELECT_ALL = "SELECT id, product, user_id FROM orders";
+    private static final String SELECT_AFTER = "SELECT id, product, user_id FROM orders WHERE id > ? ORDER BY id";
+    private static final String SELECT_PAGE = "SELECT id, product, user_id FROM orders WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_BY_ID = "SELECT id, product, user_id FROM orders WHERE id = ?";
+    private static final String SELECT_BY_USER_ID = "SELECT id, product, user_id FROM orders WHERE user_id = ?";
+    private static final String SELECT_BY_USER_IDS = "SELECT id, product, user_id FROM orders WHERE user_id IN (%s)"
+            + " ORDER BY user_id, id";
+    private static final String INSERT = "INSERT INTO orders (product, user_id) VALUES (?, ?)";
+    private static final String INSERT_WITH_ID = "INSERT INTO orders (id, product, user_id) VALUES (?, ?, ?)";
+    private static final String UPDATE = "UPDATE orders SET product = ?, user_id = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM orders WHERE id = ?";
+
+    /**
+     * Размер порции строк, запрашиваемой у сервера при потоковом чтении
+     * (с {@code useCursorFetch=true} MySQL отдает результат через серверный курсор).
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final DataSource readDataSource;
+
+    /**
+     * Создает репозиторий, работающий с указанным источником данных.
+     *
+     * @param dataSource источник подключений к базе данных
+     */
+    public JdbcOrderRepository(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Создает репозиторий, который пишет в основной источник данных, а читает из отдельного,
+     * например из {@link ru.rest.dataBase.ReplicaRoutingDataSource}.
+     *
+     * @param dataSource источник подключений для записи
+     * @param readDataSource источник подключений для чтения
+     */
+    public JdbcOrderRepository(DataSource dataSource, DataSource readDataSource) {
+        this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
+    }
+
+    @Override
+    public List<Order> findAll() throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+             ResultSet resultSet = statement.executeQuery()) {
+            return mapOrders(resultSet);
+        }
+    }
+
+    @Override
+    public List<Order> findPage(int afterId, int limit) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_PAGE)) {
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapOrders(resultSet);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(int afterId, RowCallback<Order> callback) throws SQLException, IOException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_AFTER)) {
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setInt(1, afterId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    callback.accept(mapOrder(resultSet));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Order findById(int orderId) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            statement.setInt(1, orderId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? mapOrder(resultSet) : null;
+            }
+        }
+    }
+
+    @Override
+    public List<Order> findByUserId(int userId) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_USER_ID)) {
+            statement.setInt(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapOrders(resultSet);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Число параметров списка {@code IN} округляется вверх до степени двойки (недостающие позиции
+     * заполняются последним идентификатором), поэтому для любых запросов используется лишь несколько
+     * разных текстов SQL, и они остаются в кэше подготовленных операторов.
+     */
+    @Override
+    public Map<Integer, List<Order>> findByUserIds(int[] userIds) throws SQLException {
+        Map<Integer, List<Order>> ordersByUser = new LinkedHashMap<>();
+        for (int userId : userIds) {
+            ordersByUser.put(userId, new ArrayList<>());
+        }
+        if (userIds.length == 0) {
+            return ordersByUser;
+        }
+        int parameters = Integer.highestOneBit(userIds.length);
+        if (parameters < userIds.length) {
+            parameters <<= 1;
+        }
+        String sql = String.format(SELECT_BY_USER_IDS, String.join(", ", Collections.nCopies(parameters, "?")));
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters; i++) {
+                statement.setInt(i + 1, userIds[Math.min(i, userIds.length - 1)]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Order order = mapOrder(resultSet);
+                    ordersByUser.get(order.getUserId()).add(order);
+                }
+            }
+        }
+        return ordersByUser;
+    }
+
+    @Override
+    public int insert(Order order) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, order.getProduct());
+            statement.setInt(2, order.getUserId());
+            statement.executeUpdate();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new SQLException("Creating order failed, no ID obtained.");
+            }
+        }
+    }
+
+    @Override
+    public int[] insertAll(List<Order> orders) throws SQLException {
+        return inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                for (Order order : orders) {
+                    statement.setString(1, order.getProduct());
+                    statement.setInt(2, order.getUserId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                int[] orderIds = new int[orders.size()];
+                int count = 0;
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (count < orderIds.length && generatedKeys.next()) {
+                        orderIds[count++] = generatedKeys.getInt(1);
+                    }
+                }
+                if (count != orderIds.length) {
+                    throw new SQLException("Creating orders failed, " + count + " of " + orderIds.length + " IDs obtained.");
+                }
+                return orderIds;
+            }
+        });
+    }
+
+    @Override
+    public void insertWithIds(List<Order> orders) throws SQLException {
+        inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_WITH_ID)) {
+                for (Order order : orders) {
+                    statement.setInt(1, order.getId());
+                    statement.setString(2, order.getProduct());
+                    statement.setInt(3, order.getUserId());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public boolean update(Order order) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+            statement.setString(1, order.getProduct());
+            statement.setInt(2, order.getUserId());
+            statement.setInt(3, order.getId());
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int[] updateAll(List<Order> orders) throws SQLException {
+        return inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                for (Order order : orders) {
+                    statement.setString(1, order.getProduct());
+                    statement.setInt(2, order.getUserId());
+                    statement.setInt(3, order.getId());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public boolean delete(int orderId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            statement.setInt(1, orderId);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public int[] deleteAll(int[] orderIds) throws SQLException {
+        return inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                for (int orderId : orderIds) {
+                    statement.setInt(1, orderId);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Выполняет действие в одной транзакции: фиксирует ее при успехе и откатывает при ошибке.
+     *
+     * @param work действие над подключением
+     * @param <T> тип результата
+     * @return результат действия
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Действие, выполняемое в транзакции.
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Создает заказ из текущей строки результата ({@code id, product, user_id}).
+     *
+     * @param resultSet результат запроса, установленный на строку
+     * @return заказ
+     * @throws SQLException если возникает ошибка при чтении строки
+     */
+    static Order mapOrder(ResultSet resultSet) throws SQLException {
+        return new Order(
+                resultSet.getInt(1),
+                resultSet.getString(2),
+                resultSet.getInt(3)
+        );
+    }
+
+    private static List<Order> mapOrders(ResultSet resultSet) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        while (resultSet.next()) {
+            orders.add(mapOrder(resultSet));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.rest.repository;
+
+import ru.rest.entity.OrderCountBucket;
+import ru.rest.entity.ProductOrderCount;
+import ru.rest.entity.UserOrderCount;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация {@link OrderStatsRepository}, передающая агрегацию базе данных запросами с {@code GROUP BY}:
+ * клиенту приложения и самому приложению передаются только итоговые строки.
+ * Запросы выполняются через источник подключений для чтения и могут обслуживаться репликами.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class JdbcOrderStatsRepository implements OrderStatsRepository {
+
+    private static final String COUNT_BY_USER = "SELECT user_id, COUNT(*) FROM orders GROUP BY user_id ORDER BY user_id";
+    private static final String TOP_PRODUCTS = "SELECT product, COUNT(*) AS orders_count FROM orders"
+            + " GROUP BY product ORDER BY orders_count DESC, product LIMIT ?";
+    private static final String USER_HISTOGRAM = "SELECT FLOOR((orders_count - 1) / ?) AS bucket, COUNT(*)"
+            + " FROM (SELECT COUNT(*) AS orders_count FROM orders GROUP BY user_id) counts"
+            + " GROUP BY bucket ORDER BY bucket";
+
+    /**
+     * Размер порции строк, запрашиваемой у сервера при потоковом чтении.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final DataSource readDataSource;
+
+    /**
+     * Создает репозиторий, читающий из указанного источника данных.
+     *
+     * @param readDataSource источник подключений для чтения
+     */
+    public JdbcOrderStatsRepository(DataSource readDataSource) {
+        this.readDataSource = readDataSource;
+    }
+
+    @Override
+    public void forEachUserOrderCount(RowCallback<UserOrderCount> callback) throws SQLException, IOException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COUNT_BY_USER)) {
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    callback.accept(new UserOrderCount(resultSet.getInt(1), resultSet.getInt(2)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<ProductOrderCount> findTopProducts(int limit) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(TOP_PRODUCTS)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<ProductOrderCount> products = new ArrayList<>(limit);
+                while (resultSet.next()) {
+                    products.add(new ProductOrderCount(resultSet.getString(1), resultSet.getInt(2)));
+                }
+                return products;
+            }
+        }
+    }
+
+    @Override
+    public List<OrderCountBucket> findUserHistogram(int width) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(USER_HISTOGRAM)) {
+            statement.setInt(1, width);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<OrderCountBucket> buckets = new ArrayList<>();
+                while (resultSet.next()) {
+                    int bucket = resultSet.getInt(1);
+                    buckets.add(new OrderCountBucket(bucket * width + 1, (bucket + 1) * width, resultSet.getInt(2)));
+                }
+                return buckets;
+            }
+        }
+    }
+}
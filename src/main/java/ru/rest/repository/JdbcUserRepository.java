@@ -0,0 +1,225 @@
+package ru.rest.repository;
+
+import ru.rest.entity.Order;
+import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация {@link UserRepository} поверх JDBC.
+ * <p>
+ * Все запросы заданы константами, а операторы и результаты закрываются сразу после использования:
+ * при включенном {@code cachePrepStmts} драйвер MySQL возвращает закрытый оператор в кэш
+ * подключения, и повторный запрос из пула не разбирается сервером заново.
+ * Столбцы читаются по индексу в порядке, указанном в {@code SELECT}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    private static final String SELECT_ALL = "SELECT id, name, email, version FROM users";
+    private static final String SELECT_AFTER = "SELECT id, name, email, version FROM users WHERE id > ? ORDER BY id";
+    private static final String SELECT_PAGE = "SELECT id, name, email, version FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_WITH_ORDERS = "SELECT u.id, u.name, u.email, u.version, o.id, o.product, o.user_id"
+            + " FROM users u LEFT JOIN orders o ON o.user_id = u.id WHERE u.id > ? ORDER BY u.id, o.id";
+    private static final String SELECT_PAGE_WITH_ORDERS = "SELECT u.id, u.name, u.email, u.version, o.id, o.product, o.user_id"
+            + " FROM (SELECT id, name, email, version FROM users WHERE id > ? ORDER BY id LIMIT ?) u"
+            + " LEFT JOIN orders o ON o.user_id = u.id ORDER BY u.id, o.id";
+    private static final String SELECT_BY_ID = "SELECT id, name, email, version FROM users WHERE id = ?";
+    private static final String SELECT_VERSION = "SELECT version FROM users WHERE id = ?";
+    private static final String INSERT = "INSERT INTO users (name, email) VALUES (?, ?)";
+    private static final String UPDATE = "UPDATE users SET name = ?, email = ?, version = version + 1"
+            + " WHERE id = ? AND version = ?";
+    private static final String DELETE = "DELETE FROM users WHERE id = ?";
+
+    /**
+     * Размер порции строк, запрашиваемой у сервера при потоковом чтении
+     * (с {@code useCursorFetch=true} MySQL отдает результат через серверный курсор).
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final DataSource readDataSource;
+
+    /**
+     * Создает репозиторий, работающий с указанным источником данных.
+     *
+     * @param dataSource источник подключений к базе данных
+     */
+    public JdbcUserRepository(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    /**
+     * Создает репозиторий, который пишет в основной источник данных, а читает из отдельного,
+     * например из {@link ru.rest.dataBase.ReplicaRoutingDataSource}.
+     *
+     * @param dataSource источник подключений для записи
+     * @param readDataSource источник подключений для чтения
+     */
+    public JdbcUserRepository(DataSource dataSource, DataSource readDataSource) {
+        this.dataSource = dataSource;
+        this.readDataSource = readDataSource;
+    }
+
+    @Override
+    public List<User> findAll() throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_ALL);
+             ResultSet resultSet = statement.executeQuery()) {
+            List<User> users = new ArrayList<>();
+            while (resultSet.next()) {
+                users.add(mapUser(resultSet));
+            }
+            return users;
+        }
+    }
+
+    @Override
+    public List<User> findPage(int afterId, int limit) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_PAGE)) {
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<User> users = new ArrayList<>(limit);
+                while (resultSet.next()) {
+                    users.add(mapUser(resultSet));
+                }
+                return users;
+            }
+        }
+    }
+
+    @Override
+    public void forEach(int afterId, RowCallback<User> callback) throws SQLException, IOException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_AFTER)) {
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setInt(1, afterId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    callback.accept(mapUser(resultSet));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachWithOrders(int afterId, int limit, RowCallback<UserWithOrders> callback)
+            throws SQLException, IOException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(limit > 0 ? SELECT_PAGE_WITH_ORDERS : SELECT_WITH_ORDERS)) {
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            statement.setInt(1, afterId);
+            if (limit > 0) {
+                statement.setInt(2, limit);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                UserWithOrders current = null;
+                while (resultSet.next()) {
+                    int userId = resultSet.getInt(1);
+                    if (current == null || current.getId() != userId) {
+                        if (current != null) {
+                            callback.accept(current);
+                        }
+                        current = new UserWithOrders(userId, resultSet.getString(2), resultSet.getString(3),
+                                resultSet.getInt(4));
+                    }
+                    int orderId = resultSet.getInt(5);
+                    if (!resultSet.wasNull()) {
+                        current.getOrders().add(new Order(orderId, resultSet.getString(6), resultSet.getInt(7)));
+                    }
+                }
+                if (current != null) {
+                    callback.accept(current);
+                }
+            }
+        }
+    }
+
+    @Override
+    public User findById(int userId) throws SQLException {
+        try (Connection connection = readDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_ID)) {
+            statement.setInt(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? mapUser(resultSet) : null;
+            }
+        }
+    }
+
+    @Override
+    public int insert(User user) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, user.getName());
+            statement.setString(2, user.getEmail());
+            statement.executeUpdate();
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+                throw new SQLException("Creating user failed, no ID obtained.");
+            }
+        }
+    }
+
+    @Override
+    public UpdateResult update(User user) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                statement.setString(1, user.getName());
+                statement.setString(2, user.getEmail());
+                statement.setInt(3, user.getId());
+                statement.setInt(4, user.getVersion());
+                if (statement.executeUpdate() > 0) {
+                    user.setVersion(user.getVersion() + 1);
+                    return UpdateResult.UPDATED;
+                }
+            }
+            // Строка не обновлена: отличаем отсутствие пользователя от устаревшей версии
+            try (PreparedStatement statement = connection.prepareStatement(SELECT_VERSION)) {
+                statement.setInt(1, user.getId());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? UpdateResult.VERSION_CONFLICT : UpdateResult.NOT_FOUND;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(int userId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DELETE)) {
+            statement.setInt(1, userId);
+            return statement.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Создает пользователя из текущей строки результата ({@code id, name, email, version}).
+     *
+     * @param resultSet результат запроса, установленный на строку
+     * @return пользователь
+     * @throws SQLException если возникает ошибка при чтении строки
+     */
+    static User mapUser(ResultSet resultSet) throws SQLException {
+        return new User(
+                resultSet.getInt(1),
+                resultSet.getString(2),
+                resultSet.getString(3),
+                resultSet.getInt(4)
+        );
+    }
+}
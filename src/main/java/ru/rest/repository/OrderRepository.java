@@ -0,0 +1,140 @@
+package ru.rest.repository;
+
+import ru.rest.entity.Order;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Интерфейс {@code OrderRepository} описывает операции доступа к данным заказов.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public interface OrderRepository {
+
+    /**
+     * Возвращает все заказы.
+     *
+     * @return список заказов
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<Order> findAll() throws SQLException;
+
+    /**
+     * Возвращает страницу заказов с идентификатором больше {@code afterId} в порядке возрастания идентификатора
+     * (keyset-пагинация: стоимость запроса не зависит от номера страницы).
+     *
+     * @param afterId идентификатор последней записи предыдущей страницы, {@code 0} для первой страницы
+     * @param limit максимальное число записей на странице
+     * @return страница заказов
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<Order> findPage(int afterId, int limit) throws SQLException;
+
+    /**
+     * Передает заказов с идентификатором больше {@code afterId} в обработчик по одной строке
+     * в порядке возрастания идентификатора, не загружая всю таблицу в память.
+     *
+     * @param afterId идентификатор, после которого начинается выборка, {@code 0} для всей таблицы
+     * @param callback обработчик строк
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     * @throws IOException если обработчик не смог записать строку
+     */
+    void forEach(int afterId, RowCallback<Order> callback) throws SQLException, IOException;
+
+    /**
+     * Возвращает заказ по его идентификатору.
+     *
+     * @param orderId идентификатор заказа
+     * @return найденный заказ или {@code null}, если заказ не найден
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    Order findById(int orderId) throws SQLException;
+
+    /**
+     * Возвращает заказы пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return список заказов пользователя
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<Order> findByUserId(int userId) throws SQLException;
+
+    /**
+     * Возвращает заказы нескольких пользователей одним запросом.
+     *
+     * @param userIds идентификаторы пользователей без повторений
+     * @return заказы, сгруппированные по идентификатору пользователя в порядке {@code userIds};
+     * пользователям без заказов соответствуют пустые списки
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    Map<Integer, List<Order>> findByUserIds(int[] userIds) throws SQLException;
+
+    /**
+     * Сохраняет новый заказ.
+     *
+     * @param order заказ, который необходимо сохранить
+     * @return идентификатор сохраненного заказа
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    int insert(Order order) throws SQLException;
+
+    /**
+     * Сохраняет новые заказы одним пакетом в одной транзакции.
+     *
+     * @param orders заказы, которые необходимо сохранить
+     * @return идентификаторы сохраненных заказов в порядке следования заказов
+     * @throws SQLException если возникает ошибка при обращении к базе данных; в этом случае ни один заказ не сохраняется
+     */
+    int[] insertAll(List<Order> orders) throws SQLException;
+
+    /**
+     * Сохраняет новые заказы с заранее выделенными идентификаторами (см. {@link IdBlockAllocator})
+     * одним пакетом в одной транзакции.
+     *
+     * @param orders заказы с заполненными идентификаторами
+     * @throws SQLException если возникает ошибка при обращении к базе данных; в этом случае ни один заказ не сохраняется
+     */
+    void insertWithIds(List<Order> orders) throws SQLException;
+
+    /**
+     * Обновляет заказ.
+     *
+     * @param order заказ с обновленными данными
+     * @return {@code true}, если заказ был обновлен
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    boolean update(Order order) throws SQLException;
+
+    /**
+     * Обновляет заказы одним пакетом в одной транзакции.
+     *
+     * @param orders заказы с обновленными данными
+     * @return число обновленных строк для каждого заказа или {@link java.sql.Statement#SUCCESS_NO_INFO},
+     * если драйвер его не сообщил
+     * @throws SQLException если возникает ошибка при обращении к базе данных; в этом случае ни один заказ не обновляется
+     */
+    int[] updateAll(List<Order> orders) throws SQLException;
+
+    /**
+     * Удаляет заказ.
+     *
+     * @param orderId идентификатор заказа
+     * @return {@code true}, если заказ был удален
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    boolean delete(int orderId) throws SQLException;
+
+    /**
+     * Удаляет заказы одним пакетом в одной транзакции.
+     *
+     * @param orderIds идентификаторы заказов
+     * @return число удаленных строк для каждого идентификатора или {@link java.sql.Statement#SUCCESS_NO_INFO},
+     * если драйвер его не сообщил
+     * @throws SQLException если возникает ошибка при обращении к базе данных; в этом случае ни один заказ не удаляется
+     */
+    int[] deleteAll(int[] orderIds) throws SQLException;
+}
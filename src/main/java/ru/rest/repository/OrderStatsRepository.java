@@ -0,0 +1,48 @@
+package ru.rest.repository;
+
+import ru.rest.entity.OrderCountBucket;
+import ru.rest.entity.ProductOrderCount;
+import ru.rest.entity.UserOrderCount;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Интерфейс {@code OrderStatsRepository} описывает агрегаты по таблице заказов, которые вычисляются
+ * на стороне сервера вместо выгрузки всех заказов клиенту. Учитываются только пользователи,
+ * у которых есть хотя бы один заказ.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public interface OrderStatsRepository {
+
+    /**
+     * Передает число заказов каждого пользователя в обработчик в порядке возрастания идентификатора пользователя.
+     *
+     * @param callback обработчик строк
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     * @throws IOException если обработчик не смог записать строку
+     */
+    void forEachUserOrderCount(RowCallback<UserOrderCount> callback) throws SQLException, IOException;
+
+    /**
+     * Возвращает товары с наибольшим числом заказов.
+     *
+     * @param limit число товаров
+     * @return товары по убыванию числа заказов, при равенстве - по названию
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<ProductOrderCount> findTopProducts(int limit) throws SQLException;
+
+    /**
+     * Возвращает гистограмму пользователей по числу заказов.
+     *
+     * @param width ширина столбца: столбец {@code k} охватывает от {@code k * width + 1}
+     * до {@code (k + 1) * width} заказов
+     * @return непустые столбцы по возрастанию границ
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<OrderCountBucket> findUserHistogram(int width) throws SQLException;
+}
@@ -0,0 +1,23 @@
+package ru.rest.repository;
+
+import java.io.IOException;
+
+/**
+ * Функциональный интерфейс {@code RowCallback} получает строки результата запроса по одной,
+ * не накапливая их в памяти.
+ *
+ * @param <T> тип строки
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowCallback<T> {
+
+    /**
+     * Обрабатывает очередную строку.
+     *
+     * @param row строка результата
+     * @throws IOException если возникнут ошибки при записи строки в ответ
+     */
+    void accept(T row) throws IOException;
+}
@@ -0,0 +1,25 @@
+package ru.rest.repository;
+
+/**
+ * Перечисление {@code UpdateResult} описывает исход условного обновления записи по версии.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public enum UpdateResult {
+
+    /**
+     * Запись обновлена, ее версия увеличена.
+     */
+    UPDATED,
+
+    /**
+     * Записи с таким идентификатором нет.
+     */
+    NOT_FOUND,
+
+    /**
+     * Запись изменена другим клиентом: версия в запросе не совпадает с текущей.
+     */
+    VERSION_CONFLICT
+}
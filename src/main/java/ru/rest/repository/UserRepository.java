@@ -0,0 +1,98 @@
+package ru.rest.repository;
+
+import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Интерфейс {@code UserRepository} описывает операции доступа к данным пользователей.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public interface UserRepository {
+
+    /**
+     * Возвращает всех пользователей.
+     *
+     * @return список пользователей
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<User> findAll() throws SQLException;
+
+    /**
+     * Возвращает страницу пользователей с идентификатором больше {@code afterId} в порядке возрастания идентификатора
+     * (keyset-пагинация: стоимость запроса не зависит от номера страницы).
+     *
+     * @param afterId идентификатор последней записи предыдущей страницы, {@code 0} для первой страницы
+     * @param limit максимальное число записей на странице
+     * @return страница пользователей
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    List<User> findPage(int afterId, int limit) throws SQLException;
+
+    /**
+     * Передает пользователей с идентификатором больше {@code afterId} в обработчик по одной строке
+     * в порядке возрастания идентификатора, не загружая всю таблицу в память.
+     *
+     * @param afterId идентификатор, после которого начинается выборка, {@code 0} для всей таблицы
+     * @param callback обработчик строк
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     * @throws IOException если обработчик не смог записать строку
+     */
+    void forEach(int afterId, RowCallback<User> callback) throws SQLException, IOException;
+
+    /**
+     * Передает пользователей с идентификатором больше {@code afterId} вместе с их заказами в обработчик
+     * по одному пользователю. Пользователи и заказы читаются одним запросом с соединением таблиц.
+     *
+     * @param afterId идентификатор, после которого начинается выборка, {@code 0} для всей таблицы
+     * @param limit максимальное число пользователей, {@code 0} без ограничения
+     * @param callback обработчик пользователей
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     * @throws IOException если обработчик не смог записать пользователя
+     */
+    void forEachWithOrders(int afterId, int limit, RowCallback<UserWithOrders> callback) throws SQLException, IOException;
+
+    /**
+     * Возвращает пользователя по его идентификатору.
+     *
+     * @param userId идентификатор пользователя
+     * @return найденный пользователь или {@code null}, если пользователь не найден
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    User findById(int userId) throws SQLException;
+
+    /**
+     * Сохраняет нового пользователя. Сохраненная запись получает версию {@code 0}.
+     *
+     * @param user пользователь, которого необходимо сохранить
+     * @return идентификатор сохраненного пользователя
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    int insert(User user) throws SQLException;
+
+    /**
+     * Обновляет данные пользователя, если его текущая версия совпадает с {@link User#getVersion()}
+     * (оптимистическая блокировка без блокирующего чтения). При успешном обновлении версия
+     * в базе данных и в переданном объекте увеличивается на единицу, и объект соответствует
+     * сохраненной записи без повторного чтения.
+     *
+     * @param user пользователь с обновленными данными и версией, на основе которой они изменены
+     * @return исход обновления
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    UpdateResult update(User user) throws SQLException;
+
+    /**
+     * Удаляет пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return {@code true}, если пользователь был удален
+     * @throws SQLException если возникает ошибка при обращении к базе данных
+     */
+    boolean delete(int userId) throws SQLException;
+}
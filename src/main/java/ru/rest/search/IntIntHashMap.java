@@ -0,0 +1,141 @@
+package ru.rest.search;
+
+import java.util.Arrays;
+
+/**
+ * Класс {@code IntIntHashMap} - хеш-таблица с открытой адресацией и линейным пробированием,
+ * отображающая положительные ключи {@code int} в значения {@code int} без упаковки.
+ * <p>
+ * Ключ {@code 0} обозначает пустую ячейку, поэтому допустимы только положительные ключи
+ * (идентификаторы заказов). Удаление сдвигает следующие записи цепочки назад и не оставляет
+ * надгробий. Экземпляр не потокобезопасен.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class IntIntHashMap {
+
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key положительный ключ
+     * @param missing значение, если ключа нет
+     * @return значение
+     */
+    int get(int key, int missing) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * Сохраняет значение по ключу.
+     *
+     * @param key положительный ключ
+     * @param value значение
+     */
+    void put(int key, int value) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            int current = keys[i];
+            if (current == key) {
+                values[i] = value;
+                return;
+            }
+            if (current == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    resize();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ключ.
+     *
+     * @param key положительный ключ
+     * @param missing значение, возвращаемое, если ключа нет
+     * @return удаленное значение
+     */
+    int remove(int key, int missing) {
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return missing;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        // Сдвигаем назад записи, чья исходная ячейка лежит не между освободившейся и текущей
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Возвращает число записей.
+     *
+     * @return размер таблицы
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
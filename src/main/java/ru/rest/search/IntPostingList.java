@@ -0,0 +1,84 @@
+package ru.rest.search;
+
+import java.util.Arrays;
+
+/**
+ * Класс {@code IntPostingList} - список идентификаторов заказов, содержащих лексему, в виде
+ * отсортированного массива {@code int} без упаковки в {@link Integer}.
+ * <p>
+ * Новые заказы получают возрастающие идентификаторы, поэтому добавление почти всегда дописывает
+ * в конец массива; вставка в середину и удаление сдвигают хвост. Массив уменьшается, когда
+ * заполнен меньше чем на четверть. Экземпляр не потокобезопасен: доступ синхронизирует
+ * {@link OrderSearchIndex}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class IntPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Добавляет идентификатор, сохраняя порядок возрастания.
+     *
+     * @param id идентификатор заказа
+     */
+    void add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size << 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    /**
+     * Удаляет идентификатор.
+     *
+     * @param id идентификатор заказа
+     */
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (ids.length > INITIAL_CAPACITY && size < ids.length >> 2) {
+            ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, ids.length >> 1));
+        }
+    }
+
+    /**
+     * Возвращает число идентификаторов.
+     *
+     * @return длина списка
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает внутренний массив; значимы первые {@link #size()} элементов.
+     *
+     * @return отсортированные идентификаторы
+     */
+    int[] ids() {
+        return ids;
+    }
+}
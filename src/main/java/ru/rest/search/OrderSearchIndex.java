@@ -0,0 +1,262 @@
+package ru.rest.search;
+
+import ru.rest.entity.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Класс {@code OrderSearchIndex} - инвертированный индекс заказов по названию товара в памяти процесса.
+ * <p>
+ * Название разбивается на лексемы (последовательности букв и цифр в нижнем регистре), и для каждой лексемы
+ * хранится {@link IntPostingList} идентификаторов заказов. Каждое слово запроса ищется как префикс лексемы
+ * ({@code lam} находит {@code Red Lamp}), заказ должен содержать все слова запроса. Для заказа индекс
+ * также хранит товар и владельца, поэтому результат поиска и фильтр по пользователю строятся без обращения
+ * к базе данных.
+ * <p>
+ * Списки лексем слова запроса не копируются: {@link PrefixCursor} сливает их на лету, начиная с {@code afterId}
+ * (двоичный поиск в каждом списке), курсоры слов пересекаются поочередным сдвигом к наибольшему текущему
+ * идентификатору, и перебор останавливается, как только набрано {@code limit} заказов. Поэтому стоимость страницы
+ * зависит от ее размера и числа лексем с префиксом, а не от общего числа совпадений.
+ * <p>
+ * Индекс обновляется теми же путями записи, что и база данных, в порядке их фиксации (запись и изменение
+ * индекса выполняются под одной блокировкой заказа, см. {@code OrderController}), и перестраивается потоковым
+ * чтением таблицы при запуске. Изменения, сделанные в обход приложения, в индекс не попадают до перезапуска.
+ * Поиск выполняется под блокировкой чтения, изменения - под блокировкой записи
+ * {@link ReentrantReadWriteLock}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderSearchIndex {
+
+    private static final int NOT_FOUND = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, IntPostingList> postings = new TreeMap<>();
+    private final IntIntHashMap slots = new IntIntHashMap(1024);
+
+    private String[] products = new String[1024];
+    private int[] userIds = new int[1024];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    /**
+     * Добавляет заказ в индекс или заменяет его прежнее состояние.
+     *
+     * @param orderId идентификатор заказа
+     * @param product название товара
+     * @param userId идентификатор владельца
+     */
+    public void put(int orderId, String product, int userId) {
+        if (orderId <= 0 || product == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slots.get(orderId, NOT_FOUND);
+            if (slot == NOT_FOUND) {
+                slot = allocateSlot();
+                slots.put(orderId, slot);
+            } else {
+                if (product.equals(products[slot])) {
+                    userIds[slot] = userId;
+                    return;
+                }
+                unindex(orderId, products[slot]);
+            }
+            products[slot] = product;
+            userIds[slot] = userId;
+            for (String token : tokens(product)) {
+                postings.computeIfAbsent(token, key -> new IntPostingList()).add(orderId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет заказ из индекса.
+     *
+     * @param orderId идентификатор заказа
+     */
+    public void remove(int orderId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slots.remove(orderId, NOT_FOUND);
+            if (slot == NOT_FOUND) {
+                return;
+            }
+            unindex(orderId, products[slot]);
+            products[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет все заказы из индекса.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slots.clear();
+            Arrays.fill(products, null);
+            freeCount = 0;
+            slotCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет заказы, название товара которых содержит слова, начинающиеся со всех слов запроса.
+     *
+     * @param query строка запроса
+     * @param userId идентификатор владельца или {@code 0} для заказов всех пользователей
+     * @param afterId идентификатор, после которого начинается страница, {@code 0} для первой страницы
+     * @param limit максимальное число заказов
+     * @return найденные заказы в порядке возрастания идентификатора
+     */
+    public List<Order> search(String query, int userId, int afterId, int limit) {
+        List<String> words = tokens(query);
+        List<Order> result = new ArrayList<>(Math.min(limit, 64));
+        if (words.isEmpty() || limit <= 0) {
+            return result;
+        }
+        if (afterId == Integer.MAX_VALUE) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            PrefixCursor[] cursors = new PrefixCursor[words.size()];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = prefixCursor(words.get(i), afterId);
+            }
+            int candidate = afterId + 1;
+            while (result.size() < limit) {
+                int orderId = cursors[0].seek(candidate);
+                if (orderId == PrefixCursor.EXHAUSTED) {
+                    return result;
+                }
+                candidate = orderId;
+                for (int i = 1; i < cursors.length && candidate == orderId; i++) {
+                    candidate = cursors[i].seek(orderId);
+                    if (candidate == PrefixCursor.EXHAUSTED) {
+                        return result;
+                    }
+                }
+                if (candidate != orderId) {
+                    continue;
+                }
+                int slot = slots.get(orderId, NOT_FOUND);
+                if (userId == 0 || userIds[slot] == userId) {
+                    result.add(new Order(orderId, products[slot], userIds[slot]));
+                }
+                if (orderId == Integer.MAX_VALUE) {
+                    return result;
+                }
+                candidate = orderId + 1;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает число заказов в индексе.
+     *
+     * @return число заказов
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает число различных лексем в индексе.
+     *
+     * @return число лексем
+     */
+    public int tokenCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Создает курсор по спискам всех лексем с указанным префиксом, начиная после {@code afterId}.
+     */
+    private PrefixCursor prefixCursor(String prefix, int afterId) {
+        return new PrefixCursor(postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values(), afterId);
+    }
+
+    private void unindex(int orderId, String product) {
+        for (String token : tokens(product)) {
+            IntPostingList list = postings.get(token);
+            if (list != null) {
+                list.remove(orderId);
+                if (list.size() == 0) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == products.length) {
+            products = Arrays.copyOf(products, slotCount << 1);
+            userIds = Arrays.copyOf(userIds, slotCount << 1);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Разбивает текст на лексемы: последовательности букв и цифр в нижнем регистре.
+     *
+     * @param text текст
+     * @return лексемы без повторов в порядке появления
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>(4);
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.rest.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Класс {@code PrefixCursor} перебирает по возрастанию идентификаторы заказов из нескольких списков
+ * {@link IntPostingList} (всех лексем с одним префиксом) без их объединения в общий массив.
+ * <p>
+ * Списки сливаются через двоичную кучу по текущему элементу каждого списка (k-путевое слияние);
+ * {@link #seek(int)} сдвигает отстающие списки двоичным поиском, поэтому страница поиска стоит
+ * {@code O(k log n)} на начальное позиционирование и {@code O(log k)} на каждый просмотренный
+ * идентификатор, а не сортировку всех совпадений. Идентификатор, входящий в несколько списков,
+ * возвращается один раз. Курсор читает массивы списков напрямую и используется только
+ * под блокировкой чтения {@link OrderSearchIndex}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class PrefixCursor {
+
+    /**
+     * Значение {@link #seek(int)}, когда подходящих идентификаторов больше нет.
+     */
+    static final int EXHAUSTED = -1;
+
+    private final int[][] lists;
+    private final int[] sizes;
+    private final int[] positions;
+    private final int[] heap;
+    private int heapSize;
+
+    /**
+     * Создает курсор, установленный на первый идентификатор больше {@code afterId}.
+     *
+     * @param postingLists списки лексем с общим префиксом
+     * @param afterId идентификатор, после которого начинается перебор
+     */
+    PrefixCursor(Collection<IntPostingList> postingLists, int afterId) {
+        int count = postingLists.size();
+        lists = new int[count][];
+        sizes = new int[count];
+        positions = new int[count];
+        heap = new int[count];
+        int i = 0;
+        for (IntPostingList list : postingLists) {
+            lists[i] = list.ids();
+            sizes[i] = list.size();
+            positions[i] = lowerBound(lists[i], 0, sizes[i], afterId + 1);
+            if (positions[i] < sizes[i]) {
+                heap[heapSize++] = i;
+            }
+            i++;
+        }
+        for (int node = (heapSize >>> 1) - 1; node >= 0; node--) {
+            siftDown(node);
+        }
+    }
+
+    /**
+     * Возвращает наименьший идентификатор, не меньший {@code target}; идентификаторы меньше {@code target}
+     * пропускаются и больше не возвращаются.
+     *
+     * @param target нижняя граница
+     * @return идентификатор или {@link #EXHAUSTED}
+     */
+    int seek(int target) {
+        while (heapSize > 0) {
+            int list = heap[0];
+            if (lists[list][positions[list]] >= target) {
+                return lists[list][positions[list]];
+            }
+            positions[list] = lowerBound(lists[list], positions[list] + 1, sizes[list], target);
+            if (positions[list] == sizes[list]) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(0);
+        }
+        return EXHAUSTED;
+    }
+
+    private int current(int list) {
+        return lists[list][positions[list]];
+    }
+
+    private void siftDown(int node) {
+        if (heapSize == 0) {
+            return;
+        }
+        int list = heap[node];
+        int value = current(list);
+        while (true) {
+            int child = (node << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && current(heap[child + 1]) < current(heap[child])) {
+                child++;
+            }
+            if (current(heap[child]) >= value) {
+                break;
+            }
+            heap[node] = heap[child];
+            node = child;
+        }
+        heap[node] = list;
+    }
+
+    /**
+     * Возвращает позицию первого элемента, не меньшего {@code target}, в отсортированном диапазоне без повторов.
+     */
+    private static int lowerBound(int[] ids, int from, int to, int target) {
+        if (from >= to) {
+            return to;
+        }
+        int position = Arrays.binarySearch(ids, from, to, target);
+        return position >= 0 ? position : -position - 1;
+    }
+}
@@ -0,0 +1,228 @@
+package ru.rest.serverHandler;
+
+import ru.rest.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code AdaptiveConcurrencyLimiter} ограничивает число одновременно обрабатываемых запросов
+ * и подбирает это число по задержке базы данных (AIMD).
+ * <p>
+ * Запрос сверх лимита ждет в ограниченной очереди не дольше {@code queueTimeoutMs}; если очередь заполнена,
+ * он отклоняется сразу. Раз в окно {@code windowMs} лимит пересчитывается по средней задержке обращений к базе
+ * данных за окно (ожидание подключения плюс его удержание, из переданных гистограмм): выше
+ * {@code targetLatencyMs} лимит умножается на {@code backoff}, иначе, если за окно лимит был исчерпан,
+ * увеличивается на единицу. Так лимит держится около числа запросов, которое база обслуживает без очереди
+ * за подключениями, а лишние запросы получают быстрый отказ вместо ожидания в пуле подключений.
+ * Окна без обращений к базе данных лимит не уменьшают.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final long targetLatencyNanos;
+    private final long windowNanos;
+    private final double backoff;
+    private final LatencyHistogram[] latencies;
+    private final long[] lastCounts;
+    private final long[] lastSums;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final LongAdder queueFull = new LongAdder();
+    private final LongAdder queueTimeouts = new LongAdder();
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int queued;
+    private volatile long lastLatencyNanos;
+    private boolean saturated;
+    private long windowStart = System.nanoTime();
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param initialLimit начальный лимит
+     * @param minLimit наименьший лимит
+     * @param maxLimit наибольший лимит
+     * @param maxQueue наибольшее число ожидающих запросов
+     * @param queueTimeoutMs наибольшее время ожидания в очереди
+     * @param targetLatencyMs допустимая средняя задержка обращения к базе данных
+     * @param windowMs длина окна пересчета лимита
+     * @param backoff множитель уменьшения лимита в диапазоне {@code (0, 1)}
+     * @param latencies гистограммы, сумма средних значений которых за окно считается задержкой базы данных
+     */
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, long queueTimeoutMs,
+                               long targetLatencyMs, long windowMs, double backoff, LatencyHistogram... latencies) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, windowMs));
+        this.backoff = backoff;
+        this.latencies = latencies;
+        this.lastCounts = new long[latencies.length];
+        this.lastSums = new long[latencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            lastCounts[i] = latencies[i].count();
+            lastSums[i] = latencies[i].sumNanos();
+        }
+    }
+
+    /**
+     * Занимает место для запроса, при необходимости дожидаясь его в очереди.
+     *
+     * @return {@code true}, если запрос допущен; тогда после обработки нужно вызвать {@link #release()}
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                admit();
+                return true;
+            }
+            saturated = true;
+            if (queued >= maxQueue) {
+                queueFull.increment();
+                return false;
+            }
+            queued++;
+            try {
+                long nanos = queueTimeoutNanos;
+                while (inFlight >= limit) {
+                    if (nanos <= 0) {
+                        queueTimeouts.increment();
+                        return false;
+                    }
+                    nanos = released.awaitNanos(nanos);
+                }
+                admit();
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место, занятое {@link #acquire()}, и в конце окна пересчитывает лимит.
+     */
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = System.nanoTime();
+            if (now - windowStart >= windowNanos) {
+                adjust();
+                windowStart = now;
+            }
+            if (inFlight < limit) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void admit() {
+        inFlight++;
+        if (inFlight >= limit) {
+            saturated = true;
+        }
+    }
+
+    /**
+     * Пересчитывает лимит по задержке базы данных за окно. Вызывается под блокировкой.
+     */
+    private void adjust() {
+        long latency = 0;
+        boolean sampled = false;
+        for (int i = 0; i < latencies.length; i++) {
+            long count = latencies[i].count();
+            long sum = latencies[i].sumNanos();
+            long windowCount = count - lastCounts[i];
+            if (windowCount > 0) {
+                latency += (sum - lastSums[i]) / windowCount;
+                sampled = true;
+            }
+            lastCounts[i] = count;
+            lastSums[i] = sum;
+        }
+        if (sampled) {
+            lastLatencyNanos = latency;
+        }
+        if (sampled && latency > targetLatencyNanos) {
+            limit = Math.max(minLimit, Math.min(limit - 1, (int) (limit * backoff)));
+        } else if (saturated && limit < maxLimit) {
+            limit++;
+            released.signal();
+        }
+        saturated = false;
+    }
+
+    /**
+     * Возвращает текущий лимит.
+     *
+     * @return лимит одновременных запросов
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Возвращает число обрабатываемых запросов.
+     *
+     * @return число допущенных и еще не завершенных запросов
+     */
+    int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Возвращает число запросов в очереди.
+     *
+     * @return число ожидающих запросов
+     */
+    int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Возвращает среднюю задержку базы данных за последнее окно с обращениями к ней.
+     *
+     * @return задержка в наносекундах
+     */
+    long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * Возвращает число запросов, отклоненных из-за заполненной очереди.
+     *
+     * @return число отказов
+     */
+    long getQueueFull() {
+        return queueFull.sum();
+    }
+
+    /**
+     * Возвращает число запросов, не дождавшихся места в очереди.
+     *
+     * @return число отказов
+     */
+    long getQueueTimeouts() {
+        return queueTimeouts.sum();
+    }
+}
@@ -0,0 +1,256 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.metrics.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Фильтр {@code AdmissionFilter} решает, принимать ли запрос в обработку, до выбора маршрута.
+ * <p>
+ * Сначала проверяется частота запросов клиента ({@link ClientRateLimiter}): клиент определяется заголовком
+ * {@value #API_KEY_HEADER}, только если ключ входит в настроенные {@code apiKeys}, а иначе - IP-адресом
+ * подключения; превысивший частоту клиент получает {@code 429} с {@code Retry-After} и не расходует ресурсы
+ * остальных. Неизвестный ключ игнорируется, поэтому произвольными ключами нельзя ни обойти ограничение,
+ * ни вытеснить корзины других клиентов. Заголовок {@value #FORWARDED_FOR_HEADER} учитывается, только если
+ * подключение пришло с адреса из {@code trustedProxies}: клиентом считается крайний справа адрес цепочки,
+ * не являющийся доверенным прокси. Затем запрос занимает место в
+ * {@link AdaptiveConcurrencyLimiter}, лимит которого следует за задержкой базы данных; если место не
+ * освободилось за {@code queueTimeoutMs} или очередь заполнена, запрос сразу получает {@code 503}.
+ * Служебные маршруты ({@code exemptPaths}) и длительные подписки {@code /orders/stream} проверки не проходят.
+ * <p>
+ * Фильтр ставится сразу после {@link MetricsFilter}, чтобы отказы попадали в счетчики ответов; маршрут
+ * к этому моменту еще не выбран, поэтому они учитываются под маршрутом {@value MetricsFilter#UNMATCHED}.
+ * С исполнителем {@link ExecutorStrategy#FIXED} запрос доходит до фильтра уже в потоке пула, поэтому перед
+ * фильтром очередь пула ограничивается свойством {@code server.queueCapacity}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class AdmissionFilter extends Filter {
+
+    static final String API_KEY_HEADER = "X-API-Key";
+    static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    /**
+     * Настройки допуска запросов.
+     *
+     * @param enabled включен ли фильтр
+     * @param ratePerSecond допустимая частота запросов одного клиента; {@code 0} отключает ограничение частоты
+     * @param burst число запросов, которое клиент может отправить подряд
+     * @param maxClients число клиентов, сверх которого неактивные корзины удаляются досрочно
+     * @param initialLimit начальный лимит одновременных запросов; {@code 0} отключает ограничение
+     * @param minLimit наименьший лимит одновременных запросов
+     * @param maxLimit наибольший лимит одновременных запросов
+     * @param maxQueue наибольшее число запросов, ожидающих места
+     * @param queueTimeoutMs наибольшее время ожидания места
+     * @param targetLatencyMs допустимая средняя задержка обращения к базе данных
+     * @param windowMs длина окна пересчета лимита
+     * @param backoff множитель уменьшения лимита при превышении задержки
+     * @param exemptPaths префиксы путей, которые не проходят проверки
+     * @param apiKeys ключи {@value #API_KEY_HEADER}, по которым клиенты учитываются отдельно от своего адреса
+     * @param trustedProxies адреса прокси, которым доверяется заголовок {@value #FORWARDED_FOR_HEADER}
+     */
+    public record Settings(boolean enabled, double ratePerSecond, int burst, int maxClients,
+                           int initialLimit, int minLimit, int maxLimit, int maxQueue, long queueTimeoutMs,
+                           long targetLatencyMs, long windowMs, double backoff, List<String> exemptPaths,
+                           Set<String> apiKeys, Set<String> trustedProxies) {
+
+        /**
+         * Читает настройки из системных свойств {@code server.admission.*}.
+         *
+         * @return настройки
+         */
+        public static Settings fromSystemProperties() {
+            double rate = Double.parseDouble(System.getProperty("server.admission.ratePerSecond", "200"));
+            return new Settings(
+                    Boolean.parseBoolean(System.getProperty("server.admission.enabled", "true")),
+                    rate,
+                    Integer.getInteger("server.admission.burst", (int) Math.max(1, rate * 2)),
+                    Integer.getInteger("server.admission.maxClients", 10_000),
+                    Integer.getInteger("server.admission.initialLimit", 20),
+                    Integer.getInteger("server.admission.minLimit", 2),
+                    Integer.getInteger("server.admission.maxLimit", 200),
+                    Integer.getInteger("server.admission.maxQueue", 100),
+                    Long.getLong("server.admission.queueTimeoutMs", 100L),
+                    Long.getLong("server.admission.targetLatencyMs", 50L),
+                    Long.getLong("server.admission.windowMs", 100L),
+                    Double.parseDouble(System.getProperty("server.admission.backoff", "0.9")),
+                    List.of(System.getProperty("server.admission.exemptPaths", "/health,/metrics,/orders/stream")
+                            .trim().split("\\s*,\\s*")),
+                    commaSeparated(System.getProperty("server.admission.apiKeys", "")),
+                    commaSeparated(System.getProperty("server.admission.trustedProxies", "")));
+        }
+
+        private static Set<String> commaSeparated(String value) {
+            return Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(item -> !item.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    private final List<String> exemptPaths;
+    private final Set<String> apiKeys;
+    private final Set<String> trustedProxies;
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final LongAdder rateLimited = new LongAdder();
+
+    /**
+     * Создает фильтр.
+     *
+     * @param settings настройки допуска запросов
+     */
+    public AdmissionFilter(Settings settings) {
+        this.exemptPaths = settings.exemptPaths().stream().filter(path -> !path.isEmpty()).toList();
+        this.apiKeys = settings.apiKeys();
+        this.trustedProxies = settings.trustedProxies();
+        this.rateLimiter = settings.ratePerSecond() > 0
+                ? new ClientRateLimiter(settings.ratePerSecond(), settings.burst(), settings.maxClients())
+                : null;
+        this.concurrencyLimiter = settings.initialLimit() > 0
+                ? new AdaptiveConcurrencyLimiter(settings.initialLimit(), settings.minLimit(), settings.maxLimit(),
+                        settings.maxQueue(), settings.queueTimeoutMs(), settings.targetLatencyMs(),
+                        settings.windowMs(), settings.backoff(), Metrics.DB_ACQUIRE_TIME, Metrics.DB_TIME)
+                : null;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (isExempt(exchange.getRequestURI().getPath())) {
+            chain.doFilter(exchange);
+            return;
+        }
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(clientKey(exchange), System.nanoTime());
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                exchange.getResponseHeaders().add("Retry-After", Long.toString(retryAfter));
+                sendTextResponse(exchange, 429, "Too many requests");
+                return;
+            }
+        }
+        if (concurrencyLimiter == null) {
+            chain.doFilter(exchange);
+            return;
+        }
+        boolean admitted;
+        try {
+            admitted = concurrencyLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            sendTextResponse(exchange, 503, "Server is overloaded");
+            return;
+        }
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * Записывает показатели допуска запросов в формате Prometheus.
+     *
+     * @param out буфер вывода
+     */
+    public void writeMetrics(StringBuilder out) {
+        if (rateLimiter != null) {
+            Metrics.writeCounter(out, "http_admission_rate_limited_total",
+                    "Requests rejected with 429 by the per-client rate limit.", rateLimited.sum());
+            Metrics.writeGauge(out, "http_admission_rate_limit_clients", "Clients with a tracked token bucket.",
+                    rateLimiter.size());
+        }
+        if (concurrencyLimiter != null) {
+            Metrics.writeGauge(out, "http_admission_limit", "Current adaptive concurrency limit.",
+                    concurrencyLimiter.getLimit());
+            Metrics.writeGauge(out, "http_admission_in_flight", "Requests admitted by the concurrency limit.",
+                    concurrencyLimiter.getInFlight());
+            Metrics.writeGauge(out, "http_admission_queued", "Requests waiting for the concurrency limit.",
+                    concurrencyLimiter.getQueued());
+            Metrics.writeGauge(out, "http_admission_db_latency_microseconds",
+                    "Mean database latency in the last window that used the database.",
+                    TimeUnit.NANOSECONDS.toMicros(concurrencyLimiter.getLastLatencyNanos()));
+            Metrics.writeCounter(out, "http_admission_queue_full_total",
+                    "Requests rejected with 503 because the admission queue was full.", concurrencyLimiter.getQueueFull());
+            Metrics.writeCounter(out, "http_admission_queue_timeout_total",
+                    "Requests rejected with 503 after waiting queueTimeoutMs.", concurrencyLimiter.getQueueTimeouts());
+        }
+    }
+
+    private boolean isExempt(String path) {
+        for (String prefix : exemptPaths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Определяет ключ клиента: проверенный {@value #API_KEY_HEADER}, иначе адрес клиента.
+     */
+    private String clientKey(HttpExchange exchange) {
+        if (!apiKeys.isEmpty()) {
+            String apiKey = exchange.getRequestHeaders().getFirst(API_KEY_HEADER);
+            if (apiKey != null && apiKeys.contains(apiKey)) {
+                return "key:" + apiKey;
+            }
+        }
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        if (remote == null || remote.getAddress() == null) {
+            return "unknown";
+        }
+        String address = remote.getAddress().getHostAddress();
+        if (!trustedProxies.contains(address)) {
+            return address;
+        }
+        List<String> forwarded = exchange.getRequestHeaders().get(FORWARDED_FOR_HEADER);
+        if (forwarded == null) {
+            return address;
+        }
+        // Адреса дописываются каждым прокси справа, поэтому доверять можно только хвосту цепочки
+        // до первого адреса, который добавлен не доверенным прокси
+        for (int i = forwarded.size() - 1; i >= 0; i--) {
+            String[] hops = forwarded.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                String hop = hops[j].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                if (!trustedProxies.contains(hop)) {
+                    return hop;
+                }
+                address = hop;
+            }
+        }
+        return address;
+    }
+
+    private static void sendTextResponse(HttpExchange exchange, int status, String message) throws IOException {
+        exchange.sendResponseHeaders(status, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(message.getBytes());
+        }
+    }
+
+    @Override
+    public String description() {
+        return "admission control";
+    }
+}
@@ -0,0 +1,105 @@
+package ru.rest.serverHandler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code ClientRateLimiter} ограничивает частоту запросов каждого клиента маркерной корзиной.
+ * <p>
+ * Корзина хранится как одно число - теоретическое время прибытия следующего запроса (алгоритм GCRA):
+ * каждый запрос сдвигает его на интервал между маркерами, а запрос отклоняется, если оно ушло вперед
+ * текущего времени больше чем на емкость корзины. Пополнение не требует ни отдельного потока, ни блокировки:
+ * состояние меняется одним {@code compareAndSet}. Корзины клиентов хранятся в {@link ConcurrentHashMap}, поэтому
+ * запросы разных клиентов не проходят через общую блокировку.
+ * <p>
+ * Корзина, время прибытия которой уже наступило, полна и ничем не отличается от отсутствующей, поэтому такие
+ * корзины удаляются: раз в интервал пополнения всей корзины (не реже раза в секунду) и досрочно, если клиентов
+ * больше {@code maxClients}. Так в памяти остаются только клиенты, активные в последнем интервале. Удаление
+ * выполняет один поток ({@link ReentrantLock#tryLock()}), остальные его не ждут. Запрос, успевший взять
+ * удаляемую корзину, списывает маркер с нее, и клиент однажды получает не больше одного лишнего запроса.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class ClientRateLimiter {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxClients;
+    private final long sweepIntervalNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private volatile long lastSweep = System.nanoTime();
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param ratePerSecond скорость пополнения корзины в запросах в секунду
+     * @param burst емкость корзины: сколько запросов клиент может отправить подряд
+     * @param maxClients число клиентов, сверх которого неактивные корзины удаляются досрочно
+     */
+    ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.maxClients = Math.max(1, maxClients);
+        this.sweepIntervalNanos = Math.max(capacityNanos, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Забирает маркер из корзины клиента.
+     *
+     * @param client ключ клиента
+     * @param now текущее время {@link System#nanoTime()}
+     * @return {@code 0}, если запрос допущен, иначе время до появления маркера в наносекундах
+     */
+    long tryAcquire(String client, long now) {
+        AtomicLong bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        long waitNanos = take(bucket, now);
+        // Удаление после списания маркера: корзина этого клиента уже не полна и не будет удалена
+        long sinceSweep = now - lastSweep;
+        if (sinceSweep >= sweepIntervalNanos
+                || (sinceSweep >= sweepIntervalNanos >> 4 && buckets.size() > maxClients)) {
+            sweep(now);
+        }
+        return waitNanos;
+    }
+
+    private long take(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival - now, 0) + intervalNanos;
+            if (next > capacityNanos) {
+                return next - capacityNanos;
+            }
+            if (bucket.compareAndSet(arrival, now + next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удаляет полные корзины, если удаление не выполняет другой поток.
+     */
+    private void sweep(long now) {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            lastSweep = now;
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает число запоминаемых клиентов.
+     *
+     * @return число корзин
+     */
+    int size() {
+        return buckets.size();
+    }
+}
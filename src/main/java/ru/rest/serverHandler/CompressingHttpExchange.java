@@ -0,0 +1,83 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Класс {@code CompressingHttpExchange} сжимает тело ответа выбранным {@link ContentEncoding}.
+ * <p>
+ * Решение о сжатии принимается в {@link #sendResponseHeaders(int, long)}: сжатый ответ всегда
+ * передается с chunked-кодированием, так как его итоговая длина заранее неизвестна.
+ * Потоки Server-Sent Events ({@code text/event-stream}) не сжимаются. Ответы без тела (1xx, 204, 304,
+ * ответы на {@code HEAD} и ответы с длиной {@code -1}) передаются как есть, без {@code Content-Encoding} и
+ * {@code Vary}: иначе 204 уходил бы с заголовком {@code Content-Encoding} и chunked-телом.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class CompressingHttpExchange extends DelegatingHttpExchange {
+
+    private final ContentEncoding encoding;
+    private final int minSize;
+    private OutputStream compressedBody;
+
+    /**
+     * Создает сжимающую обертку над HTTP-обменом.
+     *
+     * @param delegate исходный HTTP-обмен
+     * @param encoding кодирование, принятое клиентом
+     * @param minSize минимальная длина тела, начиная с которой ответ сжимается
+     */
+    CompressingHttpExchange(HttpExchange delegate, ContentEncoding encoding, int minSize) {
+        super(delegate);
+        this.encoding = encoding;
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+        if (isBodiless(rCode, responseLength)) {
+            delegate.sendResponseHeaders(rCode, responseLength);
+            return;
+        }
+        getResponseHeaders().add("Vary", "Accept-Encoding");
+        // Поток событий сжатие задержало бы до заполнения буфера компрессора
+        String contentType = getResponseHeaders().getFirst("Content-Type");
+        boolean eventStream = contentType != null && contentType.startsWith("text/event-stream");
+        boolean compress = !eventStream && (responseLength == 0 || responseLength >= minSize);
+        if (compress && !getResponseHeaders().containsKey("Content-Encoding")) {
+            getResponseHeaders().set("Content-Encoding", encoding.token());
+            delegate.sendResponseHeaders(rCode, 0);
+            compressedBody = encoding.wrap(delegate.getResponseBody());
+        } else {
+            delegate.sendResponseHeaders(rCode, responseLength);
+        }
+    }
+
+    private boolean isBodiless(int rCode, long responseLength) {
+        return responseLength < 0 || rCode < 200 || rCode == HttpURLConnection.HTTP_NO_CONTENT
+                || rCode == HttpURLConnection.HTTP_NOT_MODIFIED || "HEAD".equals(getRequestMethod());
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return compressedBody != null ? compressedBody : delegate.getResponseBody();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (compressedBody != null) {
+                compressedBody.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            delegate.close();
+        }
+    }
+}
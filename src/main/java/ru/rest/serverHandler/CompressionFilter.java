@@ -0,0 +1,107 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Фильтр {@code CompressionFilter} сжимает тела ответов алгоритмом gzip или deflate,
+ * если клиент указал поддержку в заголовке {@code Accept-Encoding}.
+ * <p>
+ * Ответы известной длины меньше порога {@code minSize} передаются без сжатия: выигрыш
+ * в размере для них не окупает затраты процессора. Ответы неизвестной длины (потоковые списки)
+ * сжимаются всегда.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CompressionFilter extends Filter {
+
+    private final int minSize;
+
+    /**
+     * Создает фильтр сжатия.
+     *
+     * @param minSize минимальная длина тела ответа в байтах, начиная с которой ответ сжимается
+     */
+    public CompressionFilter(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        ContentEncoding encoding = negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        if (encoding == null) {
+            chain.doFilter(exchange);
+            return;
+        }
+        CompressingHttpExchange compressing = new CompressingHttpExchange(exchange, encoding, minSize);
+        boolean aborted = false;
+        try {
+            chain.doFilter(compressing);
+        } catch (ResponseAbortedException e) {
+            // Завершение сжатого потока отправило бы последний блок, и ответ выглядел бы полным
+            aborted = true;
+            throw e;
+        } finally {
+            if (!aborted) {
+                compressing.close();
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "gzip/deflate response compression";
+    }
+
+    /**
+     * Выбирает кодирование ответа по заголовку {@code Accept-Encoding}.
+     * Предпочтение отдается gzip; кодирования с {@code q=0} не используются.
+     *
+     * @param acceptEncoding значение заголовка или {@code null}
+     * @return выбранное кодирование или {@code null}, если сжатие не поддерживается клиентом
+     */
+    static ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        double gzipQuality = -1;
+        double deflateQuality = -1;
+        double wildcardQuality = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzipQuality = quality;
+                case "deflate" -> deflateQuality = quality;
+                case "*" -> wildcardQuality = quality;
+                default -> {
+                }
+            }
+        }
+        if (gzipQuality < 0) {
+            gzipQuality = wildcardQuality;
+        }
+        if (deflateQuality < 0) {
+            deflateQuality = wildcardQuality;
+        }
+        if (gzipQuality <= 0 && deflateQuality <= 0) {
+            return null;
+        }
+        return gzipQuality >= deflateQuality ? ContentEncoding.GZIP : ContentEncoding.DEFLATE;
+    }
+}
@@ -0,0 +1,61 @@
+package ru.rest.serverHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Перечисление {@code ContentEncoding} описывает поддерживаемые кодирования тела ответа.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public enum ContentEncoding {
+
+    /**
+     * Формат gzip (RFC 1952).
+     */
+    GZIP("gzip") {
+        @Override
+        public OutputStream wrap(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Формат zlib (RFC 1950), который HTTP называет deflate.
+     */
+    DEFLATE("deflate") {
+        @Override
+        public OutputStream wrap(OutputStream out) {
+            return new DeflaterOutputStream(out);
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Возвращает значение для заголовка {@code Content-Encoding}.
+     *
+     * @return обозначение кодирования
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Оборачивает поток так, чтобы записываемые данные сжимались.
+     *
+     * @param out исходный поток тела ответа
+     * @return сжимающий поток; его закрытие завершает сжатие и закрывает исходный поток
+     * @throws IOException если возникнут ошибки при записи заголовка формата
+     */
+    public abstract OutputStream wrap(OutputStream out) throws IOException;
+}
@@ -1,25 +1,36 @@
 package ru.rest.serverHandler;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.Filter;
+import ru.rest.controller.HealthController;
+import ru.rest.controller.MetricsController;
 import ru.rest.controller.OrderController;
+import ru.rest.controller.OrderStatsController;
+import ru.rest.controller.OrderStreamController;
 import ru.rest.controller.UserController;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.metrics.Metrics;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Класс {@code CustomHttpServer} отвечает за создание и конфигурирование HTTP-сервера,
- * обслуживающего запросы к RESTful API приложению.
+ * обслуживающего запросы к RESTful API приложению. Сетевая часть выполняется выбранным
+ * {@link ServerEngine}; маршруты и фильтры одинаковы для всех движков.
  *
  * @author [Ваше Имя]
  * @version 1.0
  */
 public class CustomHttpServer {
-    private final HttpServer server;
+    private final ServerEngine engine;
+    private final ExecutorService executor;
+    private final MetricsFilter metricsFilter = new MetricsFilter();
+    private final AdmissionFilter admissionFilter = createAdmissionFilter();
+    private final CompressionFilter compressionFilter =
+            new CompressionFilter(Integer.getInteger("server.compression.minSize", 1024));
 
     /**
      * Создает новый экземпляр {@code CustomHttpServer} на указанном порту.
@@ -28,115 +39,130 @@ public class CustomHttpServer {
      * @throws IOException если возникнут ошибки при создании HTTP-сервера
      */
     public CustomHttpServer(int port) throws IOException {
-        server = createHttpServer(new InetSocketAddress(port), 0);
-        configureRoutes();
-        server.setExecutor(createThreadPoolExecutor());
+        this(port, ExecutorStrategy.fromSystemProperties());
     }
 
     /**
-     * Запускает HTTP-сервер.
+     * Создает новый экземпляр {@code CustomHttpServer} на указанном порту с заданной стратегией выполнения запросов.
+     *
+     * @param port порт, на котором будет запущен HTTP-сервер
+     * @param executorStrategy стратегия выполнения обработчиков запросов
+     * @throws IOException если возникнут ошибки при создании HTTP-сервера
      */
-    public void start() {
-        server.start();
+    public CustomHttpServer(int port, ExecutorStrategy executorStrategy) throws IOException {
+        this(port, executorStrategy, ServerEngineType.fromSystemProperties());
     }
 
     /**
-     * Настраивает маршруты для обработки запросов к ресурсам пользователей и заказов.
+     * Создает новый экземпляр {@code CustomHttpServer} на указанном порту с заданными стратегией
+     * выполнения запросов и сетевым движком.
+     *
+     * @param port порт, на котором будет запущен HTTP-сервер
+     * @param executorStrategy стратегия выполнения обработчиков запросов
+     * @param engineType реализация сетевой части сервера
+     * @throws IOException если возникнут ошибки при создании HTTP-сервера
      */
-    private void configureRoutes() {
-        // Маршруты для пользователей
-        server.createContext("/users", this::handleUserRequests);
-
-        // Маршруты для заказов
-        server.createContext("/orders", this::handleOrderRequests);
+    public CustomHttpServer(int port, ExecutorStrategy executorStrategy, ServerEngineType engineType) throws IOException {
+        executor = executorStrategy.create(ExecutorStrategy.threadsFromSystemProperties());
+        Metrics.registerExecutor(executor);
+        engine = engineType.create(new InetSocketAddress(port), ServerEngineType.backlogFromSystemProperties(),
+                configureRoutes(), configureFilters(), executor);
     }
 
     /**
-     * Обрабатывает запросы, связанные с пользователями.
+     * Запускает HTTP-сервер.
      *
-     * @param exchange объект, представляющий HTTP-обмен
-     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     * @throws IOException если не удалось запустить сервер
      */
-    private void handleUserRequests(HttpExchange exchange) throws IOException {
-        if ("GET".equals(exchange.getRequestMethod())) {
-            if (exchange.getRequestURI().getPath().equals("/users")) {
-                UserController.getUsers(exchange);
-            } else if (exchange.getRequestURI().getPath().matches("/users/\\d+")) {
-                int userId = Integer.parseInt(exchange.getRequestURI().getPath().substring("/users/".length()));
-                UserController.getUserById(exchange);
-            } else {
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-            }
-        } else {
-            exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-        }
-        exchange.close();
+    public void start() throws IOException {
+        engine.start();
     }
 
     /**
-     * Обрабатывает запросы, связанные с заказами.
+     * Останавливает HTTP-сервер и исполнитель запросов.
      *
-     * @param exchange объект, представляющий HTTP-обмен
-     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     * @param delaySeconds время ожидания завершения текущих запросов в секундах
      */
-    private void handleOrderRequests(HttpExchange exchange) throws IOException {
-        if ("GET".equals(exchange.getRequestMethod())) {
-            if (exchange.getRequestURI().getPath().equals("/orders")) {
-                OrderController.getOrders(exchange);
-            } else if (exchange.getRequestURI().getPath().matches("/orders/\\d+")) {
-                int orderId = Integer.parseInt(exchange.getRequestURI().getPath().substring("/orders/".length()));
-                OrderController.getOrderById(exchange);
-            } else if (exchange.getRequestURI().getPath().matches("/orders/\\d+/users")) {
-                int userId = Integer.parseInt(exchange.getRequestURI().getPath().substring("/orders/".length(), exchange.getRequestURI().getPath().lastIndexOf("/")));
-                OrderController.getOrdersByUserId(exchange);
-            } else {
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
+    public void stop(int delaySeconds) {
+        engine.stop(delaySeconds);
+        executor.shutdown();
+    }
 
-            }
-        } else if ("POST".equals(exchange.getRequestMethod())) {
-            if (exchange.getRequestURI().getPath().equals("/orders")) {
-                OrderController.createOrder(exchange);
-            } else {
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-            }
-        } else if ("PUT".equals(exchange.getRequestMethod())) {
-            if (exchange.getRequestURI().getPath().matches("/orders/\\d+")) {
-                int orderId = Integer.parseInt(exchange.getRequestURI().getPath().substring("/orders/".length()));
-                OrderController.updateOrder(exchange);
-            } else {
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-            }
-        } else if ("DELETE".equals(exchange.getRequestMethod())) {
-            if (exchange.getRequestURI().getPath().matches("/orders/\\d+")) {
-                int orderId = Integer.parseInt(exchange.getRequestURI().getPath().substring("/orders/".length()));
-                OrderController.deleteOrder(exchange);
-            } else {
-                exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-            }
-        } else {
-            exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
+    /**
+     * Создает фильтр допуска запросов и регистрирует его показатели.
+     *
+     * @return фильтр или {@code null}, если допуск запросов отключен свойством {@code server.admission.enabled}
+     */
+    private static AdmissionFilter createAdmissionFilter() {
+        AdmissionFilter.Settings settings = AdmissionFilter.Settings.fromSystemProperties();
+        if (!settings.enabled()) {
+            return null;
         }
-        exchange.close();
+        AdmissionFilter filter = new AdmissionFilter(settings);
+        Metrics.registerWriter(filter::writeMetrics);
+        return filter;
     }
 
     /**
-     * Создает новый экземпляр {@link HttpServer} на указанном адресе и порту.
+     * Собирает цепочку фильтров. Фильтр маршрутизации чтений добавляется, только если настроены реплики.
      *
-     * @param inetSocketAddress адрес и порт для запуска HTTP-сервера
-     * @param backlog размер очереди для входящих подключений
-     * @return новый экземпляр {@link HttpServer}
-     * @throws IOException если возникнут ошибки при создании HTTP-сервера
+     * @return фильтры в порядке применения
      */
-    private static HttpServer createHttpServer(InetSocketAddress inetSocketAddress, int backlog) throws IOException {
-        return HttpServer.create(inetSocketAddress, backlog);
+    private List<Filter> configureFilters() {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(metricsFilter);
+        if (admissionFilter != null) {
+            filters.add(admissionFilter);
+        }
+        if (ConnectionPool.hasReplicas()) {
+            filters.add(new ReadRoutingFilter(
+                    Long.parseLong(ConnectionPool.getProperty("db.replica.readYourWritesMs", "0")),
+                    Integer.parseInt(ConnectionPool.getProperty("db.replica.readYourWritesMaxClients", "10000"))));
+        }
+        filters.add(compressionFilter);
+        return filters;
     }
 
     /**
-     * Создает экземпляр {@link ThreadPoolExecutor} для обработки запросов к HTTP-серверу.
+     * Настраивает маршруты для обработки запросов к ресурсам пользователей и заказов.
      *
-     * @return новый экземпляр {@link ThreadPoolExecutor}
+     * @return маршрутизатор запросов
      */
-    private static ThreadPoolExecutor createThreadPoolExecutor() {
-        return (ThreadPoolExecutor) Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private Router configureRoutes() {
+        Router router = new Router();
+
+        // Маршруты для пользователей
+        router.get("/users", (exchange, parameters) -> UserController.getUsers(exchange));
+        router.post("/users", (exchange, parameters) -> UserController.createUser(exchange));
+        router.get("/users/orders", (exchange, parameters) -> OrderController.getOrdersByUserIds(exchange));
+        router.get("/users/{id}", (exchange, parameters) -> UserController.getUserById(exchange, parameters.getInt(0)));
+        router.put("/users/{id}", (exchange, parameters) -> UserController.updateUser(exchange, parameters.getInt(0)));
+        router.delete("/users/{id}", (exchange, parameters) -> UserController.deleteUser(exchange, parameters.getInt(0)));
+
+        // Маршруты для заказов
+        router.get("/orders", (exchange, parameters) -> OrderController.getOrders(exchange));
+        router.post("/orders", (exchange, parameters) -> OrderController.createOrder(exchange));
+        router.get("/orders/search", (exchange, parameters) -> OrderController.searchOrders(exchange));
+        router.get("/orders/stream", (exchange, parameters) -> OrderStreamController.streamOrderEvents(exchange));
+        router.get("/orders/stats/users", (exchange, parameters) -> OrderStatsController.getUserOrderCounts(exchange));
+        router.get("/orders/stats/products", (exchange, parameters) -> OrderStatsController.getTopProducts(exchange));
+        router.get("/orders/stats/histogram", (exchange, parameters) -> OrderStatsController.getUserHistogram(exchange));
+        router.get("/orders/{id}", (exchange, parameters) -> OrderController.getOrderById(exchange, parameters.getInt(0)));
+        router.put("/orders/{id}", (exchange, parameters) -> OrderController.updateOrder(exchange, parameters.getInt(0)));
+        router.delete("/orders/{id}", (exchange, parameters) -> OrderController.deleteOrder(exchange, parameters.getInt(0)));
+        router.post("/orders/batch", (exchange, parameters) -> OrderController.createOrders(exchange));
+        router.put("/orders/batch", (exchange, parameters) -> OrderController.updateOrders(exchange));
+        router.delete("/orders/batch", (exchange, parameters) -> OrderController.deleteOrders(exchange));
+        router.get("/orders/{id}/users",
+                (exchange, parameters) -> OrderController.getOrdersByUserId(exchange, parameters.getInt(0)));
+
+        // Служебные маршруты
+        router.get("/metrics", (exchange, parameters) -> MetricsController.getPrometheusMetrics(exchange));
+        router.get("/metrics/pool", (exchange, parameters) -> MetricsController.getPoolStats(exchange));
+        router.get("/metrics/cache", (exchange, parameters) -> MetricsController.getCacheStats(exchange));
+        router.get("/health/ready", (exchange, parameters) -> HealthController.getReadiness(exchange));
+        router.get("/health/live", (exchange, parameters) -> HealthController.getLiveness(exchange));
+
+        return router;
     }
 }
@@ -0,0 +1,70 @@
+package ru.rest.serverHandler;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Класс {@code DirectBufferPool} переиспользует прямые буферы одного размера.
+ * <p>
+ * Выделение и освобождение прямой памяти обходится значительно дороже, чем выделение массива
+ * в куче, поэтому буферы ответов возвращаются в пул после отправки. Пул хранит не более
+ * {@code maxPooled} свободных буферов; лишние освобождаются сборщиком мусора.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class DirectBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Создает пул.
+     *
+     * @param bufferSize размер буфера в байтах
+     * @param maxPooled максимальное число свободных буферов в пуле
+     */
+    DirectBufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Возвращает очищенный буфер из пула или новый буфер, если пул пуст.
+     *
+     * @return прямой буфер размером {@link #bufferSize()}
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Возвращает буфер в пул. Буферы, выделенные не этим пулом, игнорируются.
+     *
+     * @param buffer буфер, который больше не используется
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferSize && pooled.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else if (buffer.isDirect() && buffer.capacity() == bufferSize) {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /**
+     * Возвращает размер буферов пула.
+     *
+     * @return размер буфера в байтах
+     */
+    int bufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.rest.serverHandler;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Перечисление {@code ExecutorStrategy} описывает способы выполнения обработчиков HTTP-запросов.
+ * Стратегия выбирается системным свойством {@code server.executor}, размер пула платформенных
+ * потоков задается свойством {@code server.threads}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public enum ExecutorStrategy {
+
+    /**
+     * Отдельный виртуальный поток на каждый запрос. Блокирующий JDBC не занимает потоки ОС,
+     * поэтому число одновременно обрабатываемых запросов ограничивается только лимитом на базу данных.
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService create(int threads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory());
+        }
+    },
+
+    /**
+     * Ограниченный пул платформенных потоков фиксированного размера. Очередь пула ограничена свойством
+     * {@code server.queueCapacity}: запрос сверх нее отклоняется сразу, и сервер закрывает подключение,
+     * вместо того чтобы копить очередь, задержку которой ощущают все клиенты.
+     */
+    FIXED {
+        @Override
+        public ExecutorService create(int threads) {
+            int capacity = queueCapacityFromSystemProperties();
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    capacity > 0 ? new LinkedBlockingQueue<>(capacity) : new LinkedBlockingQueue<>(),
+                    namedThreadFactory("http-worker-"));
+        }
+    },
+
+    /**
+     * Пул с перехватом задач ({@link java.util.concurrent.ForkJoinPool}) заданного уровня параллелизма.
+     */
+    WORK_STEALING {
+        @Override
+        public ExecutorService create(int threads) {
+            return Executors.newWorkStealingPool(threads);
+        }
+    };
+
+    /**
+     * Создает исполнитель для обработки запросов.
+     *
+     * @param threads число платформенных потоков (не используется для {@link #VIRTUAL})
+     * @return новый исполнитель
+     */
+    public abstract ExecutorService create(int threads);
+
+    /**
+     * Возвращает стратегию, заданную системным свойством {@code server.executor}.
+     *
+     * @return выбранная стратегия, по умолчанию {@link #VIRTUAL}
+     */
+    public static ExecutorStrategy fromSystemProperties() {
+        return valueOf(System.getProperty("server.executor", VIRTUAL.name()).trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Возвращает число потоков, заданное системным свойством {@code server.threads}.
+     *
+     * @return число потоков, по умолчанию равное числу процессоров
+     */
+    public static int threadsFromSystemProperties() {
+        return Integer.getInteger("server.threads", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Возвращает емкость очереди пула {@link #FIXED}, заданную системным свойством {@code server.queueCapacity}.
+     *
+     * @return емкость очереди; {@code 0} означает неограниченную очередь
+     */
+    public static int queueCapacityFromSystemProperties() {
+        return Integer.getInteger("server.queueCapacity", 1024);
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, prefix + counter.getAndIncrement());
+    }
+}
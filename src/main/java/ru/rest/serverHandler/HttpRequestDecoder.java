@@ -0,0 +1,303 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Headers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Класс {@code HttpRequestDecoder} по частям разбирает запросы HTTP/1.x из входного буфера подключения.
+ * <p>
+ * Заголовки разбираются прямо из буфера (обычно прямого {@link ByteBuffer}) и должны в нем уместиться.
+ * Тело запроса с {@code Content-Length} или {@code Transfer-Encoding: chunked} копируется в массив
+ * по мере поступления данных, поэтому его размер ограничен только {@code maxBodySize}. Запрос с обоими
+ * заголовками, с несколькими значениями {@code Content-Length} или с кодированием передачи, отличным от
+ * одного {@code chunked}, отклоняется с кодом 400 и закрытием подключения: такие запросы прокси и сервер
+ * могут разделить по-разному (request smuggling).
+ * Декодер хранит состояние между вызовами и после выдачи запроса готов к разбору следующего,
+ * что позволяет обрабатывать конвейерные запросы из одного буфера.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class HttpRequestDecoder {
+
+    private static final int MAX_CHUNK_LINE = 1024;
+
+    private enum State { HEADERS, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS }
+
+    private final long maxBodySize;
+
+    private State state = State.HEADERS;
+    private String method;
+    private URI uri;
+    private String protocol;
+    private Headers headers;
+    private byte[] body;
+    private int bodyPosition;
+    private ByteArrayOutputStream chunkedBody;
+    private long chunkRemaining;
+    private boolean expectContinue;
+
+    /**
+     * Создает декодер.
+     *
+     * @param maxBodySize максимальный размер тела запроса в байтах
+     */
+    HttpRequestDecoder(long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Разбирает данные между позицией и границей буфера, сдвигая позицию на разобранные байты.
+     *
+     * @param in входной буфер в режиме чтения
+     * @return разобранный запрос или {@code null}, если данных пока недостаточно
+     * @throws HttpDecodeException если запрос некорректен или превышает ограничения
+     */
+    NioRequest decode(ByteBuffer in) throws HttpDecodeException {
+        while (true) {
+            switch (state) {
+                case HEADERS -> {
+                    if (!decodeHeaders(in)) {
+                        return null;
+                    }
+                }
+                case BODY -> {
+                    int count = Math.min(in.remaining(), body.length - bodyPosition);
+                    in.get(body, bodyPosition, count);
+                    bodyPosition += count;
+                    if (bodyPosition < body.length) {
+                        return null;
+                    }
+                    return complete(body);
+                }
+                case CHUNK_SIZE -> {
+                    String line = readLine(in);
+                    if (line == null) {
+                        return null;
+                    }
+                    chunkRemaining = parseChunkSize(line);
+                    if (chunkRemaining == 0) {
+                        state = State.TRAILERS;
+                    } else if (chunkedBody.size() + chunkRemaining > maxBodySize) {
+                        throw new HttpDecodeException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Request body too large");
+                    } else {
+                        state = State.CHUNK_DATA;
+                    }
+                }
+                case CHUNK_DATA -> {
+                    int count = (int) Math.min(in.remaining(), chunkRemaining);
+                    if (count == 0) {
+                        return null;
+                    }
+                    if (in.hasArray()) {
+                        chunkedBody.write(in.array(), in.arrayOffset() + in.position(), count);
+                        in.position(in.position() + count);
+                    } else {
+                        byte[] chunk = new byte[count];
+                        in.get(chunk);
+                        chunkedBody.write(chunk, 0, count);
+                    }
+                    chunkRemaining -= count;
+                    if (chunkRemaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                }
+                case CHUNK_END -> {
+                    String line = readLine(in);
+                    if (line == null) {
+                        return null;
+                    }
+                    if (!line.isEmpty()) {
+                        throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed chunk");
+                    }
+                    state = State.CHUNK_SIZE;
+                }
+                case TRAILERS -> {
+                    String line = readLine(in);
+                    if (line == null) {
+                        return null;
+                    }
+                    if (line.isEmpty()) {
+                        return complete(chunkedBody.toByteArray());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет, ждет ли клиент промежуточного ответа {@code 100 Continue} перед отправкой тела.
+     * Признак сбрасывается при чтении.
+     *
+     * @return {@code true}, если клиенту нужно отправить {@code 100 Continue}
+     */
+    boolean takeExpectContinue() {
+        boolean result = expectContinue;
+        expectContinue = false;
+        return result;
+    }
+
+    private boolean decodeHeaders(ByteBuffer in) throws HttpDecodeException {
+        // Пустые строки перед строкой запроса допускаются (RFC 9112, раздел 2.2)
+        while (in.remaining() >= 2 && in.get(in.position()) == '\r' && in.get(in.position() + 1) == '\n') {
+            in.position(in.position() + 2);
+        }
+        int start = in.position();
+        int end = indexOfHeadersEnd(in, start, in.limit());
+        if (end < 0) {
+            return false;
+        }
+        byte[] bytes = new byte[end - start];
+        in.get(bytes);
+        in.position(end + 4);
+        String[] lines = new String(bytes, StandardCharsets.ISO_8859_1).split("\r\n");
+
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || requestLine[0].isEmpty()) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed request line");
+        }
+        if (!requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_VERSION, "Unsupported protocol " + requestLine[2]);
+        }
+        method = requestLine[0];
+        protocol = requestLine[2];
+        try {
+            uri = new URI(requestLine[1]);
+        } catch (Exception e) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed request target");
+        }
+        headers = new Headers();
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i];
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed header line");
+            }
+            headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+        }
+
+        // Границу тела определяет ровно один заголовок: прокси перед сервером может выбрать другой,
+        // и остаток тела был бы принят за следующий конвейерный запрос (RFC 9112, раздел 6.3)
+        List<String> transferEncoding = headers.get("Transfer-Encoding");
+        List<String> contentLength = headers.get("Content-Length");
+        if (transferEncoding != null) {
+            if (contentLength != null) {
+                throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST,
+                        "Both Transfer-Encoding and Content-Length");
+            }
+            if (transferEncoding.size() != 1 || !"chunked".equalsIgnoreCase(transferEncoding.get(0))) {
+                throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Unsupported Transfer-Encoding");
+            }
+            chunkedBody = new ByteArrayOutputStream();
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            long length = parseContentLength(contentLength);
+            if (length > maxBodySize) {
+                throw new HttpDecodeException(HttpURLConnection.HTTP_ENTITY_TOO_LARGE, "Request body too large");
+            }
+            body = new byte[(int) length];
+            bodyPosition = 0;
+            state = State.BODY;
+        } else {
+            body = new byte[0];
+            bodyPosition = 0;
+            state = State.BODY;
+        }
+        expectContinue = "100-continue".equalsIgnoreCase(headers.getFirst("Expect"));
+        return true;
+    }
+
+    private NioRequest complete(byte[] requestBody) {
+        NioRequest request = new NioRequest(method, uri, protocol, headers, requestBody);
+        state = State.HEADERS;
+        method = null;
+        uri = null;
+        protocol = null;
+        headers = null;
+        body = null;
+        chunkedBody = null;
+        expectContinue = false;
+        return request;
+    }
+
+    private static int indexOfHeadersEnd(ByteBuffer in, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (in.get(i) == '\r' && in.get(i + 1) == '\n' && in.get(i + 2) == '\r' && in.get(i + 3) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String readLine(ByteBuffer in) throws HttpDecodeException {
+        int start = in.position();
+        for (int i = start; i + 1 < in.limit(); i++) {
+            if (in.get(i) == '\r' && in.get(i + 1) == '\n') {
+                byte[] bytes = new byte[i - start];
+                in.get(bytes);
+                in.position(i + 2);
+                return new String(bytes, StandardCharsets.ISO_8859_1);
+            }
+        }
+        if (in.remaining() > MAX_CHUNK_LINE) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Chunk line too long");
+        }
+        return null;
+    }
+
+    /**
+     * Разбирает единственное значение {@code Content-Length}: повторные и перечисленные через запятую значения
+     * отклоняются, как и все, что не является последовательностью цифр.
+     */
+    private static long parseContentLength(List<String> values) throws HttpDecodeException {
+        String value = values.size() == 1 ? values.get(0) : "";
+        if (value.isEmpty() || value.length() > 18) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed Content-Length");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed Content-Length");
+            }
+        }
+        return Long.parseLong(value);
+    }
+
+    private static long parseChunkSize(String line) throws HttpDecodeException {
+        int extension = line.indexOf(';');
+        String size = (extension < 0 ? line : line.substring(0, extension)).trim();
+        try {
+            long value = Long.parseLong(size, 16);
+            if (value < 0) {
+                throw new NumberFormatException(size);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new HttpDecodeException(HttpURLConnection.HTTP_BAD_REQUEST, "Malformed chunk size");
+        }
+    }
+
+    /**
+     * Исключение {@code HttpDecodeException} сообщает о некорректном запросе и коде ответа на него.
+     */
+    static final class HttpDecodeException extends IOException {
+
+        private final int status;
+
+        HttpDecodeException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+}
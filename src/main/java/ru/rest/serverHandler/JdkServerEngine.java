@@ -0,0 +1,66 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Класс {@code JdkServerEngine} обслуживает запросы встроенным HTTP-сервером JDK.
+ * <p>
+ * Сервер JDK по умолчанию не отключает алгоритм Нейгла и отправляет заголовки и тело ответа
+ * отдельными пакетами, поэтому на keep-alive подключении каждый ответ ждет отложенного
+ * подтверждения клиента (около 40 мс). Если свойство {@code sun.net.httpserver.nodelay}
+ * не задано явно, движок включает {@code TCP_NODELAY}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class JdkServerEngine implements ServerEngine {
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+
+    /**
+     * Создает сервер JDK и регистрирует обработчик в корневом контексте.
+     *
+     * @param address адрес и порт сервера
+     * @param backlog длина очереди входящих подключений
+     * @param handler обработчик запросов
+     * @param filters фильтры корневого контекста в порядке вызова
+     * @param executor исполнитель обработчиков запросов
+     * @throws IOException если не удалось открыть серверный сокет
+     */
+    JdkServerEngine(InetSocketAddress address, int backlog, HttpHandler handler, List<Filter> filters,
+                    Executor executor) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            // Читается сервером JDK один раз при загрузке его конфигурации, то есть до создания первого сервера
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        server = HttpServer.create(address, backlog);
+        HttpContext context = server.createContext("/", handler);
+        context.getFilters().addAll(filters);
+        server.setExecutor(executor);
+    }
+
+    @Override
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.metrics.Metrics;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Фильтр {@code MetricsFilter} измеряет время обработки каждого запроса и считает ответы
+ * по маршрутам и кодам состояния.
+ * <p>
+ * Маршрут определяется по атрибуту {@link Router#ROUTE_ATTRIBUTE}, поэтому показатели группируются
+ * по шаблону ({@code /orders/{id}}), а не по конкретному пути. Запросы, для которых обработчик
+ * не найден, учитываются под маршрутом {@value #UNMATCHED}, чтобы произвольные пути и методы
+ * не порождали новые ряды показателей. Если обработчик завершился исключением до отправки
+ * заголовков, запрос учитывается с кодом 500. Прерванный ответ ({@link ResponseAbortedException})
+ * тоже учитывается с кодом 500, хотя заголовки с кодом 200 уже отправлены: клиент получил ошибку
+ * передачи, а не успешный ответ. Фильтр должен стоять первым в цепочке: он передает
+ * дальше {@link RequestScopedHttpExchange}, через атрибуты которого маршрутизатор сообщает маршрут.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class MetricsFilter extends Filter {
+
+    static final String UNMATCHED = "unmatched";
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long started = System.nanoTime();
+        Metrics.requestStarted();
+        RequestScopedHttpExchange scoped = new RequestScopedHttpExchange(exchange);
+        boolean aborted = false;
+        try {
+            chain.doFilter(scoped);
+        } catch (ResponseAbortedException e) {
+            aborted = true;
+            throw e;
+        } finally {
+            Metrics.requestFinished();
+            long elapsed = System.nanoTime() - started;
+            int status = aborted ? HttpURLConnection.HTTP_INTERNAL_ERROR : exchange.getResponseCode();
+            Object route = scoped.getAttribute(Router.ROUTE_ATTRIBUTE);
+            Metrics.route(route == null ? "OTHER" : exchange.getRequestMethod(),
+                            route == null ? UNMATCHED : (String) route)
+                    .record(status < 0 ? HttpURLConnection.HTTP_INTERNAL_ERROR : status, elapsed);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "request metrics";
+    }
+}
@@ -0,0 +1,365 @@
+package ru.rest.serverHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Класс {@code NioConnection} - состояние одного клиентского подключения {@link NioServerEngine}.
+ * <p>
+ * Чтение и разбор запросов выполняет только поток селектора. Запросы одного подключения
+ * обрабатываются по очереди: пока обработчик работает, подключение не читается, а после
+ * завершения ответа уже прочитанные конвейерные запросы разбираются из того же буфера.
+ * Так ответы всегда уходят в порядке запросов.
+ * <p>
+ * Ответ записывают потоки обработчиков: буферы ставятся в очередь и сразу отправляются
+ * одной операцией gathering write, а то, что сокет не принял, дописывает поток селектора.
+ * Если в очереди больше {@code writeBufferLimit} байт, записывающий поток ждет, пока клиент
+ * не прочитает данные, поэтому медленный клиент не вызывает неограниченного роста памяти.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class NioConnection {
+
+    private static final int MAX_GATHER = 16;
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final NioServerEngine engine;
+    private final NioServerEngine.IoLoop loop;
+    private final SocketChannel channel;
+    private final InetSocketAddress remoteAddress;
+    private final InetSocketAddress localAddress;
+    private final DirectBufferPool bufferPool;
+    private final ByteBuffer input;
+    private final HttpRequestDecoder decoder;
+    private final long writeBufferLimit;
+    private SelectionKey key;
+    private boolean processing;
+    private long lastActivityNanos = System.nanoTime();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition drained = writeLock.newCondition();
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private long pendingBytes;
+    private boolean closeWhenDrained;
+    private volatile boolean closed;
+
+    NioConnection(NioServerEngine engine, NioServerEngine.IoLoop loop, SocketChannel channel,
+                  NioServerEngine.Settings settings, DirectBufferPool bufferPool) throws IOException {
+        this.engine = engine;
+        this.loop = loop;
+        this.channel = channel;
+        this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+        this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+        this.bufferPool = bufferPool;
+        this.input = bufferPool.acquire();
+        this.decoder = new HttpRequestDecoder(settings.maxBodySize());
+        this.writeBufferLimit = settings.writeBufferLimit();
+    }
+
+    /**
+     * Регистрирует подключение в селекторе цикла ввода-вывода. Вызывается потоком селектора.
+     *
+     * @param selector селектор цикла
+     * @throws ClosedChannelException если подключение уже закрыто
+     */
+    void register(Selector selector) throws ClosedChannelException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    NioServerEngine.IoLoop loop() {
+        return loop;
+    }
+
+    InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Читает доступные данные и разбирает запросы. Вызывается потоком селектора.
+     *
+     * @throws IOException если возникнут ошибки чтения
+     */
+    void onReadable() throws IOException {
+        int read = channel.read(input);
+        if (read < 0) {
+            close();
+            return;
+        }
+        lastActivityNanos = System.nanoTime();
+        processInput();
+    }
+
+    /**
+     * Дописывает ответ, который сокет не принял сразу. Вызывается потоком селектора.
+     *
+     * @throws IOException если возникнут ошибки записи
+     */
+    void onWritable() throws IOException {
+        writeLock.lock();
+        try {
+            if (writePending()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                if (closeWhenDrained) {
+                    close();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Продолжает работу с подключением после завершения ответа. Вызывается потоком селектора.
+     *
+     * @param keepAlive {@code true}, если подключение можно использовать для следующего запроса
+     */
+    void responseCompleted(boolean keepAlive) {
+        processing = false;
+        lastActivityNanos = System.nanoTime();
+        if (closed) {
+            return;
+        }
+        if (!keepAlive) {
+            closeAfterWrite();
+            return;
+        }
+        try {
+            processInput();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /**
+     * Проверяет, простаивает ли подключение дольше заданного времени. Вызывается потоком селектора.
+     *
+     * @param now текущее время по {@link System#nanoTime()}
+     * @param idleTimeoutNanos допустимое время простоя
+     * @return {@code true}, если подключение можно закрыть
+     */
+    boolean isIdle(long now, long idleTimeoutNanos) {
+        if (processing || now - lastActivityNanos <= idleTimeoutNanos) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            return pendingBytes == 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ставит буферы в очередь отправки и пытается сразу записать их в сокет.
+     * Если очередь превышает лимит, ждет, пока клиент прочитает данные.
+     *
+     * @param buffers буферы в режиме чтения; буферы пула возвращаются в пул после отправки
+     * @throws IOException если подключение закрыто или возникнут ошибки записи
+     */
+    void write(ByteBuffer... buffers) throws IOException {
+        writeLock.lock();
+        try {
+            if (!enqueue(buffers)) {
+                while (pendingBytes > writeBufferLimit && !closed) {
+                    if (!drained.await(engine.idleTimeoutNanos(), TimeUnit.NANOSECONDS)) {
+                        close();
+                    }
+                }
+                if (closed) {
+                    throw new ClosedChannelException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IOException("Interrupted while writing the response", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ставит буферы в очередь и пытается записать их, не дожидаясь клиента.
+     * Используется потоком селектора, который не может ждать сам себя.
+     *
+     * @return {@code true}, если очередь отправлена полностью
+     */
+    private boolean enqueue(ByteBuffer... buffers) throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                releaseAll(buffers);
+                throw new ClosedChannelException();
+            }
+            for (ByteBuffer buffer : buffers) {
+                output.add(buffer);
+                pendingBytes += buffer.remaining();
+            }
+            if (writePending()) {
+                return true;
+            }
+            loop.execute(this::enableWrite);
+            return false;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает подключение после отправки уже поставленных в очередь данных.
+     */
+    void closeAfterWrite() {
+        writeLock.lock();
+        try {
+            if (pendingBytes == 0) {
+                close();
+            } else {
+                closeWhenDrained = true;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает подключение и освобождает его буферы.
+     */
+    void close() {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ByteBuffer buffer;
+            while ((buffer = output.poll()) != null) {
+                bufferPool.release(buffer);
+            }
+            pendingBytes = 0;
+            drained.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // подключение уже разорвано
+        }
+        loop.execute(this::release);
+    }
+
+    private void release() {
+        loop.connectionClosed(this);
+        bufferPool.release(input);
+    }
+
+    private void processInput() throws IOException {
+        if (processing || closed) {
+            return;
+        }
+        input.flip();
+        NioRequest request;
+        try {
+            request = decoder.decode(input);
+            if (request == null && decoder.takeExpectContinue()) {
+                enqueue(ByteBuffer.wrap(CONTINUE));
+            }
+        } catch (HttpRequestDecoder.HttpDecodeException e) {
+            input.clear();
+            rejectRequest(e.getStatus());
+            return;
+        }
+        input.compact();
+        if (request != null) {
+            processing = true;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            engine.dispatch(this, request);
+        } else if (!input.hasRemaining()) {
+            // Заголовки не поместились в буфер подключения
+            rejectRequest(431);
+        } else {
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+        }
+    }
+
+    private void rejectRequest(int status) throws IOException {
+        processing = true;
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        String response = "HTTP/1.1 " + status + ' ' + NioHttpExchange.reasonPhrase(status)
+                + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        enqueue(ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1)));
+        closeAfterWrite();
+    }
+
+    private void enableWrite() {
+        writeLock.lock();
+        try {
+            if (!closed && pendingBytes > 0) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Записывает очередь в сокет, пока он принимает данные. Вызывается под {@link #writeLock}.
+     *
+     * @return {@code true}, если очередь опустела
+     */
+    private boolean writePending() throws IOException {
+        while (!output.isEmpty()) {
+            int count = 0;
+            for (ByteBuffer buffer : output) {
+                gather[count++] = buffer;
+                if (count == MAX_GATHER) {
+                    break;
+                }
+            }
+            long written = channel.write(gather, 0, count);
+            pendingBytes -= written;
+            if (pendingBytes <= writeBufferLimit) {
+                drained.signalAll();
+            }
+            lastActivityNanos = System.nanoTime();
+            while (!output.isEmpty() && !output.peek().hasRemaining()) {
+                bufferPool.release(output.poll());
+            }
+            Arrays.fill(gather, 0, count, null);
+            if (written == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void releaseAll(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            bufferPool.release(buffer);
+        }
+    }
+}
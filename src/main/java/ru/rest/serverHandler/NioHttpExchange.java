@@ -0,0 +1,400 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Класс {@code NioHttpExchange} представляет запрос {@link NioServerEngine} в виде {@link HttpExchange},
+ * поэтому фильтры и обработчики работают с ним так же, как с обменом встроенного сервера JDK.
+ * <p>
+ * Смысл длины в {@link #sendResponseHeaders(int, long)} тот же, что у JDK: положительное значение -
+ * тело фиксированной длины, {@code 0} - chunked-кодирование, {@code -1} - ответ без тела.
+ * Заголовки ответа записываются в начало прямого буфера тела, поэтому небольшой ответ уходит
+ * в сокет одним буфером. Атрибуты хранятся в самом обмене, а не в контексте.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class NioHttpExchange extends HttpExchange {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static volatile CachedDate cachedDate = new CachedDate(0, "");
+
+    private final NioConnection connection;
+    private final NioRequest request;
+    private final HttpContext context;
+    private final Headers responseHeaders = new Headers();
+    private final Map<String, Object> attributes = new HashMap<>(4);
+    private final ResponseBody rawResponseBody = new ResponseBody();
+    private InputStream requestBody;
+    private OutputStream responseBody = rawResponseBody;
+    private int responseCode = -1;
+    private boolean keepAlive;
+
+    NioHttpExchange(NioConnection connection, NioRequest request, HttpContext context) {
+        this.connection = connection;
+        this.request = request;
+        this.context = context;
+        this.requestBody = new ByteArrayInputStream(request.body());
+        this.keepAlive = request.keepAlive();
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return request.headers();
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return request.uri();
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return request.method();
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+
+    /**
+     * Завершает обмен. Если заголовки ответа еще не отправлены, клиент получает 500
+     * и подключение закрывается.
+     */
+    @Override
+    public void close() {
+        try {
+            requestBody.close();
+            if (responseCode < 0) {
+                keepAlive = false;
+                sendResponseHeaders(500, -1);
+            }
+            responseBody.close();
+        } catch (IOException e) {
+            keepAlive = false;
+            connection.close();
+        }
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+        if (responseCode >= 0) {
+            throw new IOException("Response headers have already been sent");
+        }
+        responseCode = rCode;
+        boolean head = "HEAD".equals(request.method());
+        boolean noContent = rCode == 204 || rCode == 304 || rCode < 200;
+        BodyMode mode;
+        if (noContent || head || responseLength < 0) {
+            mode = BodyMode.NONE;
+            if (noContent) {
+                responseHeaders.remove("Content-Length");
+            } else if (!head || responseLength > 0) {
+                responseHeaders.set("Content-Length", Long.toString(Math.max(responseLength, 0)));
+            }
+        } else if (responseLength > 0) {
+            mode = BodyMode.FIXED;
+            responseHeaders.set("Content-Length", Long.toString(responseLength));
+        } else if ("HTTP/1.0".equals(request.protocol())) {
+            // HTTP/1.0 не знает chunked-кодирования: конец тела обозначается закрытием подключения
+            mode = BodyMode.UNTIL_CLOSE;
+            keepAlive = false;
+        } else {
+            mode = BodyMode.CHUNKED;
+            responseHeaders.set("Transfer-Encoding", "chunked");
+        }
+        if (!keepAlive) {
+            responseHeaders.set("Connection", "close");
+        } else if ("HTTP/1.0".equals(request.protocol())) {
+            responseHeaders.set("Connection", "keep-alive");
+        }
+        if (!responseHeaders.containsKey("Date")) {
+            responseHeaders.set("Date", currentDate());
+        }
+        rawResponseBody.begin(mode, responseLength, encodeHead(rCode));
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.getRemoteAddress();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return connection.getLocalAddress();
+    }
+
+    @Override
+    public String getProtocol() {
+        return request.protocol();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            requestBody = i;
+        }
+        if (o != null) {
+            responseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Проверяет, можно ли использовать подключение для следующего запроса.
+     *
+     * @return {@code true}, если подключение остается открытым
+     */
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Возвращает стандартную причину для кода состояния.
+     *
+     * @param status код состояния
+     * @return текст причины или пустая строка
+     */
+    static String reasonPhrase(int status) {
+        return switch (status) {
+            case 100 -> "Continue";
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 207 -> "Multi-Status";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 409 -> "Conflict";
+            case 412 -> "Precondition Failed";
+            case 413 -> "Payload Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 503 -> "Service Unavailable";
+            case 505 -> "HTTP Version Not Supported";
+            default -> "";
+        };
+    }
+
+    private byte[] encodeHead(int rCode) {
+        StringBuilder head = new StringBuilder(256);
+        head.append("HTTP/1.1 ").append(rCode).append(' ').append(reasonPhrase(rCode)).append("\r\n");
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            for (String value : header.getValue()) {
+                head.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        head.append("\r\n");
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String currentDate() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedDate date = cachedDate;
+        if (date.second != second) {
+            date = new CachedDate(second, DATE_FORMAT.format(ZonedDateTime.now(ZoneOffset.UTC)));
+            cachedDate = date;
+        }
+        return date.value;
+    }
+
+    private record CachedDate(long second, String value) {
+    }
+
+    private enum BodyMode { NONE, FIXED, CHUNKED, UNTIL_CLOSE }
+
+    /**
+     * Поток тела ответа. Данные накапливаются в прямом буфере из пула подключения и передаются
+     * подключению при заполнении буфера, вызове {@link #flush()} и закрытии.
+     */
+    private final class ResponseBody extends OutputStream {
+
+        private BodyMode mode;
+        private long remaining;
+        private ByteBuffer head;
+        private ByteBuffer data;
+        private boolean finished;
+
+        void begin(BodyMode bodyMode, long length, byte[] headBytes) throws IOException {
+            mode = bodyMode;
+            remaining = length;
+            DirectBufferPool pool = connection.getBufferPool();
+            if (headBytes.length > pool.bufferSize()) {
+                head = ByteBuffer.wrap(headBytes);
+            } else {
+                head = pool.acquire().put(headBytes);
+                if (mode == BodyMode.FIXED || mode == BodyMode.UNTIL_CLOSE) {
+                    // Тело без кадрирования продолжает тот же буфер сразу после заголовков
+                    data = head;
+                    head = null;
+                } else {
+                    head.flip();
+                }
+            }
+            if (mode == BodyMode.NONE) {
+                send(false);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (mode == null) {
+                throw new IOException("Response headers have not been sent");
+            }
+            if (finished) {
+                throw new IOException("Response body is closed");
+            }
+            if (mode == BodyMode.NONE) {
+                if ("HEAD".equals(request.method())) {
+                    return;
+                }
+                throw new IOException("Response has no body");
+            }
+            if (mode == BodyMode.FIXED) {
+                if (length > remaining) {
+                    throw new IOException("Too many bytes for the declared Content-Length");
+                }
+                remaining -= length;
+            }
+            while (length > 0) {
+                if (data == null) {
+                    data = connection.getBufferPool().acquire();
+                }
+                int count = Math.min(length, data.remaining());
+                data.put(bytes, offset, count);
+                offset += count;
+                length -= count;
+                if (!data.hasRemaining()) {
+                    send(false);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!finished && (head != null || (data != null && data.position() > 0))) {
+                send(false);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (finished || mode == null) {
+                return;
+            }
+            finished = true;
+            send(true);
+            if (mode == BodyMode.FIXED && remaining > 0) {
+                // Тело короче объявленной длины: клиент узнает о сбое по закрытию подключения
+                keepAlive = false;
+                connection.closeAfterWrite();
+            }
+        }
+
+        /**
+         * Передает подключению заголовки и накопленные данные одной группой буферов.
+         *
+         * @param last {@code true}, если это конец тела
+         */
+        private void send(boolean last) throws IOException {
+            ByteBuffer[] buffers = new ByteBuffer[5];
+            int count = 0;
+            if (head != null) {
+                buffers[count++] = head;
+                head = null;
+            }
+            boolean hasData = data != null && data.position() > 0;
+            if (mode == BodyMode.CHUNKED) {
+                if (hasData) {
+                    buffers[count++] = ByteBuffer.wrap(
+                            (Integer.toHexString(data.position()) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    buffers[count++] = data.flip();
+                    buffers[count++] = ByteBuffer.wrap(CRLF);
+                    data = null;
+                }
+                if (last) {
+                    buffers[count++] = ByteBuffer.wrap(LAST_CHUNK);
+                }
+            } else if (hasData) {
+                buffers[count++] = data.flip();
+                data = null;
+            }
+            if (data != null && last) {
+                connection.getBufferPool().release(data);
+                data = null;
+            }
+            if (count > 0) {
+                connection.write(count == buffers.length ? buffers : Arrays.copyOf(buffers, count));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Headers;
+
+import java.net.URI;
+
+/**
+ * Запись {@code NioRequest} содержит разобранный {@link HttpRequestDecoder} запрос.
+ *
+ * @param method HTTP-метод
+ * @param uri цель запроса
+ * @param protocol версия протокола, например {@code HTTP/1.1}
+ * @param headers заголовки запроса
+ * @param body тело запроса (пустой массив, если тела нет)
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+record NioRequest(String method, URI uri, String protocol, Headers headers, byte[] body) {
+
+    /**
+     * Определяет, нужно ли сохранить подключение после ответа на этот запрос:
+     * для HTTP/1.1 - если клиент не прислал {@code Connection: close},
+     * для HTTP/1.0 - только если клиент прислал {@code Connection: keep-alive}.
+     *
+     * @return {@code true}, если подключение остается открытым
+     */
+    boolean keepAlive() {
+        String connection = headers.getFirst("Connection");
+        if ("HTTP/1.0".equals(protocol)) {
+            return connection != null && connection.equalsIgnoreCase("keep-alive");
+        }
+        return connection == null || !connection.equalsIgnoreCase("close");
+    }
+}
@@ -0,0 +1,321 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Класс {@code NioServerEngine} - неблокирующий HTTP/1.1-сервер на селекторах NIO.
+ * <p>
+ * Отдельный поток принимает подключения и распределяет их по кругу между циклами ввода-вывода,
+ * у каждого из которых свой {@link Selector}. Циклы читают запросы в прямые буферы, разбирают их
+ * {@link HttpRequestDecoder} и передают готовые запросы исполнителю, где выполняются фильтры и
+ * обработчик, как и во встроенном сервере JDK. Подключения поддерживают keep-alive и конвейерные
+ * запросы (см. {@link NioConnection}); простаивающие дольше {@code idleTimeoutMs} закрываются.
+ * <p>
+ * Настройки задаются системными свойствами с префиксом {@code server.nio.}
+ * (см. {@link Settings#fromSystemProperties()}).
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class NioServerEngine implements ServerEngine {
+
+    private final ServerSocketChannel serverChannel;
+    private final NioHttpContext context;
+    private final Executor executor;
+    private final Settings settings;
+    private final DirectBufferPool bufferPool;
+    private final IoLoop[] loops;
+    private final AtomicInteger activeExchanges = new AtomicInteger();
+    private final Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * Настройки NIO-сервера.
+     *
+     * @param ioThreads число циклов ввода-вывода
+     * @param bufferSize размер буферов чтения и записи в байтах; заголовки запроса должны в нем уместиться
+     * @param maxBodySize максимальный размер тела запроса в байтах
+     * @param idleTimeoutMs время простоя, после которого подключение закрывается
+     * @param writeBufferLimit объем неотправленных данных подключения, при котором запись ответа ждет клиента
+     */
+    record Settings(int ioThreads, int bufferSize, long maxBodySize, long idleTimeoutMs, long writeBufferLimit) {
+
+        /**
+         * Читает настройки из системных свойств {@code server.nio.ioThreads}, {@code server.nio.bufferSize},
+         * {@code server.nio.maxBodySize}, {@code server.nio.idleTimeoutMs} и {@code server.nio.writeBufferLimit}.
+         *
+         * @return настройки сервера
+         */
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("server.nio.ioThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                    Integer.getInteger("server.nio.bufferSize", 16 * 1024),
+                    Long.getLong("server.nio.maxBodySize", 16L * 1024 * 1024),
+                    Long.getLong("server.nio.idleTimeoutMs", 30_000L),
+                    Long.getLong("server.nio.writeBufferLimit", 256L * 1024));
+        }
+    }
+
+    /**
+     * Создает сервер и привязывает его к адресу.
+     *
+     * @param address адрес и порт сервера
+     * @param backlog длина очереди входящих подключений
+     * @param handler обработчик запросов
+     * @param filters фильтры в порядке вызова
+     * @param executor исполнитель обработчиков запросов
+     * @param settings настройки сервера
+     * @throws IOException если не удалось открыть серверный сокет
+     */
+    NioServerEngine(InetSocketAddress address, int backlog, HttpHandler handler, List<Filter> filters,
+                    Executor executor, Settings settings) throws IOException {
+        this.context = new NioHttpContext(handler, filters);
+        this.executor = executor;
+        this.settings = settings;
+        this.bufferPool = new DirectBufferPool(settings.bufferSize(), 1024);
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, backlog);
+        this.loops = new IoLoop[settings.ioThreads()];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop(this, i);
+        }
+        this.acceptor = new Thread(this::acceptLoop, "nio-acceptor");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (IoLoop loop : loops) {
+            loop.thread.start();
+        }
+        acceptor.start();
+    }
+
+    @Override
+    public void stop(int delaySeconds) {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(delaySeconds);
+        while (activeExchanges.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (IoLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    long idleTimeoutNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMs());
+    }
+
+    /**
+     * Передает разобранный запрос исполнителю. Вызывается потоком селектора.
+     *
+     * @param connection подключение, с которого пришел запрос
+     * @param request запрос
+     */
+    void dispatch(NioConnection connection, NioRequest request) {
+        NioHttpExchange exchange = new NioHttpExchange(connection, request, context);
+        activeExchanges.incrementAndGet();
+        try {
+            executor.execute(() -> handle(connection, exchange));
+        } catch (RejectedExecutionException e) {
+            activeExchanges.decrementAndGet();
+            connection.close();
+        }
+    }
+
+    private void handle(NioConnection connection, NioHttpExchange exchange) {
+        try {
+            new Filter.Chain(context.getFilters(), context.getHandler()).doFilter(exchange);
+        } catch (ResponseAbortedException e) {
+            // Подключение закрывается без завершения тела: клиент видит ошибку передачи
+            activeExchanges.decrementAndGet();
+            connection.close();
+            return;
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+        exchange.close();
+        activeExchanges.decrementAndGet();
+        boolean keepAlive = exchange.isKeepAlive() && running;
+        connection.loop().execute(() -> connection.responseCompleted(keepAlive));
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                IoLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                NioConnection connection = new NioConnection(this, loop, channel, settings, bufferPool);
+                loop.execute(() -> loop.register(connection));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Цикл ввода-вывода: собственный селектор и поток, обслуживающий закрепленные за ним подключения.
+     * Другие потоки меняют состояние цикла только через {@link #execute(Runnable)}.
+     */
+    static final class IoLoop {
+
+        private static final long SELECT_TIMEOUT_MS = 1000;
+
+        private final NioServerEngine engine;
+        private final Selector selector;
+        private final Thread thread;
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final Set<NioConnection> connections = new HashSet<>();
+        private volatile boolean open = true;
+
+        private IoLoop(NioServerEngine engine, int index) throws IOException {
+            this.engine = engine;
+            this.selector = Selector.open();
+            this.thread = new Thread(this::run, "nio-io-" + index);
+        }
+
+        /**
+         * Выполняет задачу в потоке селектора.
+         *
+         * @param task задача
+         */
+        void execute(Runnable task) {
+            if (Thread.currentThread() == thread) {
+                task.run();
+                return;
+            }
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        void connectionClosed(NioConnection connection) {
+            connections.remove(connection);
+        }
+
+        private void register(NioConnection connection) {
+            try {
+                connection.register(selector);
+                connections.add(connection);
+            } catch (ClosedChannelException e) {
+                connection.close();
+            }
+        }
+
+        private void shutdown() {
+            execute(() -> {
+                open = false;
+                for (NioConnection connection : new ArrayList<>(connections)) {
+                    connection.close();
+                }
+            });
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            long nextIdleCheck = System.nanoTime();
+            while (open) {
+                try {
+                    selector.select(SELECT_TIMEOUT_MS);
+                    Runnable task;
+                    while ((task = tasks.poll()) != null) {
+                        task.run();
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        NioConnection connection = (NioConnection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                connection.onReadable();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.onWritable();
+                            }
+                        } catch (IOException e) {
+                            connection.close();
+                        }
+                    }
+                    long now = System.nanoTime();
+                    if (now - nextIdleCheck >= 0) {
+                        closeIdle(now);
+                        nextIdleCheck = now + TimeUnit.MILLISECONDS.toNanos(SELECT_TIMEOUT_MS);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        private void closeIdle(long now) {
+            long timeout = engine.idleTimeoutNanos();
+            for (NioConnection connection : new ArrayList<>(connections)) {
+                if (connection.isIdle(now, timeout)) {
+                    connection.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.rest.serverHandler;
+
+/**
+ * Класс {@code PathParameters} хранит целочисленные параметры пути в порядке их следования в шаблоне маршрута.
+ * Например, для шаблона {@code /orders/{id}/users} и пути {@code /orders/5/users} {@code getInt(0)} вернет 5.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class PathParameters {
+
+    static final PathParameters EMPTY = new PathParameters(new int[0], 0);
+
+    private final int[] values;
+    private final int size;
+
+    PathParameters(int[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Возвращает значение параметра.
+     *
+     * @param index порядковый номер параметра в шаблоне, начиная с 0
+     * @return значение параметра
+     * @throws IndexOutOfBoundsException если параметра с таким номером нет
+     */
+    public int getInt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Path parameter " + index + " of " + size);
+        }
+        return values[index];
+    }
+
+    /**
+     * Возвращает число параметров.
+     *
+     * @return число параметров
+     */
+    public int size() {
+        return size;
+    }
+}
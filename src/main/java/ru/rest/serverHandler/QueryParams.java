@@ -0,0 +1,92 @@
+package ru.rest.serverHandler;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Вспомогательный класс {@code QueryParams} разбирает параметры строки запроса URI.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class QueryParams {
+
+    private final Map<String, String> values;
+
+    private QueryParams(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Разбирает строку запроса URI. При повторении параметра используется первое значение.
+     *
+     * @param uri URI запроса
+     * @return параметры запроса
+     */
+    public static QueryParams of(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return new QueryParams(Collections.emptyMap());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            values.putIfAbsent(name, value);
+        }
+        return new QueryParams(values);
+    }
+
+    /**
+     * Возвращает значение параметра.
+     *
+     * @param name имя параметра
+     * @return значение или {@code null}, если параметр отсутствует
+     */
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    /**
+     * Проверяет наличие параметра.
+     *
+     * @param name имя параметра
+     * @return {@code true}, если параметр присутствует
+     */
+    public boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    /**
+     * Возвращает значение параметра-флага. Флаг установлен, если параметр указан без значения
+     * ({@code ?pretty}) или со значением {@code true} либо {@code 1}.
+     *
+     * @param name имя параметра
+     * @return {@code true}, если флаг установлен
+     */
+    public boolean getFlag(String name) {
+        String value = values.get(name);
+        return value != null && (value.isEmpty() || "true".equalsIgnoreCase(value) || "1".equals(value));
+    }
+
+    /**
+     * Возвращает целочисленное значение параметра.
+     *
+     * @param name имя параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра или {@code defaultValue}, если параметр отсутствует
+     * @throws NumberFormatException если значение не является целым числом
+     */
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.ReadRouting;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Фильтр {@code ReadRoutingFilter} решает, можно ли обслужить чтения запроса репликой.
+ * <p>
+ * Запросы, изменяющие данные (все методы, кроме {@code GET} и {@code HEAD}), читают только из основной
+ * базы данных: проверки перед записью не должны видеть отставшую реплику. Если задано окно
+ * {@code readYourWritesMs}, клиент, выполнивший запись, в течение окна после ответа тоже читает
+ * из основной базы данных и видит свои изменения. Клиент определяется заголовком {@value #CLIENT_ID_HEADER},
+ * а без него - IP-адресом. Последние записи клиентов хранятся в {@link LruCache} со временем жизни,
+ * равным окну, поэтому память ограничена числом {@code maxClients}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class ReadRoutingFilter extends Filter {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final LruCache<String, Boolean> recentWriters;
+
+    /**
+     * Создает фильтр.
+     *
+     * @param readYourWritesMs окно чтения своих записей в миллисекундах; {@code 0} отключает окно
+     * @param maxClients максимальное число запоминаемых клиентов
+     */
+    public ReadRoutingFilter(long readYourWritesMs, int maxClients) {
+        this.recentWriters = readYourWritesMs > 0 ? new LruCache<>(maxClients, readYourWritesMs) : null;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        String method = exchange.getRequestMethod();
+        boolean write = !"GET".equals(method) && !"HEAD".equals(method);
+        String client = recentWriters == null ? null : clientKey(exchange);
+        if (write || (client != null && recentWriters.get(client) != null)) {
+            ReadRouting.usePrimary();
+        }
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            ReadRouting.clear();
+            if (write && client != null) {
+                // Окно отсчитывается от завершения записи, а не от ее начала
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        }
+    }
+
+    private static String clientKey(HttpExchange exchange) {
+        String clientId = exchange.getRequestHeaders().getFirst(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isEmpty()) {
+            return clientId;
+        }
+        InetSocketAddress remote = exchange.getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress();
+    }
+
+    @Override
+    public String description() {
+        return "read replica routing";
+    }
+}
@@ -0,0 +1,44 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Класс {@code RequestScopedHttpExchange} хранит атрибуты в пределах одного HTTP-обмена.
+ * <p>
+ * Во встроенном HTTP-сервере JDK {@link HttpExchange#setAttribute} записывает значение в атрибуты
+ * контекста, общие для всех запросов, поэтому передавать через них данные запроса между
+ * фильтрами и обработчиком нельзя. Эта обертка держит собственную таблицу атрибутов.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+class RequestScopedHttpExchange extends DelegatingHttpExchange {
+
+    private final Map<String, Object> attributes = new HashMap<>(4);
+
+    /**
+     * Создает обертку над HTTP-обменом.
+     *
+     * @param delegate исходный HTTP-обмен
+     */
+    RequestScopedHttpExchange(HttpExchange delegate) {
+        super(delegate);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+}
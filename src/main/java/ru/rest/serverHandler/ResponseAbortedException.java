@@ -0,0 +1,26 @@
+package ru.rest.serverHandler;
+
+import java.io.IOException;
+
+/**
+ * Исключение {@code ResponseAbortedException} прерывает ответ, заголовки и часть тела которого уже отправлены.
+ * <p>
+ * Обработчик выбрасывает его, когда не может завершить начатый потоковый ответ (например, при ошибке базы данных
+ * посреди результата). {@link Router} и {@link CompressionFilter} в этом случае не закрывают обмен обычным
+ * образом, а сервер разрывает подключение без завершающего блока chunked-кодирования, поэтому клиент получает
+ * ошибку передачи, а не усеченный ответ с кодом 200, похожий на полный.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class ResponseAbortedException extends IOException {
+
+    /**
+     * Создает исключение.
+     *
+     * @param cause причина прерывания ответа
+     */
+    public ResponseAbortedException(Throwable cause) {
+        super("Response aborted", cause);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+/**
+ * Функциональный интерфейс {@code RouteHandler} обрабатывает запрос, сопоставленный маршруту {@link Router}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RouteHandler {
+
+    /**
+     * Обрабатывает запрос.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @param parameters параметры пути, извлеченные при сопоставлении маршрута
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    void handle(HttpExchange exchange, PathParameters parameters) throws IOException;
+}
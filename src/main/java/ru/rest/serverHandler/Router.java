@@ -0,0 +1,267 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Класс {@code Router} сопоставляет запросы маршрутам по методу и пути.
+ * <p>
+ * Шаблоны маршрутов ({@code /orders/{id}/users}) разбиваются на сегменты при регистрации и хранятся
+ * в префиксном дереве. При сопоставлении путь просматривается один раз без регулярных выражений и
+ * без создания подстрок: литеральные сегменты сравниваются через {@link String#regionMatches},
+ * а параметры вида {@code {id}} принимают только неотрицательные целые числа и разбираются
+ * прямо из пути в массив {@code int}, который получает обработчик.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class Router implements HttpHandler {
+
+    /**
+     * Атрибут HTTP-обмена, в который записывается шаблон найденного маршрута. Атрибуты встроенного
+     * сервера общие для контекста, поэтому читать его следует через {@link RequestScopedHttpExchange}.
+     */
+    public static final String ROUTE_ATTRIBUTE = "ru.rest.route";
+
+    private final Node root = new Node(0);
+    private int maxParameters;
+
+    /**
+     * Регистрирует обработчик для метода и шаблона пути.
+     *
+     * @param method HTTP-метод
+     * @param template шаблон пути, например {@code /orders/{id}}
+     * @param handler обработчик запроса
+     * @return этот маршрутизатор
+     * @throws IllegalArgumentException если шаблон некорректен или маршрут уже зарегистрирован
+     */
+    public Router add(String method, String template, RouteHandler handler) {
+        if (!template.startsWith("/") || template.length() < 2 || template.endsWith("/")) {
+            throw new IllegalArgumentException("Invalid route template: " + template);
+        }
+        Node node = root;
+        for (String segment : template.substring(1).split("/", -1)) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Empty segment in route template: " + template);
+            }
+            node = segment.startsWith("{") && segment.endsWith("}")
+                    ? node.parameterChild()
+                    : node.literalChild(segment);
+        }
+        if (node.template == null) {
+            node.template = template;
+        }
+        if (node.handlers.putIfAbsent(method, handler) != null) {
+            throw new IllegalArgumentException("Route already registered: " + method + " " + template);
+        }
+        maxParameters = Math.max(maxParameters, node.parameterCount);
+        return this;
+    }
+
+    /**
+     * Регистрирует обработчик GET-запросов.
+     *
+     * @param template шаблон пути
+     * @param handler обработчик запроса
+     * @return этот маршрутизатор
+     */
+    public Router get(String template, RouteHandler handler) {
+        return add("GET", template, handler);
+    }
+
+    /**
+     * Регистрирует обработчик POST-запросов.
+     *
+     * @param template шаблон пути
+     * @param handler обработчик запроса
+     * @return этот маршрутизатор
+     */
+    public Router post(String template, RouteHandler handler) {
+        return add("POST", template, handler);
+    }
+
+    /**
+     * Регистрирует обработчик PUT-запросов.
+     *
+     * @param template шаблон пути
+     * @param handler обработчик запроса
+     * @return этот маршрутизатор
+     */
+    public Router put(String template, RouteHandler handler) {
+        return add("PUT", template, handler);
+    }
+
+    /**
+     * Регистрирует обработчик DELETE-запросов.
+     *
+     * @param template шаблон пути
+     * @param handler обработчик запроса
+     * @return этот маршрутизатор
+     */
+    public Router delete(String template, RouteHandler handler) {
+        return add("DELETE", template, handler);
+    }
+
+    /**
+     * Обрабатывает запрос и закрывает HTTP-обмен. Прерванный ответ ({@link ResponseAbortedException})
+     * не закрывается: подключение разрывает сервер.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        boolean aborted = false;
+        try {
+            dispatch(exchange);
+        } catch (ResponseAbortedException e) {
+            aborted = true;
+            throw e;
+        } finally {
+            if (!aborted) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Находит маршрут для запроса и вызывает его обработчик. Если путь не найден, отправляется
+     * ответ 404, если путь найден, но метод не поддерживается, отправляется 405 с заголовком {@code Allow}.
+     * Шаблон найденного маршрута сохраняется в атрибуте {@link #ROUTE_ATTRIBUTE}.
+     *
+     * @param exchange объект, представляющий HTTP-обмен
+     * @throws IOException если возникнут ошибки при обработке HTTP-запроса
+     */
+    public void dispatch(HttpExchange exchange) throws IOException {
+        int[] values = maxParameters == 0 ? null : new int[maxParameters];
+        Node node = match(exchange.getRequestURI().getPath(), values);
+        if (node == null || node.handlers.isEmpty()) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            return;
+        }
+        RouteHandler handler = node.handlers.get(exchange.getRequestMethod());
+        if (handler == null) {
+            exchange.getResponseHeaders().set("Allow", String.join(", ", new TreeSet<>(node.handlers.keySet())));
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_METHOD, -1);
+            return;
+        }
+        exchange.setAttribute(ROUTE_ATTRIBUTE, node.template);
+        PathParameters parameters = node.parameterCount == 0
+                ? PathParameters.EMPTY
+                : new PathParameters(values, node.parameterCount);
+        handler.handle(exchange, parameters);
+    }
+
+    /**
+     * Находит узел дерева, соответствующий пути.
+     *
+     * @param path путь запроса
+     * @param values массив для значений параметров пути
+     * @return узел или {@code null}, если путь не соответствует ни одному шаблону
+     */
+    Node match(String path, int[] values) {
+        int length = path.length();
+        if (length < 2 || path.charAt(0) != '/') {
+            return null;
+        }
+        Node node = root;
+        int start = 1;
+        while (true) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            Node next = node.findLiteral(path, start, end);
+            if (next == null && node.parameter != null) {
+                int value = parseNonNegativeInt(path, start, end);
+                if (value >= 0) {
+                    values[node.parameterCount] = value;
+                    next = node.parameter;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            node = next;
+            if (end == length) {
+                return node;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Разбирает десятичное неотрицательное число из части строки.
+     *
+     * @return число или {@code -1}, если сегмент пуст, содержит не только цифры или не помещается в {@code int}
+     */
+    private static int parseNonNegativeInt(String path, int start, int end) {
+        if (start == end) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = path.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Узел префиксного дерева маршрутов.
+     */
+    static final class Node {
+        private String[] literals = new String[0];
+        private Node[] literalChildren = new Node[0];
+        private Node parameter;
+        private final int parameterCount;
+        private String template;
+        private final Map<String, RouteHandler> handlers = new HashMap<>();
+
+        private Node(int parameterCount) {
+            this.parameterCount = parameterCount;
+        }
+
+        private Node findLiteral(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[i];
+                }
+            }
+            return null;
+        }
+
+        private Node literalChild(String segment) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) {
+                    return literalChildren[i];
+                }
+            }
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            Node child = new Node(parameterCount);
+            literals[literals.length - 1] = segment;
+            literalChildren[literalChildren.length - 1] = child;
+            return child;
+        }
+
+        private Node parameterChild() {
+            if (parameter == null) {
+                parameter = new Node(parameterCount + 1);
+            }
+            return parameter;
+        }
+    }
+}
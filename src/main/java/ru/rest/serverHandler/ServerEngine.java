@@ -0,0 +1,36 @@
+package ru.rest.serverHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Интерфейс {@code ServerEngine} описывает сетевую часть HTTP-сервера: прием подключений, разбор
+ * запросов и отправку ответов. Обработка запросов (фильтры и {@link Router}) от реализации не зависит:
+ * каждый движок передает их в виде {@link com.sun.net.httpserver.HttpExchange}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public interface ServerEngine {
+
+    /**
+     * Начинает прием подключений.
+     *
+     * @throws IOException если не удалось запустить сервер
+     */
+    void start() throws IOException;
+
+    /**
+     * Прекращает прием подключений и останавливает сервер.
+     *
+     * @param delaySeconds время ожидания завершения текущих запросов в секундах
+     */
+    void stop(int delaySeconds);
+
+    /**
+     * Возвращает адрес, на котором сервер принимает подключения.
+     *
+     * @return локальный адрес сервера
+     */
+    InetSocketAddress getAddress();
+}
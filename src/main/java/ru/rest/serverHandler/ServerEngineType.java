@@ -0,0 +1,75 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Перечисление {@code ServerEngineType} описывает доступные реализации {@link ServerEngine}.
+ * Движок выбирается системным свойством {@code server.engine}, длина очереди входящих подключений
+ * задается свойством {@code server.backlog}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public enum ServerEngineType {
+
+    /**
+     * Встроенный HTTP-сервер JDK ({@link com.sun.net.httpserver.HttpServer}).
+     */
+    JDK {
+        @Override
+        public ServerEngine create(InetSocketAddress address, int backlog, HttpHandler handler,
+                                   List<Filter> filters, Executor executor) throws IOException {
+            return new JdkServerEngine(address, backlog, handler, filters, executor);
+        }
+    },
+
+    /**
+     * Неблокирующий сервер на селекторах NIO с поддержкой keep-alive и конвейерной обработки запросов.
+     */
+    NIO {
+        @Override
+        public ServerEngine create(InetSocketAddress address, int backlog, HttpHandler handler,
+                                   List<Filter> filters, Executor executor) throws IOException {
+            return new NioServerEngine(address, backlog, handler, filters, executor, NioServerEngine.Settings.fromSystemProperties());
+        }
+    };
+
+    /**
+     * Создает движок и привязывает его к адресу.
+     *
+     * @param address адрес и порт сервера
+     * @param backlog длина очереди входящих подключений
+     * @param handler обработчик запросов
+     * @param filters фильтры, выполняемые перед обработчиком, в порядке вызова
+     * @param executor исполнитель обработчиков запросов
+     * @return новый движок
+     * @throws IOException если не удалось открыть серверный сокет
+     */
+    public abstract ServerEngine create(InetSocketAddress address, int backlog, HttpHandler handler,
+                                        List<Filter> filters, Executor executor) throws IOException;
+
+    /**
+     * Возвращает движок, заданный системным свойством {@code server.engine}.
+     *
+     * @return выбранный движок, по умолчанию {@link #JDK}
+     */
+    public static ServerEngineType fromSystemProperties() {
+        return valueOf(System.getProperty("server.engine", JDK.name()).trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Возвращает длину очереди входящих подключений, заданную системным свойством {@code server.backlog}.
+     *
+     * @return длина очереди, по умолчанию 1024
+     */
+    public static int backlogFromSystemProperties() {
+        return Integer.getInteger("server.backlog", 1024);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.rest.snapshot;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Задача fork-join, подсчитывающая строки снимка по значению ключевого столбца. Диапазон строк делится
+ * пополам до порога {@code threshold}; листовые задачи считают свою порцию в локальный массив без
+ * синхронизации, а частичные результаты складываются при объединении.
+ * <p>
+ * Задача читает столбцы без блокировки: вызывающий поток держит блокировку чтения снимка на все время
+ * {@link java.util.concurrent.ForkJoinPool#invoke}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class CountTask extends RecursiveTask<IntCounts> {
+
+    private final IntColumn keys;
+    private final IntColumn productCodes;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    /**
+     * Создает задачу подсчета.
+     *
+     * @param keys столбец, по значениям которого считаются строки
+     * @param productCodes столбец кодов товаров; строки с кодом {@code 0} удалены и не считаются
+     * @param from первая строка
+     * @param to строка, следующая за последней
+     * @param threshold наибольшее число строк листовой задачи
+     */
+    CountTask(IntColumn keys, IntColumn productCodes, int from, int to, int threshold) {
+        this.keys = keys;
+        this.productCodes = productCodes;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected IntCounts compute() {
+        if (to - from <= threshold) {
+            return countRange();
+        }
+        int middle = (from + to) >>> 1;
+        CountTask left = new CountTask(keys, productCodes, from, middle, threshold);
+        left.fork();
+        IntCounts right = new CountTask(keys, productCodes, middle, to, threshold).compute();
+        return left.join().merge(right);
+    }
+
+    /**
+     * Считает порцию в два прохода: первый находит диапазон ключей, второй заполняет массив этого размера.
+     */
+    private IntCounts countRange() {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int row = from; row < to; row++) {
+            if (productCodes.get(row) != 0) {
+                int key = keys.get(row);
+                min = Math.min(min, key);
+                max = Math.max(max, key);
+            }
+        }
+        if (min > max) {
+            return IntCounts.EMPTY;
+        }
+        int[] counts = new int[max - min + 1];
+        for (int row = from; row < to; row++) {
+            if (productCodes.get(row) != 0) {
+                counts[keys.get(row) - min]++;
+            }
+        }
+        return new IntCounts(min, counts);
+    }
+}
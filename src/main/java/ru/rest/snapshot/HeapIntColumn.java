@@ -0,0 +1,52 @@
+package ru.rest.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Столбец снимка в массиве {@code int} в куче. Массив примитивов сборщик мусора не обходит,
+ * поэтому время его пауз не зависит от числа строк.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class HeapIntColumn implements IntColumn {
+
+    private final int[] values;
+
+    HeapIntColumn(int capacity) {
+        this(new int[capacity]);
+    }
+
+    private HeapIntColumn(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void set(int index, int value) {
+        values[index] = value;
+    }
+
+    @Override
+    public int capacity() {
+        return values.length;
+    }
+
+    @Override
+    public IntColumn grow(int minCapacity) {
+        return new HeapIntColumn(Arrays.copyOf(values, OrderSnapshot.grownCapacity(values.length, minCapacity)));
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, 0);
+    }
+
+    @Override
+    public void close() {
+    }
+}
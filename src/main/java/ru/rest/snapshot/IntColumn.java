@@ -0,0 +1,53 @@
+package ru.rest.snapshot;
+
+/**
+ * Интерфейс {@code IntColumn} описывает столбец значений {@code int} снимка заказов, адресуемый
+ * номером строки. Новые ячейки заполнены нулями.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+interface IntColumn {
+
+    /**
+     * Возвращает значение ячейки.
+     *
+     * @param index номер строки, меньший {@link #capacity()}
+     * @return значение
+     */
+    int get(int index);
+
+    /**
+     * Записывает значение ячейки.
+     *
+     * @param index номер строки, меньший {@link #capacity()}
+     * @param value значение
+     */
+    void set(int index, int value);
+
+    /**
+     * Возвращает число ячеек.
+     *
+     * @return емкость столбца
+     */
+    int capacity();
+
+    /**
+     * Возвращает столбец емкостью не меньше {@code minCapacity} с тем же содержимым.
+     * Прежний экземпляр остается пригодным для чтения.
+     *
+     * @param minCapacity требуемая емкость
+     * @return увеличенный столбец
+     */
+    IntColumn grow(int minCapacity);
+
+    /**
+     * Обнуляет все ячейки.
+     */
+    void clear();
+
+    /**
+     * Освобождает ресурсы столбца.
+     */
+    void close();
+}
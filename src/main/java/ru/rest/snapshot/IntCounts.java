@@ -0,0 +1,87 @@
+package ru.rest.snapshot;
+
+/**
+ * Класс {@code IntCounts} - счетчики по целочисленным ключам из непрерывного диапазона
+ * {@code [offset, offset + counts.length)}. Частичные счетчики одной порции строк охватывают только
+ * встреченные в ней ключи, поэтому при близких ключах (новые заказы обычно делают новые пользователи)
+ * они занимают мало памяти. Экземпляр не потокобезопасен.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class IntCounts {
+
+    static final IntCounts EMPTY = new IntCounts(0, new int[0]);
+
+    private final int offset;
+    private final int[] counts;
+
+    IntCounts(int offset, int[] counts) {
+        this.offset = offset;
+        this.counts = counts;
+    }
+
+    /**
+     * Возвращает наименьший ключ диапазона.
+     *
+     * @return первый ключ
+     */
+    int first() {
+        return offset;
+    }
+
+    /**
+     * Возвращает ключ, следующий за последним ключом диапазона.
+     *
+     * @return граница диапазона (не включается)
+     */
+    int end() {
+        return offset + counts.length;
+    }
+
+    /**
+     * Возвращает счетчик ключа.
+     *
+     * @param key ключ
+     * @return значение счетчика или {@code 0}, если ключ вне диапазона
+     */
+    int get(int key) {
+        int index = key - offset;
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * Складывает счетчики. Результат может совпадать с одним из слагаемых, измененным на месте.
+     *
+     * @param other другие счетчики
+     * @return сумма
+     */
+    IntCounts merge(IntCounts other) {
+        if (other.counts.length == 0) {
+            return this;
+        }
+        if (counts.length == 0) {
+            return other;
+        }
+        if (offset <= other.offset && end() >= other.end()) {
+            other.addTo(counts, offset);
+            return this;
+        }
+        if (other.offset <= offset && other.end() >= end()) {
+            addTo(other.counts, other.offset);
+            return other;
+        }
+        int first = Math.min(offset, other.offset);
+        int[] merged = new int[Math.max(end(), other.end()) - first];
+        addTo(merged, first);
+        other.addTo(merged, first);
+        return new IntCounts(first, merged);
+    }
+
+    private void addTo(int[] target, int targetOffset) {
+        int shift = offset - targetOffset;
+        for (int i = 0; i < counts.length; i++) {
+            target[shift + i] += counts[i];
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.rest.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Столбец снимка в отображенном в память файле, вне кучи Java.
+ * <p>
+ * Файл служит только хранилищем страниц и перестраивается при каждом запуске. При росте файл
+ * отображается заново большего размера; прежнее отображение того же файла остается действительным
+ * и видит те же данные, поэтому читатели, взявшие старый экземпляр, не требуют синхронизации с ростом.
+ * Одно отображение ограничено 2 ГБ, то есть {@value #MAX_CAPACITY} строками.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class MappedIntColumn implements IntColumn {
+
+    static final int MAX_CAPACITY = Integer.MAX_VALUE / Integer.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final IntBuffer values;
+    private final int capacity;
+
+    private MappedIntColumn(Path file, FileChannel channel, int capacity) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.capacity = capacity;
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * Integer.BYTES);
+        this.values = mapped.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Создает столбец в новом файле, удаляя прежнее содержимое.
+     *
+     * @param file файл столбца
+     * @param capacity начальная емкость
+     * @return столбец
+     */
+    static MappedIntColumn create(Path file, int capacity) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            file.toFile().deleteOnExit();
+            return new MappedIntColumn(file, channel, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int get(int index) {
+        return values.get(index);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        values.put(index, value);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public IntColumn grow(int minCapacity) {
+        int newCapacity = Math.min(MAX_CAPACITY, OrderSnapshot.grownCapacity(capacity, minCapacity));
+        if (newCapacity < minCapacity) {
+            throw new IllegalStateException("Mapped column " + file + " cannot hold " + minCapacity + " rows");
+        }
+        try {
+            return new MappedIntColumn(file, channel, newCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            values.put(i, 0);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
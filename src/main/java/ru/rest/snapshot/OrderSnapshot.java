@@ -0,0 +1,577 @@
+package ru.rest.snapshot;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Класс {@code OrderSnapshot} - столбцовый снимок таблицы {@code orders} в памяти процесса.
+ * <p>
+ * Идентификаторы заказов выдаются автоинкрементом и почти плотны, поэтому идентификатор служит номером
+ * строки: столбцы {@code userId}, код товара из {@link ProductDictionary} и ссылка на следующий заказ того же
+ * пользователя хранятся в {@link IntColumn} по индексу {@code id}. Для пользователя хранятся первый и
+ * последний заказ цепочки, упорядоченной по возрастанию идентификатора, так что заказы пользователя
+ * читаются без просмотра всей таблицы. Код товара {@code 0} означает, что строки нет.
+ * <p>
+ * Снимок не содержит объектов на строку: столбцы - массивы {@code int} в куче ({@link Storage#HEAP}) или
+ * отображенные в память файлы вне кучи ({@link Storage#MAPPED}), поэтому паузы сборщика мусора не растут
+ * вместе с таблицей. Изменения выполняются под блокировкой записи {@link StampedLock}; чтение порции строк
+ * сначала выполняется оптимистично без блокировки и повторяется под блокировкой чтения, только если
+ * за это время была запись.
+ * <p>
+ * Снимок обновляется теми же путями записи, что и база данных (в порядке их фиксации, см.
+ * {@code OrderController}), и перестраивается потоковым чтением таблицы при запуске. До окончания перестроения, а также если идентификатор превысил {@link Settings#maxRows()},
+ * снимок считается недействительным, и списки заказов читаются из базы данных.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderSnapshot {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Наименьшая порция строк задачи подсчета: меньшие порции не окупают разделение задачи.
+     */
+    private static final int MIN_TASK_ROWS = 1 << 16;
+
+    /**
+     * Хранилище столбцов.
+     */
+    public enum Storage {
+        /**
+         * Массивы {@code int} в куче.
+         */
+        HEAP,
+        /**
+         * Отображенные в память временные файлы вне кучи.
+         */
+        MAPPED;
+
+        /**
+         * Возвращает хранилище по имени без учета регистра.
+         *
+         * @param name имя хранилища
+         * @return хранилище; {@link #HEAP}, если имя не задано
+         */
+        public static Storage fromName(String name) {
+            return name == null || name.isBlank() ? HEAP : valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Настройки снимка.
+     *
+     * @param enabled включен ли снимок
+     * @param storage хранилище столбцов
+     * @param directory каталог файлов столбцов для {@link Storage#MAPPED}
+     * @param maxRows наибольший допустимый идентификатор заказа и пользователя плюс один
+     */
+    public record Settings(boolean enabled, Storage storage, Path directory, int maxRows) {
+
+        /**
+         * Читает настройки из системных свойств {@code orders.snapshot.*}.
+         *
+         * @return настройки
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Boolean.parseBoolean(System.getProperty("orders.snapshot.enabled", "false")),
+                    Storage.fromName(System.getProperty("orders.snapshot.storage")),
+                    Path.of(System.getProperty("orders.snapshot.directory", System.getProperty("java.io.tmpdir"))),
+                    Integer.getInteger("orders.snapshot.maxRows", 100_000_000));
+        }
+    }
+
+    /**
+     * Порция строк, прочитанная из снимка. Экземпляр переиспользуется между вызовами
+     * {@link #read(int, int, Rows)} и не потокобезопасен.
+     */
+    public static final class Rows {
+
+        private final int[] ids;
+        private final int[] userIds;
+        private final SerializableString[] products;
+        private int size;
+        private int nextInUser;
+
+        /**
+         * Создает порцию указанной емкости.
+         *
+         * @param capacity наибольшее число строк в порции
+         */
+        public Rows(int capacity) {
+            ids = new int[capacity];
+            userIds = new int[capacity];
+            products = new SerializableString[capacity];
+        }
+
+        /**
+         * Возвращает число прочитанных строк.
+         *
+         * @return размер порции
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Возвращает идентификатор заказа строки.
+         *
+         * @param row номер строки в порции
+         * @return идентификатор заказа
+         */
+        public int id(int row) {
+            return ids[row];
+        }
+
+        /**
+         * Возвращает название товара строки.
+         *
+         * @param row номер строки в порции
+         * @return название товара
+         */
+        public SerializableString product(int row) {
+            return products[row];
+        }
+
+        /**
+         * Возвращает идентификатор пользователя строки.
+         *
+         * @param row номер строки в порции
+         * @return идентификатор пользователя
+         */
+        public int userId(int row) {
+            return userIds[row];
+        }
+
+        /**
+         * Возвращает идентификатор последней строки порции.
+         *
+         * @return идентификатор или {@code 0}, если порция пуста
+         */
+        public int lastId() {
+            return size == 0 ? 0 : ids[size - 1];
+        }
+
+        private int capacity() {
+            return ids.length;
+        }
+
+        private void add(int id, SerializableString product, int userId) {
+            ids[size] = id;
+            products[size] = product;
+            userIds[size] = userId;
+            size++;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Settings settings;
+    private final ProductDictionary dictionary = new ProductDictionary();
+
+    private IntColumn userIds;
+    private IntColumn productCodes;
+    private IntColumn nextInUser;
+    private IntColumn userHeads;
+    private IntColumn userTails;
+    private int maxId;
+    private int size;
+    private boolean overflowed;
+    private volatile boolean valid;
+
+    /**
+     * Создает пустой недействительный снимок.
+     *
+     * @param settings настройки снимка
+     */
+    public OrderSnapshot(Settings settings) {
+        this.settings = settings;
+        userIds = createColumn("user-id");
+        productCodes = createColumn("product");
+        nextInUser = createColumn("next-in-user");
+        userHeads = createColumn("user-head");
+        userTails = createColumn("user-tail");
+    }
+
+    /**
+     * Добавляет заказ в снимок или заменяет его прежнее состояние.
+     *
+     * @param orderId идентификатор заказа
+     * @param product название товара
+     * @param userId идентификатор владельца
+     */
+    public void put(int orderId, String product, int userId) {
+        if (product == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (orderId <= 0 || userId <= 0 || orderId >= settings.maxRows() || userId >= settings.maxRows()) {
+                invalidate("order " + orderId + " of user " + userId + " is out of range");
+                return;
+            }
+            ensureCapacity(orderId, userId);
+            int previousUser = productCodes.get(orderId) == 0 ? 0 : userIds.get(orderId);
+            if (previousUser == 0) {
+                link(orderId, userId);
+                size++;
+            } else if (previousUser != userId) {
+                unlink(orderId, previousUser);
+                link(orderId, userId);
+            }
+            productCodes.set(orderId, dictionary.encode(product));
+            userIds.set(orderId, userId);
+            maxId = Math.max(maxId, orderId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет заказ из снимка.
+     *
+     * @param orderId идентификатор заказа
+     */
+    public void remove(int orderId) {
+        long stamp = lock.writeLock();
+        try {
+            if (orderId <= 0 || orderId >= productCodes.capacity() || productCodes.get(orderId) == 0) {
+                return;
+            }
+            unlink(orderId, userIds.get(orderId));
+            productCodes.set(orderId, 0);
+            userIds.set(orderId, 0);
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаляет все заказы и помечает снимок недействительным до вызова {@link #markValid()}.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            valid = false;
+            userIds.clear();
+            productCodes.clear();
+            nextInUser.clear();
+            userHeads.clear();
+            userTails.clear();
+            dictionary.clear();
+            maxId = 0;
+            size = 0;
+            overflowed = false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Помечает снимок действительным после полного чтения таблицы.
+     */
+    public void markValid() {
+        long stamp = lock.writeLock();
+        try {
+            valid = !overflowed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Проверяет, можно ли обслуживать чтение из снимка.
+     *
+     * @return {@code true}, если снимок полон и актуален
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Читает следующую порцию заказов в порядке возрастания идентификатора.
+     * <p>
+     * Для чтения всех заказов пользователя порцию следует передавать в следующий вызов без изменений:
+     * она запоминает положение в цепочке пользователя, и продолжение не просматривает цепочку с начала.
+     *
+     * @param afterId идентификатор, после которого начинается порция
+     * @param userId идентификатор пользователя или {@code 0} для заказов всех пользователей
+     * @param rows порция, заполняемая не более чем до ее емкости
+     * @return число прочитанных строк; меньше емкости порции, если заказы закончились
+     */
+    public int read(int afterId, int userId, Rows rows) {
+        int hint = rows.size > 0 && rows.lastId() == afterId ? rows.nextInUser : 0;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            fill(afterId, userId, hint, rows);
+            if (lock.validate(stamp)) {
+                return rows.size;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            fill(afterId, userId, hint, rows);
+            return rows.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Подсчитывает заказы каждого пользователя параллельной редукцией по столбцу пользователей.
+     *
+     * @param pool пул fork-join, выполняющий подсчет
+     * @return число заказов по идентификатору пользователя
+     */
+    IntCounts countByUser(ForkJoinPool pool) {
+        return count(pool, true);
+    }
+
+    /**
+     * Подсчитывает заказы каждого товара параллельной редукцией по столбцу кодов товаров.
+     *
+     * @param pool пул fork-join, выполняющий подсчет
+     * @return число заказов по коду товара (см. {@link #productName(int)})
+     */
+    IntCounts countByProduct(ForkJoinPool pool) {
+        return count(pool, false);
+    }
+
+    /**
+     * Возвращает название товара по коду из {@link #countByProduct(ForkJoinPool)}.
+     *
+     * @param code код товара
+     * @return название товара
+     */
+    String productName(int code) {
+        return dictionary.decode(code).getValue();
+    }
+
+    /**
+     * Выполняет подсчет под блокировкой чтения, чтобы все задачи видели одно состояние столбцов.
+     * Записи в снимок ждут окончания подсчета.
+     */
+    private IntCounts count(ForkJoinPool pool, boolean byUser) {
+        long stamp = lock.readLock();
+        try {
+            int rows = Math.min(maxId + 1, productCodes.capacity());
+            int threshold = Math.max(MIN_TASK_ROWS, rows / (pool.getParallelism() * 4));
+            return pool.invoke(new CountTask(byUser ? userIds : productCodes, productCodes, 1, rows, threshold));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает число заказов в снимке.
+     *
+     * @return число заказов
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает число различных названий товаров в словаре снимка.
+     *
+     * @return размер словаря
+     */
+    public int productCount() {
+        long stamp = lock.readLock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает объем памяти, занятой столбцами (в куче или вне ее, в зависимости от хранилища).
+     *
+     * @return объем столбцов в байтах
+     */
+    public long columnBytes() {
+        long stamp = lock.readLock();
+        try {
+            long cells = (long) userIds.capacity() + productCodes.capacity() + nextInUser.capacity()
+                    + userHeads.capacity() + userTails.capacity();
+            return cells * Integer.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Возвращает хранилище столбцов.
+     *
+     * @return хранилище
+     */
+    public Storage getStorage() {
+        return settings.storage();
+    }
+
+    /**
+     * Освобождает столбцы; после закрытия снимок недействителен.
+     */
+    public void close() {
+        long stamp = lock.writeLock();
+        try {
+            valid = false;
+            userIds.close();
+            productCodes.close();
+            nextInUser.close();
+            userHeads.close();
+            userTails.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Заполняет порцию. При оптимистичном чтении состояние может быть несогласованным,
+     * поэтому все индексы проверяются, а обход цепочки ограничен числом строк.
+     */
+    private void fill(int afterId, int userId, int hint, Rows rows) {
+        rows.size = 0;
+        rows.nextInUser = 0;
+        IntColumn users = userIds;
+        IntColumn products = productCodes;
+        IntColumn next = nextInUser;
+        int last = Math.min(maxId, Math.min(products.capacity(), users.capacity()) - 1);
+        if (userId == 0) {
+            for (int id = Math.max(afterId, 0) + 1; id <= last && rows.size < rows.capacity(); id++) {
+                int code = products.get(id);
+                if (code != 0) {
+                    rows.add(id, dictionary.decode(code), users.get(id));
+                }
+            }
+            return;
+        }
+        IntColumn heads = userHeads;
+        int id;
+        if (hint > afterId && hint <= last && products.get(hint) != 0 && users.get(hint) == userId) {
+            id = hint;
+        } else if (userId < heads.capacity()) {
+            id = heads.get(userId);
+        } else {
+            return;
+        }
+        int steps = 0;
+        while (id > 0 && id <= last && id < next.capacity() && steps++ <= last) {
+            if (id > afterId) {
+                if (rows.size == rows.capacity()) {
+                    rows.nextInUser = id;
+                    return;
+                }
+                rows.add(id, dictionary.decode(products.get(id)), userId);
+            }
+            id = next.get(id);
+        }
+    }
+
+    /**
+     * Вставляет заказ в цепочку пользователя с сохранением порядка идентификаторов.
+     */
+    private void link(int orderId, int userId) {
+        int tail = userTails.get(userId);
+        if (tail == 0) {
+            userHeads.set(userId, orderId);
+            userTails.set(userId, orderId);
+            nextInUser.set(orderId, 0);
+        } else if (tail < orderId) {
+            nextInUser.set(tail, orderId);
+            userTails.set(userId, orderId);
+            nextInUser.set(orderId, 0);
+        } else {
+            // Заказ зафиксирован позже заказа с большим идентификатором (отложенная запись, конкурентные транзакции)
+            int previous = 0;
+            int current = userHeads.get(userId);
+            while (current != 0 && current < orderId) {
+                previous = current;
+                current = nextInUser.get(current);
+            }
+            nextInUser.set(orderId, current);
+            if (previous == 0) {
+                userHeads.set(userId, orderId);
+            } else {
+                nextInUser.set(previous, orderId);
+            }
+        }
+    }
+
+    /**
+     * Исключает заказ из цепочки пользователя.
+     */
+    private void unlink(int orderId, int userId) {
+        int previous = 0;
+        int current = userHeads.get(userId);
+        while (current != 0 && current != orderId) {
+            previous = current;
+            current = nextInUser.get(current);
+        }
+        if (current == 0) {
+            return;
+        }
+        int following = nextInUser.get(orderId);
+        if (previous == 0) {
+            userHeads.set(userId, following);
+        } else {
+            nextInUser.set(previous, following);
+        }
+        if (userTails.get(userId) == orderId) {
+            userTails.set(userId, previous);
+        }
+        nextInUser.set(orderId, 0);
+    }
+
+    private void ensureCapacity(int orderId, int userId) {
+        if (orderId >= productCodes.capacity()) {
+            userIds = userIds.grow(orderId + 1);
+            productCodes = productCodes.grow(orderId + 1);
+            nextInUser = nextInUser.grow(orderId + 1);
+        }
+        if (userId >= userHeads.capacity()) {
+            userHeads = userHeads.grow(userId + 1);
+            userTails = userTails.grow(userId + 1);
+        }
+    }
+
+    private void invalidate(String reason) {
+        if (valid) {
+            System.err.println("Order snapshot disabled, lists are read from the database: " + reason);
+        }
+        valid = false;
+        overflowed = true;
+    }
+
+    private IntColumn createColumn(String name) {
+        if (settings.storage() == Storage.MAPPED) {
+            Path file = settings.directory().resolve(
+                    "orders-snapshot-" + ProcessHandle.current().pid() + "-" + name + ".bin");
+            return MappedIntColumn.create(file, INITIAL_CAPACITY);
+        }
+        return new HeapIntColumn(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Возвращает новую емкость столбца: вдвое больше прежней, но не меньше требуемой.
+     *
+     * @param capacity текущая емкость
+     * @param minCapacity требуемая емкость
+     * @return новая емкость
+     */
+    static int grownCapacity(int capacity, int minCapacity) {
+        long doubled = (long) capacity << 1;
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(doubled, minCapacity));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.rest.snapshot;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Класс {@code ProductDictionary} - словарь названий товаров снимка: каждое различное название получает
+ * код, и в столбце товаров хранится код вместо строки.
+ * <p>
+ * Словарь только растет, коды начинаются с {@code 1} ({@code 0} в столбце означает отсутствие строки).
+ * Для каждого кода хранится {@link SerializedString}, который кэширует закодированное представление,
+ * поэтому запись названия в ответ не создает объектов. Добавление выполняется под блокировкой записи
+ * снимка; чтение по коду допускается без блокировки, так как код попадает в столбец после записи в словарь.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+final class ProductDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile SerializedString[] products = new SerializedString[256];
+    private int size;
+
+    /**
+     * Возвращает код названия, добавляя его в словарь при первом появлении.
+     *
+     * @param product название товара
+     * @return код больше нуля
+     */
+    int encode(String product) {
+        Integer code = codes.get(product);
+        if (code != null) {
+            return code;
+        }
+        SerializedString[] current = products;
+        int next = size + 1;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, current.length << 1);
+        }
+        current[next] = new SerializedString(product);
+        products = current;
+        size = next;
+        codes.put(product, next);
+        return next;
+    }
+
+    /**
+     * Возвращает название по коду.
+     *
+     * @param code код из столбца товаров
+     * @return название или {@code null}, если код неизвестен
+     */
+    SerializableString decode(int code) {
+        SerializedString[] current = products;
+        return code > 0 && code < current.length ? current[code] : null;
+    }
+
+    /**
+     * Возвращает число различных названий.
+     *
+     * @return размер словаря
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все названия.
+     */
+    void clear() {
+        codes.clear();
+        products = new SerializedString[256];
+        size = 0;
+    }
+}
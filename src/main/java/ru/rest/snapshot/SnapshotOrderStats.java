@@ -0,0 +1,115 @@
+package ru.rest.snapshot;
+
+import ru.rest.entity.OrderCountBucket;
+import ru.rest.entity.ProductOrderCount;
+import ru.rest.entity.UserOrderCount;
+import ru.rest.repository.OrderStatsRepository;
+import ru.rest.repository.RowCallback;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Реализация {@link OrderStatsRepository}, вычисляющая агрегаты параллельной редукцией fork-join
+ * по столбцам {@link OrderSnapshot} без обращения к базе данных. Подсчет делится между потоками
+ * пула {@code pool}, поэтому время ответа уменьшается с числом ядер. Пока снимок недействителен,
+ * запросы передаются репозиторию {@code fallback}.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class SnapshotOrderStats implements OrderStatsRepository {
+
+    private static final Comparator<ProductOrderCount> TOP_ORDER = Comparator
+            .comparingInt(ProductOrderCount::orders).reversed()
+            .thenComparing(ProductOrderCount::product);
+
+    private final OrderSnapshot snapshot;
+    private final OrderStatsRepository fallback;
+    private final ForkJoinPool pool;
+
+    /**
+     * Создает репозиторий агрегатов поверх снимка.
+     *
+     * @param snapshot снимок заказов
+     * @param fallback репозиторий, используемый, пока снимок недействителен
+     * @param pool пул fork-join для подсчета
+     */
+    public SnapshotOrderStats(OrderSnapshot snapshot, OrderStatsRepository fallback, ForkJoinPool pool) {
+        this.snapshot = snapshot;
+        this.fallback = fallback;
+        this.pool = pool;
+    }
+
+    @Override
+    public void forEachUserOrderCount(RowCallback<UserOrderCount> callback) throws SQLException, IOException {
+        if (!snapshot.isValid()) {
+            fallback.forEachUserOrderCount(callback);
+            return;
+        }
+        IntCounts counts = snapshot.countByUser(pool);
+        for (int userId = counts.first(); userId < counts.end(); userId++) {
+            int orders = counts.get(userId);
+            if (orders > 0) {
+                callback.accept(new UserOrderCount(userId, orders));
+            }
+        }
+    }
+
+    @Override
+    public List<ProductOrderCount> findTopProducts(int limit) throws SQLException {
+        if (!snapshot.isValid()) {
+            return fallback.findTopProducts(limit);
+        }
+        IntCounts counts = snapshot.countByProduct(pool);
+        // Куча из limit лучших товаров, в вершине - худший из них
+        PriorityQueue<ProductOrderCount> top = new PriorityQueue<>(limit + 1, TOP_ORDER.reversed());
+        for (int code = counts.first(); code < counts.end(); code++) {
+            int orders = counts.get(code);
+            if (orders == 0 || (top.size() == limit && orders < top.peek().orders())) {
+                continue;
+            }
+            top.add(new ProductOrderCount(snapshot.productName(code), orders));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<ProductOrderCount> products = new ArrayList<>(top);
+        products.sort(TOP_ORDER);
+        return products;
+    }
+
+    @Override
+    public List<OrderCountBucket> findUserHistogram(int width) throws SQLException {
+        if (!snapshot.isValid()) {
+            return fallback.findUserHistogram(width);
+        }
+        IntCounts counts = snapshot.countByUser(pool);
+        int maxOrders = 0;
+        for (int userId = counts.first(); userId < counts.end(); userId++) {
+            maxOrders = Math.max(maxOrders, counts.get(userId));
+        }
+        List<OrderCountBucket> buckets = new ArrayList<>();
+        if (maxOrders == 0) {
+            return buckets;
+        }
+        int[] users = new int[(maxOrders - 1) / width + 1];
+        for (int userId = counts.first(); userId < counts.end(); userId++) {
+            int orders = counts.get(userId);
+            if (orders > 0) {
+                users[(orders - 1) / width]++;
+            }
+        }
+        for (int bucket = 0; bucket < users.length; bucket++) {
+            if (users[bucket] > 0) {
+                buckets.add(new OrderCountBucket(bucket * width + 1, (bucket + 1) * width, users[bucket]));
+            }
+        }
+        return buckets;
+    }
+}
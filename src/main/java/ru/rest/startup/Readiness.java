@@ -0,0 +1,69 @@
+package ru.rest.startup;
+
+/**
+ * Класс {@code Readiness} хранит стадию жизненного цикла экземпляра, которую сообщает {@code /health/ready}.
+ * <p>
+ * Сервер начинает принимать соединения до окончания прогрева, чтобы прогрев прошел по настоящим маршрутам,
+ * но балансировщик направляет трафик только после перехода в {@link State#READY}. При остановке
+ * экземпляр переходит в {@link State#STOPPING} и снова перестает считаться готовым.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class Readiness {
+
+    /**
+     * Стадия жизненного цикла.
+     */
+    public enum State {
+        STARTING,
+        WARMING_UP,
+        READY,
+        STOPPING
+    }
+
+    private static volatile State state = State.STARTING;
+    private static volatile long readyAtMillis;
+
+    private Readiness() {
+    }
+
+    /**
+     * Переводит экземпляр в указанную стадию.
+     *
+     * @param newState новая стадия
+     */
+    public static void set(State newState) {
+        if (newState == State.READY) {
+            readyAtMillis = System.currentTimeMillis();
+        }
+        state = newState;
+    }
+
+    /**
+     * Возвращает текущую стадию.
+     *
+     * @return стадия жизненного цикла
+     */
+    public static State get() {
+        return state;
+    }
+
+    /**
+     * Проверяет, готов ли экземпляр принимать трафик.
+     *
+     * @return {@code true} в стадии {@link State#READY}
+     */
+    public static boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Возвращает момент перехода в {@link State#READY}.
+     *
+     * @return время в миллисекундах эпохи или {@code 0}, если экземпляр еще не был готов
+     */
+    public static long getReadyAtMillis() {
+        return readyAtMillis;
+    }
+}
@@ -0,0 +1,191 @@
+package ru.rest.startup;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ru.rest.dataBase.ConnectionPool;
+import ru.rest.entity.Order;
+import ru.rest.entity.User;
+import ru.rest.entity.UserWithOrders;
+import ru.rest.json.JsonBuffer;
+import ru.rest.json.JsonCodec;
+import ru.rest.json.JsonType;
+import ru.rest.json.WireFormat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс {@code Warmup} прогревает экземпляр перед тем, как {@code /health/ready} сообщит о готовности.
+ * <p>
+ * Прогрев заполняет пулы подключений, несколько тысяч раз сериализует и разбирает типичные тела во всех
+ * форматах {@link WireFormat} и выполняет локальные GET-запросы к маршрутам чтения с разными
+ * {@code Accept} и {@code Accept-Encoding}. В результате классы загружены, горячие методы скомпилированы JIT,
+ * а кэши и пулы буферов заполнены до прихода первого настоящего запроса. Запросы на изменение данных
+ * при прогреве не выполняются.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public final class Warmup {
+
+    private static final String[] PATHS = {
+            "/users?limit=50", "/users?limit=20&include=orders", "/orders?limit=50", "/orders/search?q=lamp&limit=20", "/users/%d", "/orders/%d",
+            "/orders/%d/users", "/users/orders?ids=%d,2,3", "/metrics", "/metrics/pool", "/health/live"
+    };
+
+    private static final String[] PRODUCTS = {"Red Lamp", "Blue Chair", "Green Table", "Quiet Fan", "Small Desk"};
+
+    /**
+     * Настройки прогрева.
+     *
+     * @param enabled выполнять ли прогрев
+     * @param serializerIterations число циклов сериализации и разбора для каждого формата
+     * @param requests число локальных HTTP-запросов
+     * @param maxMs ограничение общего времени прогрева в миллисекундах; {@code 0} - без ограничения
+     * @param exitAfter завершить ли процесс после прогрева (обучающий запуск для AppCDS)
+     */
+    public record Settings(boolean enabled, int serializerIterations, int requests, long maxMs, boolean exitAfter) {
+
+        /**
+         * Читает настройки из системных свойств {@code server.warmup.enabled},
+         * {@code server.warmup.serializerIterations}, {@code server.warmup.requests},
+         * {@code server.warmup.maxMs} и {@code server.warmup.exitAfter}.
+         *
+         * @return настройки прогрева
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Boolean.parseBoolean(System.getProperty("server.warmup.enabled", "true")),
+                    Integer.getInteger("server.warmup.serializerIterations", 500),
+                    Integer.getInteger("server.warmup.requests", 200),
+                    Long.getLong("server.warmup.maxMs", 3000L),
+                    Boolean.getBoolean("server.warmup.exitAfter"));
+        }
+    }
+
+    private Warmup() {
+    }
+
+    /**
+     * Выполняет прогрев. Ошибки отдельных шагов не прерывают запуск: экземпляр без прогрева
+     * работает корректно, только первые запросы медленнее. По истечении {@code maxMs} оставшиеся
+     * циклы пропускаются, чтобы медленная машина не откладывала готовность надолго.
+     *
+     * @param port порт запущенного HTTP-сервера
+     * @param settings настройки прогрева
+     */
+    public static void run(int port, Settings settings) {
+        long started = System.nanoTime();
+        long deadline = started + (settings.maxMs() > 0
+                ? TimeUnit.MILLISECONDS.toNanos(settings.maxMs()) : TimeUnit.DAYS.toNanos(1));
+        int connections = ConnectionPool.prefill();
+        long poolDone = System.nanoTime();
+        int iterations = exerciseSerializers(settings.serializerIterations(), deadline);
+        long serializersDone = System.nanoTime();
+        int[] requests = exerciseRoutes(port, settings.requests(), deadline);
+        long routesDone = System.nanoTime();
+        System.out.printf("Прогрев: %d подключений за %d мс, %d циклов сериализации за %d мс, "
+                        + "%d запросов за %d мс (ошибок %d).%n",
+                connections, (poolDone - started) / 1_000_000, iterations, (serializersDone - poolDone) / 1_000_000,
+                requests[0], (routesDone - serializersDone) / 1_000_000, requests[1]);
+    }
+
+    /**
+     * Сериализует и разбирает типичные тела запросов и ответов во всех форматах.
+     *
+     * @param iterations число циклов для каждого формата
+     * @param deadline момент по {@link System#nanoTime()}, после которого циклы прекращаются
+     * @return число выполненных циклов
+     */
+    static int exerciseSerializers(int iterations, long deadline) {
+        List<Order> orders = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        List<UserWithOrders> usersWithOrders = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            orders.add(new Order(i, PRODUCTS[i % PRODUCTS.length], i));
+            users.add(new User(i, "User " + i, "user" + i + "@example.com", 0));
+            UserWithOrders user = new UserWithOrders(i, "User " + i, "user" + i + "@example.com", 0);
+            user.getOrders().add(orders.get(i - 1));
+            usersWithOrders.add(user);
+        }
+        int i = 0;
+        try {
+            for (; i < iterations && System.nanoTime() - deadline < 0; i++) {
+                for (WireFormat format : WireFormat.values()) {
+                    roundTrip(JsonCodec.ORDERS, format, orders);
+                    roundTrip(JsonCodec.USERS, format, users);
+                    roundTrip(JsonCodec.ORDER, format, orders.get(0));
+                    roundTrip(JsonCodec.USER, format, users.get(0));
+                    write(JsonCodec.USERS_WITH_ORDERS.compact(format), usersWithOrders);
+                }
+                write(JsonCodec.ORDERS.writer(WireFormat.JSON, true), orders);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return i;
+    }
+
+    private static <T> void roundTrip(JsonType<T> type, WireFormat format, T value) throws IOException {
+        type.reader(format).readValue(write(type.compact(format), value));
+    }
+
+    private static byte[] write(ObjectWriter writer, Object value) throws IOException {
+        JsonBuffer buffer = JsonCodec.acquireBuffer();
+        try {
+            JsonCodec.write(buffer, writer, value);
+            return buffer.toByteArray();
+        } finally {
+            JsonCodec.release(buffer);
+        }
+    }
+
+    /**
+     * Выполняет GET-запросы к маршрутам чтения через локальный порт. Ответы 404 на пустой базе
+     * тоже проходят маршрутизатор, фильтры и контроллеры и поэтому не считаются ошибками.
+     *
+     * @param port порт HTTP-сервера
+     * @param requests число запросов
+     * @param deadline момент по {@link System#nanoTime()}, после которого запросы прекращаются
+     * @return число выполненных запросов и число запросов, завершившихся исключением или ответом 5xx
+     */
+    static int[] exerciseRoutes(int port, int requests, long deadline) {
+        if (requests <= 0) {
+            return new int[]{0, 0};
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        WireFormat[] formats = WireFormat.values();
+        int failed = 0;
+        int i = 0;
+        for (; i < requests && System.nanoTime() - deadline < 0; i++) {
+            String path = String.format(PATHS[i % PATHS.length], 1 + (i / PATHS.length) % 10);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Accept", formats[(i / PATHS.length) % formats.length].mediaType());
+            if ((i & 1) == 0) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            try {
+                HttpResponse<byte[]> response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() >= 500) {
+                    failed++;
+                }
+            } catch (IOException e) {
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new int[]{i, failed};
+    }
+}
@@ -0,0 +1,122 @@
+package ru.rest.writer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Класс {@code MpscRingBuffer} реализует ограниченную очередь без блокировок для многих производителей
+ * и одного потребителя на основе кольцевого массива.
+ * <p>
+ * Каждая ячейка хранит номер последовательности: производитель резервирует позицию CAS-операцией над
+ * хвостом, записывает элемент и публикует его, выставляя номер ячейки. Потребитель читает ячейки по порядку
+ * и освобождает их для следующего круга, поэтому производители не ждут друг друга дольше одной CAS-операции,
+ * а заполненная очередь сразу отвечает отказом.
+ *
+ * @param <E> тип элемента
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Позиция чтения. Изменяется только потребителем, volatile нужен для {@link #size()}.
+     */
+    private volatile long head;
+
+    /**
+     * Создает очередь.
+     *
+     * @param capacity емкость очереди; округляется вверх до степени двойки
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавляет элемент в очередь. Может вызываться из любого числа потоков.
+     *
+     * @param element элемент, не {@code null}
+     * @return {@code true}, если элемент добавлен; {@code false}, если очередь заполнена
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Переносит в список до {@code maxElements} опубликованных элементов. Вызывается только потребителем.
+     *
+     * @param target список, в который добавляются элементы
+     * @param maxElements максимальное число переносимых элементов
+     * @return число перенесенных элементов
+     */
+    public int drainTo(List<? super E> target, int maxElements) {
+        long position = head;
+        int count = 0;
+        while (count < maxElements) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            count++;
+        }
+        head = position;
+        return count;
+    }
+
+    /**
+     * Возвращает приблизительное число элементов в очереди.
+     *
+     * @return число элементов
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, mask + 1L));
+    }
+
+    /**
+     * Возвращает емкость очереди.
+     *
+     * @return емкость
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,304 @@
+package ru.rest.writer;
+
+import ru.rest.entity.Order;
+import ru.rest.metrics.Metrics;
+import ru.rest.repository.IdBlockAllocator;
+import ru.rest.repository.OrderRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Класс {@code OrderWriteBehind} реализует отложенную запись новых заказов с групповой фиксацией.
+ * <p>
+ * Заказ получает идентификатор из заранее зарезервированного блока ({@link IdBlockAllocator}) и помещается
+ * в ограниченную очередь без блокировок ({@link MpscRingBuffer}); запрос не ждет базу данных. Фоновый поток
+ * собирает заказы в группу до {@code batchSize} штук или пока первый заказ группы ждет не дольше
+ * {@code maxDelayMs}, и сохраняет группу одним JDBC-пакетом в одной транзакции. Если группа не сохранилась
+ * (например, один из заказов ссылается на несуществующего пользователя), ее заказы сохраняются по одному,
+ * чтобы ошибка затронула только некорректные заказы.
+ * <p>
+ * Заказ, принятый в очередь, становится виден при чтении только после фиксации его группы, а при
+ * аварийной остановке процесса еще не зафиксированные заказы теряются. Клиенты, которым это не подходит,
+ * ждут результата {@link #submit(Order)} (режим {@code orders.writeBehind.durable}).
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderWriteBehind implements AutoCloseable {
+
+    private final OrderRepository repository;
+    private final IdBlockAllocator ids;
+    private final Consumer<Order> onCommitted;
+    private final MpscRingBuffer<PendingOrder> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Thread committer;
+
+    /**
+     * Поток записи ждет появления первого заказа группы; производители его будят.
+     */
+    private volatile boolean idle;
+    private volatile boolean running = true;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+
+    /**
+     * Настройки отложенной записи.
+     *
+     * @param enabled включена ли отложенная запись заказов
+     * @param capacity емкость очереди; при заполненной очереди новые заказы отклоняются
+     * @param batchSize максимальное число заказов в одной транзакции
+     * @param maxDelayMs максимальное время ожидания заполнения группы
+     * @param idBlockSize число идентификаторов, резервируемых за одно обращение к базе данных
+     * @param durable ждет ли запрос фиксации своей группы
+     * @param durableTimeoutMs максимальное время ожидания фиксации в режиме {@code durable}
+     */
+    public record Settings(boolean enabled, int capacity, int batchSize, long maxDelayMs, int idBlockSize,
+                           boolean durable, long durableTimeoutMs) {
+
+        /**
+         * Читает настройки из системных свойств {@code orders.writeBehind.enabled},
+         * {@code orders.writeBehind.capacity}, {@code orders.writeBehind.batchSize},
+         * {@code orders.writeBehind.maxDelayMs}, {@code orders.writeBehind.idBlockSize},
+         * {@code orders.writeBehind.durable} и {@code orders.writeBehind.durableTimeoutMs}.
+         *
+         * @return настройки отложенной записи
+         */
+        public static Settings fromSystemProperties() {
+            return new Settings(
+                    Boolean.getBoolean("orders.writeBehind.enabled"),
+                    Integer.getInteger("orders.writeBehind.capacity", 8192),
+                    Integer.getInteger("orders.writeBehind.batchSize", 256),
+                    Long.getLong("orders.writeBehind.maxDelayMs", 5L),
+                    Integer.getInteger("orders.writeBehind.idBlockSize", 1000),
+                    Boolean.getBoolean("orders.writeBehind.durable"),
+                    Long.getLong("orders.writeBehind.durableTimeoutMs", 30_000L));
+        }
+    }
+
+    /**
+     * Создает очередь отложенной записи и запускает поток групповой фиксации.
+     *
+     * @param repository репозиторий, в который сохраняются группы заказов
+     * @param ids распределитель идентификаторов заказов
+     * @param settings настройки очереди
+     * @param onCommitted действие, выполняемое для каждого заказа после фиксации его группы
+     */
+    public OrderWriteBehind(OrderRepository repository, IdBlockAllocator ids, Settings settings,
+                            Consumer<Order> onCommitted) {
+        this.repository = repository;
+        this.ids = ids;
+        this.onCommitted = onCommitted;
+        this.queue = new MpscRingBuffer<>(settings.capacity());
+        this.batchSize = settings.batchSize();
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(settings.maxDelayMs());
+        this.committer = new Thread(this::run, "order-writer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Присваивает заказу идентификатор и ставит его в очередь на запись.
+     *
+     * @param order новый заказ; его идентификатор заполняется
+     * @return результат, завершающийся после фиксации заказа (исключительно, если заказ не сохранен),
+     * или {@code null}, если очередь заполнена или запись остановлена
+     * @throws SQLException если не удалось зарезервировать блок идентификаторов
+     */
+    public CompletableFuture<Order> submit(Order order) throws SQLException {
+        if (!running) {
+            rejected.increment();
+            return null;
+        }
+        order.setId(ids.nextId());
+        PendingOrder pending = new PendingOrder(order, System.nanoTime());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            return null;
+        }
+        accepted.increment();
+        if (idle || queue.size() >= batchSize) {
+            LockSupport.unpark(committer);
+        }
+        return pending.result;
+    }
+
+    /**
+     * Останавливает прием заказов и дожидается записи уже принятых.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(committer);
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Возвращает число заказов, ожидающих записи.
+     *
+     * @return длина очереди
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Возвращает емкость очереди.
+     *
+     * @return емкость очереди
+     */
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    /**
+     * Возвращает число заказов, принятых в очередь.
+     *
+     * @return число принятых заказов
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * Возвращает число заказов, отклоненных из-за заполненной очереди.
+     *
+     * @return число отклоненных заказов
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Возвращает число сохраненных заказов.
+     *
+     * @return число сохраненных заказов
+     */
+    public long getCommitted() {
+        return committed.sum();
+    }
+
+    /**
+     * Возвращает число принятых заказов, которые не удалось сохранить.
+     *
+     * @return число несохраненных заказов
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Возвращает число выполненных групповых фиксаций.
+     *
+     * @return число групп
+     */
+    public long getGroups() {
+        return groups.sum();
+    }
+
+    /**
+     * Цикл потока записи: собирает группу и сохраняет ее, пока запись не остановлена и очередь не пуста.
+     */
+    private void run() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || queue.size() > 0) {
+            if (queue.drainTo(batch, batchSize) == 0) {
+                idle = true;
+                if (queue.size() == 0 && running) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                idle = false;
+                continue;
+            }
+            long deadline = batch.get(0).submittedAt + maxDelayNanos;
+            while (batch.size() < batchSize && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (queue.drainTo(batch, batchSize - batch.size()) == 0) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Сохраняет группу заказов одной транзакцией, а при ошибке - каждый заказ отдельно.
+     *
+     * @param batch группа заказов
+     */
+    private void commit(List<PendingOrder> batch) {
+        List<Order> orders = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            orders.add(pending.order);
+        }
+        long start = System.nanoTime();
+        try {
+            repository.insertWithIds(orders);
+            groups.increment();
+            for (PendingOrder pending : batch) {
+                completed(pending);
+            }
+        } catch (SQLException e) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), e);
+            } else {
+                for (PendingOrder pending : batch) {
+                    try {
+                        repository.insertWithIds(List.of(pending.order));
+                        groups.increment();
+                        completed(pending);
+                    } catch (SQLException orderError) {
+                        failed(pending, orderError);
+                    }
+                }
+            }
+        } finally {
+            Metrics.GROUP_COMMIT_TIME.record(System.nanoTime() - start);
+        }
+    }
+
+    private void completed(PendingOrder pending) {
+        committed.increment();
+        onCommitted.accept(pending.order);
+        pending.result.complete(pending.order);
+    }
+
+    private void failed(PendingOrder pending, SQLException e) {
+        e.printStackTrace();
+        failed.increment();
+        pending.result.completeExceptionally(e);
+    }
+
+    /**
+     * Заказ, ожидающий записи.
+     */
+    private static final class PendingOrder {
+        final Order order;
+        final long submittedAt;
+        final CompletableFuture<Order> result = new CompletableFuture<>();
+
+        PendingOrder(Order order, long submittedAt) {
+            this.order = order;
+            this.submittedAt = submittedAt;
+        }
+    }
+}
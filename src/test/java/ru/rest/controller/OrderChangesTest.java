@@ -0,0 +1,213 @@
+package ru.rest.controller;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.rest.entity.Order;
+import ru.rest.events.OrderEventBuffer;
+import ru.rest.search.OrderSearchIndex;
+import ru.rest.snapshot.OrderSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Тесты {@link OrderChanges}: изменения одного заказа применяются к представлениям и публикуются в порядке фиксации.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderChangesTest {
+
+    private static final int ORDER_ID = 7;
+    private static final int USER_ID = 3;
+
+    /**
+     * Таблица заказов, в которую «фиксируют» изменения тестовые записи.
+     */
+    private final Map<Integer, Order> table = new ConcurrentHashMap<>();
+    private OrderSearchIndex searchIndex;
+    private OrderSnapshot snapshot;
+    private OrderEventBuffer events;
+    private OrderChanges changes;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    @Before
+    public void setUp() {
+        searchIndex = new OrderSearchIndex();
+        snapshot = new OrderSnapshot(new OrderSnapshot.Settings(true, OrderSnapshot.Storage.HEAP,
+                Path.of(System.getProperty("java.io.tmpdir")), 1 << 20));
+        snapshot.markValid();
+        events = new OrderEventBuffer(new OrderEventBuffer.Settings(true, 64, 64, 15_000, 10));
+        changes = new OrderChanges(searchIndex, snapshot, events, 16);
+        Order order = new Order(ORDER_ID, "Red lamp", USER_ID);
+        table.put(ORDER_ID, order);
+        changes.saved(order, OrderEventBuffer.Type.CREATED);
+    }
+
+    @Test
+    public void deleteCommittedAfterUpdateIsAppliedAfterIt() throws Exception {
+        CountDownLatch updateCommitted = new CountDownLatch(1);
+        CountDownLatch applyUpdate = new CountDownLatch(1);
+        AtomicBoolean deleteWritten = new AtomicBoolean();
+        Order updated = new Order(ORDER_ID, "Blue lamp", USER_ID);
+
+        Thread update = start(() -> changes.apply(ORDER_ID, () -> {
+            table.put(ORDER_ID, updated);
+            updateCommitted.countDown();
+            pause(applyUpdate);
+            changes.saved(updated, OrderEventBuffer.Type.UPDATED);
+            return true;
+        }));
+        assertTrue(updateCommitted.await(5, TimeUnit.SECONDS));
+        Thread delete = start(() -> changes.apply(ORDER_ID, () -> {
+            deleteWritten.set(true);
+            table.remove(ORDER_ID);
+            changes.deleted(ORDER_ID);
+            return true;
+        }));
+        awaitBlocked(delete);
+        assertFalse("delete must wait for the update to be applied", deleteWritten.get());
+
+        applyUpdate.countDown();
+        join(update);
+        join(delete);
+
+        assertNull(table.get(ORDER_ID));
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.read(0, USER_ID, new OrderSnapshot.Rows(10)));
+        assertTrue(searchIndex.search("lamp", 0, 0, 10).isEmpty());
+        assertEquals(List.of("created", "updated", "deleted"), eventNames());
+    }
+
+    @Test
+    public void updatesAreAppliedInCommitOrder() throws Exception {
+        CountDownLatch firstCommitted = new CountDownLatch(1);
+        CountDownLatch applyFirst = new CountDownLatch(1);
+        Order first = new Order(ORDER_ID, "Green chair", USER_ID);
+        Order second = new Order(ORDER_ID, "Yellow table", USER_ID);
+
+        Thread firstUpdate = start(() -> changes.apply(ORDER_ID, () -> {
+            table.put(ORDER_ID, first);
+            firstCommitted.countDown();
+            pause(applyFirst);
+            changes.saved(first, OrderEventBuffer.Type.UPDATED);
+            return true;
+        }));
+        assertTrue(firstCommitted.await(5, TimeUnit.SECONDS));
+        Thread secondUpdate = start(() -> changes.apply(ORDER_ID, () -> {
+            table.put(ORDER_ID, second);
+            changes.saved(second, OrderEventBuffer.Type.UPDATED);
+            return true;
+        }));
+        awaitBlocked(secondUpdate);
+        applyFirst.countDown();
+        join(firstUpdate);
+        join(secondUpdate);
+
+        assertEquals("Yellow table", table.get(ORDER_ID).getProduct());
+        assertEquals(1, searchIndex.search("table", 0, 0, 10).size());
+        assertTrue(searchIndex.search("chair", 0, 0, 10).isEmpty());
+        OrderSnapshot.Rows rows = new OrderSnapshot.Rows(10);
+        assertEquals(1, snapshot.read(0, 0, rows));
+        assertEquals("Yellow table", rows.product(0).getValue());
+        String lastEvent = new String(events.get(events.lastSequence()).frame(), StandardCharsets.UTF_8);
+        assertTrue(lastEvent, lastEvent.contains("Yellow table"));
+    }
+
+    @Test
+    public void batchesWithOverlappingOrdersDoNotDeadlock() throws Exception {
+        int[] ascending = new int[64];
+        int[] descending = new int[64];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i + 1;
+            descending[i] = ascending.length - i;
+        }
+        Thread forward = start(() -> {
+            for (int i = 0; i < 2000; i++) {
+                changes.applyAll(ascending, () -> null);
+            }
+            return null;
+        });
+        Thread backward = start(() -> {
+            for (int i = 0; i < 2000; i++) {
+                changes.applyAll(descending, () -> changes.apply(1, () -> null));
+            }
+            return null;
+        });
+        join(forward);
+        join(backward);
+    }
+
+    /**
+     * Возвращает имена опубликованных событий в порядке публикации.
+     */
+    private List<String> eventNames() {
+        List<String> names = new ArrayList<>();
+        for (long sequence = 1; sequence <= events.lastSequence(); sequence++) {
+            String frame = new String(events.get(sequence).frame(), StandardCharsets.UTF_8);
+            int start = frame.indexOf("event: ") + "event: ".length();
+            names.add(frame.substring(start, frame.indexOf('\n', start)));
+        }
+        return names;
+    }
+
+    private interface Action {
+        Object run() throws Exception;
+    }
+
+    private Thread start(Action action) {
+        Thread thread = new Thread(() -> {
+            try {
+                action.run();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void join(Thread thread) throws Exception {
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse("thread did not finish", thread.isAlive());
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    /**
+     * Останавливает запись между фиксацией и применением к представлениям.
+     */
+    private static void pause(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Ждет, пока поток не остановится на блокировке заказа.
+     */
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+}
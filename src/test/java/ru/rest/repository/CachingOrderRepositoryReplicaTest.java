@@ -0,0 +1,124 @@
+package ru.rest.repository;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ru.rest.cache.LruCache;
+import ru.rest.dataBase.LimitedDataSource;
+import ru.rest.dataBase.MigrationRunner;
+import ru.rest.dataBase.ReadRouting;
+import ru.rest.dataBase.ReplicaRoutingDataSource;
+import ru.rest.dataBase.SeedGenerator;
+import ru.rest.entity.Order;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Тесты {@link CachingOrderRepository} с основной базой и отстающей репликой на двух встроенных базах H2:
+ * промах кэша читается из реплики, но в кэш попадают только заказы, прочитанные из основной базы.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CachingOrderRepositoryReplicaTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final int ORDER_ID = 1;
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private ReplicaRoutingDataSource readDataSource;
+    private LruCache<Integer, Order> cache;
+    private CachingOrderRepository repository;
+
+    @Before
+    public void setUp() throws SQLException {
+        primary = database("primary");
+        replica = database("replica");
+        readDataSource = new ReplicaRoutingDataSource(primary,
+                List.of(new LimitedDataSource(replica, 4, 1_000)), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN);
+        cache = new LruCache<>(100, 60_000);
+        repository = new CachingOrderRepository(new JdbcOrderRepository(primary, readDataSource), cache);
+        // Реплика еще не получила изменение, зафиксированное в основной базе
+        execute(primary, "UPDATE orders SET product = 'Primary lamp' WHERE id = " + ORDER_ID);
+        ReadRouting.takeReplicaRead();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        ReadRouting.clear();
+        execute(primary, "SHUTDOWN");
+        execute(replica, "SHUTDOWN");
+    }
+
+    @Test
+    public void missIsServedByReplicaWithoutCachingIt() throws SQLException {
+        Order order = repository.findById(ORDER_ID);
+
+        assertEquals(1, readDataSource.getReplicaReads());
+        assertEquals(0, readDataSource.getPrimaryReads());
+        assertEquals(replicaProduct(), order.getProduct());
+        assertNull(cache.get(ORDER_ID));
+
+        repository.findById(ORDER_ID);
+        assertEquals(2, readDataSource.getReplicaReads());
+    }
+
+    @Test
+    public void missReadFromPrimaryIsCached() throws SQLException {
+        ReadRouting.usePrimary();
+        try {
+            assertEquals("Primary lamp", repository.findById(ORDER_ID).getProduct());
+        } finally {
+            ReadRouting.clear();
+        }
+        assertEquals(1, readDataSource.getPrimaryReads());
+        assertEquals("Primary lamp", cache.get(ORDER_ID).getProduct());
+
+        // Следующий промах не нужен: заказ отдается из кэша без обращения к реплике
+        assertEquals("Primary lamp", repository.findById(ORDER_ID).getProduct());
+        assertEquals(0, readDataSource.getReplicaReads());
+    }
+
+    @Test
+    public void replicaFailureFallsBackToPrimaryAndCaches() throws SQLException {
+        JdbcDataSource unreachable = new JdbcDataSource();
+        unreachable.setURL("jdbc:h2:tcp://localhost:1/mem:replica");
+        readDataSource = new ReplicaRoutingDataSource(primary,
+                List.of(new LimitedDataSource(unreachable, 4, 1_000)), ReplicaRoutingDataSource.Balancing.ROUND_ROBIN);
+        repository = new CachingOrderRepository(new JdbcOrderRepository(primary, readDataSource), cache);
+
+        assertEquals("Primary lamp", repository.findById(ORDER_ID).getProduct());
+
+        assertEquals(1, readDataSource.getFailovers());
+        assertEquals("Primary lamp", cache.get(ORDER_ID).getProduct());
+    }
+
+    private String replicaProduct() throws SQLException {
+        return new JdbcOrderRepository(replica).findById(ORDER_ID).getProduct();
+    }
+
+    private static JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        new MigrationRunner(dataSource).migrate();
+        new SeedGenerator(dataSource).seed(2, 1);
+        return dataSource;
+    }
+
+    private static void execute(JdbcDataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
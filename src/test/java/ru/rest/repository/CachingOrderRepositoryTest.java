@@ -0,0 +1,92 @@
+package ru.rest.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.rest.cache.LruCache;
+import ru.rest.entity.Order;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты {@link CachingOrderRepository}: кэш не возвращает удаленный или прежний заказ после гонки записей.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CachingOrderRepositoryTest {
+
+    private static final int ORDER_ID = 5;
+
+    private final Map<Integer, Order> table = new ConcurrentHashMap<>();
+    private final LruCache<Integer, Order> cache = new LruCache<>(100, 60_000);
+    private OrderRepository delegate;
+    private CachingOrderRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        delegate = mock(OrderRepository.class);
+        when(delegate.findById(anyInt())).thenAnswer(call -> table.get(call.<Integer>getArgument(0)));
+        when(delegate.delete(anyInt())).thenAnswer(call -> table.remove(call.<Integer>getArgument(0)) != null);
+        repository = new CachingOrderRepository(delegate, cache);
+        table.put(ORDER_ID, new Order(ORDER_ID, "Lamp", 1));
+    }
+
+    @Test
+    public void deleteCommittedDuringUpdateIsNotUndoneByTheCache() throws Exception {
+        when(delegate.update(any(Order.class))).thenAnswer(call -> {
+            Order order = call.getArgument(0);
+            table.put(order.getId(), order);
+            // Удаление фиксируется и очищает кэш, пока обновление еще не вернулось
+            repository.delete(order.getId());
+            return true;
+        });
+
+        assertTrue(repository.update(new Order(ORDER_ID, "Chair", 1)));
+
+        assertNull(cache.get(ORDER_ID));
+        assertNull(repository.findById(ORDER_ID));
+    }
+
+    @Test
+    public void earlierUpdateFinishingLastDoesNotOverwriteLaterOne() throws Exception {
+        when(delegate.update(any(Order.class))).thenAnswer(call -> {
+            Order order = call.getArgument(0);
+            table.put(order.getId(), order);
+            if ("Chair".equals(order.getProduct())) {
+                // Следующее обновление фиксируется и завершается раньше первого
+                repository.update(new Order(ORDER_ID, "Table", 1));
+            }
+            return true;
+        });
+
+        repository.update(new Order(ORDER_ID, "Chair", 1));
+
+        assertEquals("Table", repository.findById(ORDER_ID).getProduct());
+    }
+
+    @Test
+    public void readStartedBeforeUpdateDoesNotCacheStaleOrder() throws Exception {
+        Order stale = table.get(ORDER_ID);
+        when(delegate.findById(ORDER_ID)).thenAnswer(call -> {
+            // Обновление фиксируется, пока чтение возвращает прежнюю строку
+            table.put(ORDER_ID, new Order(ORDER_ID, "Chair", 1));
+            repository.update(new Order(ORDER_ID, "Chair", 1));
+            return stale;
+        }).thenAnswer(call -> table.get(ORDER_ID));
+        when(delegate.update(any(Order.class))).thenReturn(true);
+
+        assertEquals("Lamp", repository.findById(ORDER_ID).getProduct());
+
+        assertNull(cache.get(ORDER_ID));
+        assertEquals("Chair", repository.findById(ORDER_ID).getProduct());
+    }
+}
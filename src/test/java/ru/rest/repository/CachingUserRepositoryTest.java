@@ -0,0 +1,64 @@
+package ru.rest.repository;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.rest.cache.LruCache;
+import ru.rest.entity.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты {@link CachingUserRepository}: после последовательных обновлений кэш не хранит промежуточную версию.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class CachingUserRepositoryTest {
+
+    private static final int USER_ID = 9;
+
+    private final Map<Integer, User> table = new ConcurrentHashMap<>();
+    private final LruCache<Integer, User> cache = new LruCache<>(100, 60_000);
+    private CachingUserRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        UserRepository delegate = mock(UserRepository.class);
+        when(delegate.findById(anyInt())).thenAnswer(call -> table.get(call.<Integer>getArgument(0)));
+        when(delegate.update(any(User.class))).thenAnswer(call -> {
+            User user = call.getArgument(0);
+            User current = table.get(user.getId());
+            if (current.getVersion() != user.getVersion()) {
+                return UpdateResult.VERSION_CONFLICT;
+            }
+            User saved = new User(user.getId(), user.getName(), user.getEmail(), user.getVersion() + 1);
+            table.put(user.getId(), saved);
+            if (saved.getVersion() == 1) {
+                // Следующее обновление (версия 1 -> 2) фиксируется и завершается раньше первого
+                repository.update(new User(USER_ID, "Second", "b@x.io", 1));
+            }
+            user.setVersion(saved.getVersion());
+            return UpdateResult.UPDATED;
+        });
+        repository = new CachingUserRepository(delegate, cache);
+        table.put(USER_ID, new User(USER_ID, "Initial", "a@x.io", 0));
+    }
+
+    @Test
+    public void cacheHoldsLatestVersionAfterUpdatesFinishOutOfOrder() throws Exception {
+        assertEquals(UpdateResult.UPDATED, repository.update(new User(USER_ID, "First", "a@x.io", 0)));
+
+        User cached = repository.findById(USER_ID);
+        assertEquals(2, cached.getVersion());
+        assertEquals("Second", cached.getName());
+        // Клиент, прочитавший запись, может ее обновить, а не получает 409 до истечения времени жизни
+        assertEquals(UpdateResult.UPDATED, repository.update(new User(USER_ID, "Third", "a@x.io", cached.getVersion())));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.rest.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import ru.rest.entity.Order;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Тесты {@link OrderSearchIndex}: пересечение курсоров слов запроса, страницы и фильтр по пользователю.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderSearchIndexTest {
+
+    private OrderSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new OrderSearchIndex();
+        index.put(1, "Red lamp", 1);
+        index.put(2, "Blue lamp", 2);
+        index.put(3, "Red chair", 1);
+        index.put(4, "Red lamps", 2);
+        index.put(5, "Lamp red shade", 1);
+        index.put(6, "Green table", 2);
+        index.put(7, "Reading lamp", 1);
+    }
+
+    @Test
+    public void intersectsPrefixesOfAllWords() {
+        assertArrayEquals(new int[]{1, 4, 5, 7}, ids(index.search("re lam", 0, 0, 100)));
+        assertArrayEquals(new int[]{1, 4, 5}, ids(index.search("red lamp", 0, 0, 100)));
+        assertArrayEquals(new int[]{1, 2, 4, 5, 7}, ids(index.search("lamp", 0, 0, 100)));
+    }
+
+    @Test
+    public void returnsOrderMatchingSeveralTokensOnce() {
+        // «re» совпадает и с «red», и с «reading», «lamp» - и с «lamp», и с «lamps»
+        index.put(8, "Red reading lamp lamps", 2);
+        assertArrayEquals(new int[]{1, 4, 5, 7, 8}, ids(index.search("re lamp", 0, 0, 100)));
+    }
+
+    @Test
+    public void returnsNothingForDisjointWords() {
+        assertTrue(index.search("blue chair", 0, 0, 100).isEmpty());
+        assertTrue(index.search("green lamp", 0, 0, 100).isEmpty());
+        assertTrue(index.search("sofa", 0, 0, 100).isEmpty());
+    }
+
+    @Test
+    public void pagesFromAfterIdAndStopsAtLimit() {
+        assertArrayEquals(new int[]{1, 4}, ids(index.search("re lam", 0, 0, 2)));
+        assertArrayEquals(new int[]{5, 7}, ids(index.search("re lam", 0, 4, 2)));
+        assertArrayEquals(new int[]{4, 5}, ids(index.search("re lam", 0, 3, 2)));
+        assertArrayEquals(new int[]{7}, ids(index.search("re lam", 0, 5, 2)));
+        assertArrayEquals(new int[0], ids(index.search("re lam", 0, 7, 2)));
+        assertArrayEquals(new int[0], ids(index.search("re lam", 0, Integer.MAX_VALUE, 2)));
+        assertArrayEquals(new int[]{1, 4, 5, 7}, ids(index.search("re lam", 0, -1, 100)));
+        assertArrayEquals(new int[0], ids(index.search("re lam", 0, 0, 0)));
+    }
+
+    @Test
+    public void filtersByUserWithinPage() {
+        assertArrayEquals(new int[]{1, 5}, ids(index.search("re lam", 1, 0, 2)));
+        assertArrayEquals(new int[]{7}, ids(index.search("re lam", 1, 5, 2)));
+        assertArrayEquals(new int[]{4}, ids(index.search("re lam", 2, 0, 10)));
+    }
+
+    @Test
+    public void followsUpdatesAndRemovals() {
+        index.put(4, "Green sofa", 2);
+        index.remove(1);
+        assertArrayEquals(new int[]{5, 7}, ids(index.search("re lam", 0, 0, 100)));
+        assertArrayEquals(new int[]{4, 6}, ids(index.search("green", 0, 0, 100)));
+    }
+
+    private static int[] ids(List<Order> orders) {
+        return orders.stream().mapToInt(Order::getId).toArray();
+    }
+}
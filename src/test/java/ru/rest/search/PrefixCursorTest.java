@@ -0,0 +1,91 @@
+package ru.rest.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Тесты {@link PrefixCursor}: слияние списков лексем с одним префиксом.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class PrefixCursorTest {
+
+    @Test
+    public void mergesDisjointLists() {
+        PrefixCursor cursor = cursor(0, new int[]{1, 4, 7}, new int[]{2, 5, 8}, new int[]{3, 6, 9});
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, drain(cursor));
+    }
+
+    @Test
+    public void returnsIdsSharedByTokensOnce() {
+        PrefixCursor cursor = cursor(0, new int[]{1, 2, 5, 9}, new int[]{2, 5, 6}, new int[]{5, 9});
+        assertArrayEquals(new int[]{1, 2, 5, 6, 9}, drain(cursor));
+    }
+
+    @Test
+    public void startsAfterAfterId() {
+        int[][] lists = {{1, 4, 7}, {2, 5, 8}};
+        assertArrayEquals(new int[]{1, 2, 4, 5, 7, 8}, drain(cursor(0, lists)));
+        assertArrayEquals(new int[]{1, 2, 4, 5, 7, 8}, drain(cursor(-5, lists)));
+        assertArrayEquals(new int[]{5, 7, 8}, drain(cursor(4, lists)));
+        assertArrayEquals(new int[]{4, 5, 7, 8}, drain(cursor(3, lists)));
+        assertArrayEquals(new int[]{8}, drain(cursor(7, lists)));
+        assertArrayEquals(new int[0], drain(cursor(8, lists)));
+        assertArrayEquals(new int[0], drain(cursor(100, lists)));
+    }
+
+    @Test
+    public void seekSkipsAheadAndNeverMovesBack() {
+        PrefixCursor cursor = cursor(0, new int[]{1, 3, 10, 20}, new int[]{2, 11, 30});
+        assertEquals(10, cursor.seek(4));
+        assertEquals(10, cursor.seek(10));
+        assertEquals(11, cursor.seek(11));
+        assertEquals(20, cursor.seek(12));
+        assertEquals(20, cursor.seek(1));
+        assertEquals(30, cursor.seek(21));
+        assertEquals(PrefixCursor.EXHAUSTED, cursor.seek(31));
+        assertEquals(PrefixCursor.EXHAUSTED, cursor.seek(1));
+    }
+
+    @Test
+    public void handlesEmptyInput() {
+        assertEquals(PrefixCursor.EXHAUSTED, cursor(0).seek(1));
+        assertEquals(PrefixCursor.EXHAUSTED, cursor(0, new int[0]).seek(1));
+    }
+
+    @Test
+    public void handlesIdsAtIntegerBounds() {
+        PrefixCursor cursor = cursor(Integer.MAX_VALUE - 2, new int[]{1, Integer.MAX_VALUE - 1, Integer.MAX_VALUE});
+        assertEquals(Integer.MAX_VALUE - 1, cursor.seek(Integer.MAX_VALUE - 1));
+        assertEquals(Integer.MAX_VALUE, cursor.seek(Integer.MAX_VALUE));
+    }
+
+    private static PrefixCursor cursor(int afterId, int[]... lists) {
+        List<IntPostingList> postings = new ArrayList<>();
+        for (int[] ids : lists) {
+            IntPostingList list = new IntPostingList();
+            for (int id : ids) {
+                list.add(id);
+            }
+            postings.add(list);
+        }
+        return new PrefixCursor(postings, afterId);
+    }
+
+    private static int[] drain(PrefixCursor cursor) {
+        List<Integer> ids = new ArrayList<>();
+        int target = Integer.MIN_VALUE;
+        int id;
+        while ((id = cursor.seek(target)) != PrefixCursor.EXHAUSTED) {
+            ids.add(id);
+            target = id + 1;
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.rest.serverHandler;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Тесты {@link HttpRequestDecoder}: границы тела запроса и отказ в неоднозначных запросах.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class HttpRequestDecoderTest {
+
+    private static final String POST = "POST /orders HTTP/1.1\r\nHost: localhost\r\n";
+
+    @Test
+    public void decodesContentLengthBody() throws Exception {
+        NioRequest request = decode(POST + "Content-Length: 5\r\n\r\nhello");
+        assertEquals("POST", request.method());
+        assertEquals("/orders", request.uri().getPath());
+        assertArrayEquals(bytes("hello"), request.body());
+    }
+
+    @Test
+    public void decodesChunkedBody() throws Exception {
+        NioRequest request = decode(POST + "Transfer-Encoding: chunked\r\n\r\n3\r\nhel\r\n2;ext=1\r\nlo\r\n0\r\n\r\n");
+        assertArrayEquals(bytes("hello"), request.body());
+        request = decode(POST + "Transfer-Encoding: Chunked\r\n\r\n0\r\n\r\n");
+        assertArrayEquals(new byte[0], request.body());
+    }
+
+    @Test
+    public void decodesPipelinedRequestsFromOneBuffer() throws Exception {
+        HttpRequestDecoder decoder = new HttpRequestDecoder(1024);
+        ByteBuffer in = buffer(POST + "Content-Length: 2\r\n\r\nab"
+                + POST + "Transfer-Encoding: chunked\r\n\r\n1\r\nc\r\n0\r\n\r\n"
+                + "GET /users HTTP/1.1\r\n\r\n");
+        assertArrayEquals(bytes("ab"), decoder.decode(in).body());
+        assertArrayEquals(bytes("c"), decoder.decode(in).body());
+        assertEquals("/users", decoder.decode(in).uri().getPath());
+        assertNull(decoder.decode(in));
+    }
+
+    @Test
+    public void rejectsTransferEncodingWithContentLength() {
+        assertRejected(400, POST + "Transfer-Encoding: chunked\r\nContent-Length: 4\r\n\r\n0\r\n\r\n");
+        assertRejected(400, POST + "Content-Length: 4\r\nTransfer-Encoding: chunked\r\n\r\n0\r\n\r\n");
+    }
+
+    @Test
+    public void rejectsTransferCodingsOtherThanChunked() {
+        assertRejected(400, POST + "Transfer-Encoding: chunked, gzip\r\n\r\n0\r\n\r\n");
+        assertRejected(400, POST + "Transfer-Encoding: gzip, chunked\r\n\r\n0\r\n\r\n");
+        assertRejected(400, POST + "Transfer-Encoding: gzip\r\n\r\n");
+        assertRejected(400, POST + "Transfer-Encoding: chunked\r\nTransfer-Encoding: chunked\r\n\r\n0\r\n\r\n");
+        assertRejected(400, POST + "Transfer-Encoding: xchunked\r\n\r\n0\r\n\r\n");
+    }
+
+    @Test
+    public void rejectsMultipleOrMalformedContentLength() {
+        assertRejected(400, POST + "Content-Length: 2\r\nContent-Length: 5\r\n\r\nhello");
+        assertRejected(400, POST + "Content-Length: 5\r\nContent-Length: 5\r\n\r\nhello");
+        assertRejected(400, POST + "Content-Length: 5, 5\r\n\r\nhello");
+        assertRejected(400, POST + "Content-Length: +5\r\n\r\nhello");
+        assertRejected(400, POST + "Content-Length: -1\r\n\r\n");
+        assertRejected(400, POST + "Content-Length: 0x5\r\n\r\nhello");
+        assertRejected(400, POST + "Content-Length:\r\n\r\n");
+        assertRejected(400, POST + "Content-Length: 99999999999999999999\r\n\r\n");
+    }
+
+    @Test
+    public void rejectsBodyOverLimit() {
+        assertRejected(413, POST + "Content-Length: 2048\r\n\r\n");
+        assertRejected(413, POST + "Transfer-Encoding: chunked\r\n\r\n801\r\n");
+    }
+
+    private static NioRequest decode(String request) throws Exception {
+        NioRequest decoded = new HttpRequestDecoder(1024).decode(buffer(request));
+        if (decoded == null) {
+            fail("request is incomplete");
+        }
+        return decoded;
+    }
+
+    private static void assertRejected(int status, String request) {
+        try {
+            new HttpRequestDecoder(1024).decode(buffer(request));
+            fail("request must be rejected: " + request);
+        } catch (HttpRequestDecoder.HttpDecodeException e) {
+            assertEquals(status, e.getStatus());
+        }
+    }
+
+    private static ByteBuffer buffer(String text) {
+        return ByteBuffer.wrap(bytes(text));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.rest.serverHandler;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.Test;
+import ru.rest.metrics.Metrics;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты {@link MetricsFilter}: код состояния, с которым учитывается ответ.
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class MetricsFilterTest {
+
+    @Test
+    public void abortedResponseIsRecordedAsServerError() {
+        String route = "/test/aborted";
+        HttpExchange exchange = exchange(200);
+        Filter.Chain chain = new Filter.Chain(List.of(), scoped -> {
+            scoped.setAttribute(Router.ROUTE_ATTRIBUTE, route);
+            throw new ResponseAbortedException(new SQLException("connection lost"));
+        });
+
+        assertThrows(ResponseAbortedException.class, () -> new MetricsFilter().doFilter(exchange, chain));
+
+        assertEquals(Map.of(500, 1L), Metrics.route("GET", route).getStatusCounts());
+    }
+
+    @Test
+    public void completedResponseIsRecordedWithItsStatus() throws IOException {
+        String route = "/test/completed";
+        HttpExchange exchange = exchange(200);
+        Filter.Chain chain = new Filter.Chain(List.of(),
+                scoped -> scoped.setAttribute(Router.ROUTE_ATTRIBUTE, route));
+
+        new MetricsFilter().doFilter(exchange, chain);
+
+        assertEquals(Map.of(200, 1L), Metrics.route("GET", route).getStatusCounts());
+    }
+
+    private static HttpExchange exchange(int responseCode) {
+        HttpExchange exchange = mock(HttpExchange.class);
+        when(exchange.getRequestMethod()).thenReturn("GET");
+        when(exchange.getResponseCode()).thenReturn(responseCode);
+        return exchange;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.rest.snapshot;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Тесты цепочек заказов пользователей {@link OrderSnapshot} (вставка и исключение заказа из цепочки).
+ *
+ * @author [Ваше Имя]
+ * @version 1.0
+ */
+public class OrderSnapshotTest {
+
+    private OrderSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        snapshot = new OrderSnapshot(new OrderSnapshot.Settings(true, OrderSnapshot.Storage.HEAP,
+                Path.of(System.getProperty("java.io.tmpdir")), 1 << 20));
+    }
+
+    @After
+    public void tearDown() {
+        snapshot.close();
+    }
+
+    @Test
+    public void linksOrdersInIdOrderWhateverTheInsertOrder() {
+        snapshot.put(5, "e", 1);
+        snapshot.put(2, "b", 1);
+        snapshot.put(9, "i", 1);
+        snapshot.put(1, "a", 1);
+        snapshot.put(7, "g", 1);
+        snapshot.put(3, "c", 2);
+
+        assertArrayEquals(new int[]{1, 2, 5, 7, 9}, userOrders(1));
+        assertArrayEquals(new int[]{3}, userOrders(2));
+        assertEquals(6, snapshot.size());
+    }
+
+    @Test
+    public void unlinksHeadMiddleAndTail() {
+        for (int id = 1; id <= 5; id++) {
+            snapshot.put(id, "p" + id, 1);
+        }
+        snapshot.remove(1);
+        assertArrayEquals(new int[]{2, 3, 4, 5}, userOrders(1));
+        snapshot.remove(4);
+        assertArrayEquals(new int[]{2, 3, 5}, userOrders(1));
+        snapshot.remove(5);
+        assertArrayEquals(new int[]{2, 3}, userOrders(1));
+        // Хвост цепочки сдвинулся: новый заказ дописывается после 3, а не после удаленного 5
+        snapshot.put(6, "p6", 1);
+        assertArrayEquals(new int[]{2, 3, 6}, userOrders(1));
+        snapshot.remove(2);
+        snapshot.remove(3);
+        snapshot.remove(6);
+        assertArrayEquals(new int[0], userOrders(1));
+        snapshot.put(4, "p4", 1);
+        assertArrayEquals(new int[]{4}, userOrders(1));
+        assertEquals(1, snapshot.size());
+    }
+
+    @Test
+    public void movesOrderBetweenUsers() {
+        snapshot.put(1, "a", 1);
+        snapshot.put(2, "b", 1);
+        snapshot.put(3, "c", 1);
+        snapshot.put(2, "b", 2);
+        assertArrayEquals(new int[]{1, 3}, userOrders(1));
+        assertArrayEquals(new int[]{2}, userOrders(2));
+        snapshot.put(2, "b2", 1);
+        assertArrayEquals(new int[]{1, 2, 3}, userOrders(1));
+        assertArrayEquals(new int[0], userOrders(2));
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    public void removingMissingOrderKeepsChains() {
+        snapshot.put(1, "a", 1);
+        snapshot.put(3, "c", 1);
+        snapshot.remove(2);
+        snapshot.remove(100_000);
+        assertArrayEquals(new int[]{1, 3}, userOrders(1));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    public void readsUserChainInPortions() {
+        for (int id = 1; id <= 10; id++) {
+            snapshot.put(id, "p" + id, id % 2 == 0 ? 1 : 2);
+        }
+        OrderSnapshot.Rows rows = new OrderSnapshot.Rows(2);
+        int[] ids = new int[5];
+        int count = 0;
+        int afterId = 0;
+        while (snapshot.read(afterId, 1, rows) > 0) {
+            for (int i = 0; i < rows.size(); i++) {
+                ids[count++] = rows.id(i);
+            }
+            afterId = rows.lastId();
+        }
+        assertArrayEquals(new int[]{2, 4, 6, 8, 10}, ids);
+    }
+
+    private int[] userOrders(int userId) {
+        OrderSnapshot.Rows rows = new OrderSnapshot.Rows(100);
+        int count = snapshot.read(0, userId, rows);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = rows.id(i);
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}